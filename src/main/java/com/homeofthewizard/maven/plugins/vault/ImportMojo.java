@@ -0,0 +1,83 @@
+package com.homeofthewizard.maven.plugins.vault;
+
+import com.google.common.base.Strings;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
+import com.homeofthewizard.maven.plugins.vault.client.SecretImporter;
+import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.config.ImportFormat;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
+import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Provides a Mojo that imports the entries of a .env, properties or JSON file into Vault, without Maven properties.
+ * The file is read one entry at a time, and its entries written to all the servers in batches of paths.
+ */
+@Mojo(name = "import")
+public class ImportMojo extends VaultMojo {
+
+  @Parameter(property = "vault.import.file", required = true)
+  protected File file;
+
+  @Parameter(property = "vault.import.format")
+  protected ImportFormat format;
+
+  @Parameter(property = "vault.import.path")
+  protected String path;
+
+  @Parameter(defaultValue = "100", property = "vault.import.batchSize")
+  protected int batchSize;
+
+  public ImportMojo(){}
+
+  public ImportMojo(AuthenticationMethodProvider authenticationMethodProvider, VaultClient vaultClient) {
+    super(authenticationMethodProvider, vaultClient);
+  }
+
+  @Override
+  ExecutionPlan.Operation operation() {
+    return ExecutionPlan.Operation.IMPORT;
+  }
+
+  /**
+   * Executes this Mojo which imports the entries of a file into Vault.
+   * The name of each entry, prefixed with the configured path if any, is the path of its secret followed by
+   * a slash and its key. The format of the file is the configured one, or the one of its extension.
+   *
+   * @throws MojoExecutionException if the file cannot be read or an exception is thrown writing the secrets
+   */
+  @Override
+  void executeVaultOperation() throws MojoExecutionException {
+    if (this.skipExecution) {
+      return;
+    }
+    ImportFormat fileFormat = this.format != null ? this.format : ImportFormat.of(this.file.getName());
+    SecretImporter importer = new SecretImporter(vaultClient, executionPlan(), executionOptions(), this.batchSize);
+    try (Reader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+      fileFormat.read(reader, (name, value) -> {
+        String secret = Strings.isNullOrEmpty(this.path) ? name : this.path.replaceAll("/+$", "") + "/" + name;
+        int separator = secret.lastIndexOf('/');
+        if (separator <= 0 || separator == secret.length() - 1) {
+          throw new VaultException(String.format("The entry %s has no path: set the path of the import, "
+                  + "or name the entry after the path and the key of its secret, as secret/app/key", name));
+        }
+        importer.put(secret.substring(0, separator), secret.substring(separator + 1), value);
+      });
+      importer.flush();
+    } catch (IOException exception) {
+      throw new MojoExecutionException("Exception thrown reading " + this.file + ".", exception);
+    } catch (VaultException exception) {
+      throw new MojoExecutionException("Exception thrown importing secrets.", exception);
+    }
+    getLog().info(String.format("Imported %d secrets from %s in %d batches",
+            importer.getKeys(), this.file, importer.getBatches()));
+  }
+}
@@ -16,13 +16,17 @@
 
 package com.homeofthewizard.maven.plugins.vault;
 
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
 import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.config.LazyProperties;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
 import io.github.jopenlibs.vault.VaultException;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 
+import java.util.Properties;
+
 /**
  * Provides a Mojo that pulls values from Vault and sets values according to the output method selected.
  */
@@ -36,6 +40,30 @@ public class PullMojo extends VaultMojo {
       super(authenticationMethodProvider, vaultClient);
   }
 
+  @Override
+  ExecutionPlan.Operation operation() {
+    return ExecutionPlan.Operation.PULL;
+  }
+
+  /**
+   * Starts pulling the secrets of the servers that have a token and warming up the connections of the others,
+   * while they log in. The secrets are joined by {@link #executeVaultOperation()}.
+   * Nothing is prefetched with a lazy output method, as its secrets are only read when needed.
+   *
+   * @throws MojoExecutionException if an exception is thrown starting the requests
+   */
+  @Override
+  void executeVaultPrefetch() throws MojoExecutionException {
+    if (this.outputMethod != null && this.outputMethod.isLazy()) {
+      return;
+    }
+    try {
+      vaultClient.prefetch(executionPlan(), executionOptions());
+    } catch (VaultException exception) {
+      throw new MojoExecutionException("Exception thrown prefetching secrets.", exception);
+    }
+  }
+
   /**
    * Executes this Mojo which pulls project property values from Vault.
    *
@@ -47,10 +75,27 @@ public class PullMojo extends VaultMojo {
       return;
     }
     try {
-      vaultClient.pull(this.servers, this.project.getProperties(), this.outputMethod);
+      var options = executionOptions();
+      vaultClient.pull(executionPlan(), properties(), this.outputMethod, options);
+      logCacheStatistics(options);
     } catch (VaultException exception) {
       throw new MojoExecutionException("Exception thrown pulling secrets.", exception);
     }
   }
 
+  /**
+   * Gets the properties receiving the secrets. With a lazy output method, the project properties are replaced
+   * by {@link LazyProperties} holding the same values, so that the secrets are pulled when first read.
+   *
+   * @return the properties
+   */
+  private Properties properties() {
+    Properties properties = this.project.getProperties();
+    if (this.outputMethod != null && this.outputMethod.isLazy() && !(properties instanceof LazyProperties)) {
+      properties = new LazyProperties(properties);
+      this.project.getModel().setProperties(properties);
+    }
+    return properties;
+  }
+
 }
@@ -16,12 +16,21 @@
 
 package com.homeofthewizard.maven.plugins.vault;
 
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionOptions;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
+import com.homeofthewizard.maven.plugins.vault.client.PushJournal;
 import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.client.WriteBehindQueue;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
 import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.nio.file.Path;
 
 /**
  * Provides a Mojo that pulls values from Vault and sets Maven properties.
@@ -29,14 +38,33 @@ import org.apache.maven.plugins.annotations.Mojo;
 @Mojo(name = "push", defaultPhase = LifecyclePhase.VERIFY)
 public class PushMojo extends VaultMojo {
 
+  @Parameter(defaultValue = "false", property = "vault.writeBehind")
+  protected boolean writeBehind;
+
+  @Parameter(defaultValue = "false", property = "vault.push.journal")
+  protected boolean journal;
+
+  @Parameter(defaultValue = "${project.build.directory}/vault-push.journal", property = "vault.push.journalFile")
+  protected File journalFile;
+
+  @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+  protected MojoExecution mojoExecution;
+
   public PushMojo(){}
 
   public PushMojo(AuthenticationMethodProvider authenticationMethodProvider, VaultClient vaultClient) {
     super(authenticationMethodProvider, vaultClient);
   }
 
+  @Override
+  ExecutionPlan.Operation operation() {
+    return ExecutionPlan.Operation.PUSH;
+  }
+
   /**
    * Executes this Mojo which pushes a project property values to Vault.
+   * In write-behind mode, the values are added to the queue of the build instead, written at its end.
+   * With a journal, the paths pushed are recorded, so that a failed push is resumed by the next execution.
    *
    * @throws MojoExecutionException if an exception is thrown based upon the project configuration
    */
@@ -45,11 +73,47 @@ public class PushMojo extends VaultMojo {
     if (this.skipExecution) {
       return;
     }
+    ExecutionOptions options = executionOptions();
+    if (this.journal) {
+      options.journal(new PushJournal(journalFile()));
+    }
+    if (this.writeBehind) {
+      WriteBehindQueue queue = WriteBehindLifecycleParticipant.queue(this.session);
+      if (queue != null) {
+        try {
+          queue.add(vaultClient, executionPlan(), this.project.getProperties(), options, this::login);
+        } catch (VaultException exception) {
+          throw new MojoExecutionException("Exception thrown queuing secrets.", exception);
+        }
+        getLog().info("Vault secrets queued, they are written at the end of the build");
+        return;
+      }
+      getLog().warn("The write-behind mode needs the plugin declared with <extensions>true</extensions>, "
+              + "pushing the secrets now");
+    }
     try {
-      vaultClient.push(this.servers, this.project.getProperties());
+      vaultClient.push(executionPlan(), this.project.getProperties(), options);
     } catch (VaultException exception) {
       throw new MojoExecutionException("Exception thrown pushing secrets.", exception);
     }
   }
 
+  /**
+   * Gets the journal of this execution: the journal file, with the id of the execution inserted before its
+   * extension, so that the executions of a module never resume nor delete the journal of another one.
+   *
+   * @return the journal file of this execution
+   */
+  Path journalFile() {
+    if (this.mojoExecution == null || this.mojoExecution.getExecutionId() == null) {
+      return this.journalFile.toPath();
+    }
+    String name = this.journalFile.getName();
+    int extension = name.lastIndexOf('.');
+    String executionName = extension > 0
+            ? name.substring(0, extension) + "-" + this.mojoExecution.getExecutionId() + name.substring(extension)
+            : name + "-" + this.mojoExecution.getExecutionId();
+    return this.journalFile.toPath().resolveSibling(executionName);
+  }
+
 }
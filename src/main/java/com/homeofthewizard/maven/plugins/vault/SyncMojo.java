@@ -0,0 +1,86 @@
+package com.homeofthewizard.maven.plugins.vault;
+
+import com.google.common.base.Strings;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
+import com.homeofthewizard.maven.plugins.vault.client.SyncReport;
+import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
+import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.util.List;
+
+/**
+ * Provides a Mojo that copies the secrets of a source Vault server to the servers, without Maven properties.
+ * The paths of the source are copied whole, the subtree paths listed recursively, and only the paths that differ
+ * are written to each server.
+ */
+@Mojo(name = "sync")
+public class SyncMojo extends VaultMojo {
+
+  @Parameter(required = true)
+  protected Server source;
+
+  @Parameter(defaultValue = "false", property = "vault.sync.dryRun")
+  protected boolean dryRun;
+
+  @Parameter(defaultValue = "false", property = "vault.sync.failOnDrift")
+  protected boolean failOnDrift;
+
+  public SyncMojo(){}
+
+  public SyncMojo(AuthenticationMethodProvider authenticationMethodProvider, VaultClient vaultClient) {
+    super(authenticationMethodProvider, vaultClient);
+  }
+
+  @Override
+  ExecutionPlan.Operation operation() {
+    return ExecutionPlan.Operation.SYNC;
+  }
+
+  /**
+   * Executes this Mojo which synchronizes the servers with the source server.
+   * In dry run mode, the drift of each server is only reported. With fail on drift, the build fails if some paths
+   * differed, typically along with the dry run mode to check that the servers are in sync.
+   *
+   * @throws MojoExecutionException if the source is invalid, an exception is thrown synchronizing the secrets,
+   *                                or some paths differed and the build fails on drift
+   */
+  @Override
+  void executeVaultOperation() throws MojoExecutionException {
+    if (this.skipExecution) {
+      return;
+    }
+    checkSource();
+    authenticate(List.of(this.source), new AuthenticationSysProperties());
+    SyncReport report;
+    try {
+      report = vaultClient.sync(this.source, executionPlan(), executionOptions(), this.dryRun);
+    } catch (VaultException exception) {
+      throw new MojoExecutionException("Exception thrown synchronizing secrets.", exception);
+    }
+    if (this.failOnDrift && report.getDrift() > 0) {
+      throw new MojoExecutionException(String.format("%d paths of the servers drifted from the source",
+              report.getDrift()));
+    }
+  }
+
+  private void checkSource() throws MojoExecutionException {
+    if (this.source == null || Strings.isNullOrEmpty(this.source.getUrl())) {
+      throw new MojoExecutionException("The source server has no url");
+    }
+    if (this.source.getPaths() == null || this.source.getPaths().isEmpty()) {
+      throw new MojoExecutionException("The source server has no paths to synchronize");
+    }
+    for (Path path : this.source.getPaths()) {
+      if (Strings.isNullOrEmpty(path.getName())) {
+        throw new MojoExecutionException("The source server has a path without name");
+      }
+    }
+  }
+}
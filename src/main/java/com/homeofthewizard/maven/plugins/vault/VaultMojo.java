@@ -16,6 +16,10 @@
 
 package com.homeofthewizard.maven.plugins.vault;
 
+import com.homeofthewizard.maven.plugins.vault.client.DiskSecretCache;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionOptions;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
+import com.homeofthewizard.maven.plugins.vault.client.SecretCache;
 import com.homeofthewizard.maven.plugins.vault.client.VaultBackendProvider;
 import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
 import com.homeofthewizard.maven.plugins.vault.config.OutputMethod;
@@ -24,11 +28,16 @@ import com.homeofthewizard.maven.plugins.vault.config.authentication.Authenticat
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
 import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.SessionData;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -39,6 +48,9 @@ abstract class VaultMojo extends AbstractMojo {
   @Parameter(defaultValue = "${project}", readonly = true)
   protected MavenProject project;
 
+  @Parameter(defaultValue = "${session}", readonly = true)
+  protected MavenSession session;
+
   @Parameter(required = true)
   protected List<Server> servers;
 
@@ -60,12 +72,41 @@ abstract class VaultMojo extends AbstractMojo {
   @Parameter(defaultValue = "false", property = "vault.skipExecution")
   protected boolean skipExecution;
 
+  @Parameter(defaultValue = "1", property = "vault.parallelism")
+  protected int parallelism;
+
+  @Parameter(defaultValue = "false", property = "vault.sessionCache")
+  protected boolean sessionCache;
+
+  @Parameter(defaultValue = "false", property = "vault.diskCache")
+  protected boolean diskCache;
+
+  @Parameter(defaultValue = "${user.home}/.m2/vault-cache", property = "vault.diskCache.directory")
+  protected File diskCacheDirectory;
+
+  @Parameter(defaultValue = "300", property = "vault.diskCache.ttl")
+  protected long diskCacheTtl;
+
+  @Parameter(defaultValue = "10485760", property = "vault.diskCache.maxSize")
+  protected long diskCacheMaxSize;
+
+  @Parameter(defaultValue = "false", property = "vault.diskCache.clear")
+  protected boolean diskCacheClear;
+
+  @Parameter(defaultValue = "false", property = "vault.diskCache.versionCheck")
+  protected boolean diskCacheVersionCheck;
+
+  @Parameter(defaultValue = "false", property = "vault.prefetch")
+  protected boolean prefetch;
+
   private final AuthenticationMethodProvider authenticationMethodProvider;
   protected final VaultClient vaultClient;
+  private ExecutionOptions executionOptions;
+  private ExecutionPlan executionPlan;
 
   VaultMojo() {
-    this.authenticationMethodProvider = new AuthenticationMethodFactory();
     var vaultBackendProvider = new VaultBackendProvider();
+    this.authenticationMethodProvider = new AuthenticationMethodFactory(vaultBackendProvider);
     this.vaultClient = VaultClient.createForBackend(vaultBackendProvider);
   }
 
@@ -80,18 +121,158 @@ abstract class VaultMojo extends AbstractMojo {
     if (this.skipExecution) {
       return;
     }
+    executionPlan = compileExecutionPlan();
+    if (this.prefetch) {
+      executeVaultPrefetch();
+    }
     executeVaultAuthentication();
     executeVaultOperation();
   }
 
   private void executeVaultAuthentication() throws MojoExecutionException {
+    authenticate(servers, authenticationSysProperties());
+  }
+
+  /**
+   * Authenticates to servers that have no token yet.
+   *
+   * @param servers the servers
+   * @param authSystemProps the authentication methods given on the command line, by index of server
+   * @throws MojoExecutionException if an exception is thrown authenticating
+   */
+  void authenticate(List<Server> servers, AuthenticationSysProperties authSystemProps) throws MojoExecutionException {
     try {
-      var authSystemArgs = new AuthenticationSysProperties(authMethods, pats, roleIds, secretIds);
-      vaultClient.authenticateIfNecessary(servers, authSystemArgs, authenticationMethodProvider);
+      vaultClient.authenticateIfNecessary(servers, authSystemProps, authenticationMethodProvider);
     } catch (VaultException e) {
       throw new MojoExecutionException("Exception thrown authenticating.", e);
     }
   }
 
+  /**
+   * Logs in again to a server of this mojo that has no token, with its authentication method or the one given
+   * for it on the command line.
+   *
+   * @param server the server
+   * @throws VaultException if an exception is thrown authenticating
+   */
+  void login(Server server) throws VaultException {
+    int index = 0;
+    while (index < servers.size() && servers.get(index) != server) {
+      index++;
+    }
+    vaultClient.authenticateIfNecessary(List.of(server), authenticationSysProperties().of(index),
+            authenticationMethodProvider);
+  }
+
+  private AuthenticationSysProperties authenticationSysProperties() {
+    return new AuthenticationSysProperties(authMethods, pats, roleIds, secretIds);
+  }
+
+  /**
+   * Gets the plan of the Vault operation, compiled from the configuration of this mojo before any request is sent.
+   * All the errors of the configuration, including servers that cannot authenticate, are reported together.
+   *
+   * @return the execution plan
+   * @throws MojoExecutionException if the configuration is invalid
+   */
+  ExecutionPlan executionPlan() throws MojoExecutionException {
+    if (executionPlan == null) {
+      executionPlan = compileExecutionPlan();
+    }
+    return executionPlan;
+  }
+
+  private ExecutionPlan compileExecutionPlan() throws MojoExecutionException {
+    try {
+      return ExecutionPlan.compile(servers, operation(), authenticationSysProperties());
+    } catch (VaultException e) {
+      throw new MojoExecutionException("Exception thrown compiling the configuration.", e);
+    }
+  }
+
+  /**
+   * Gets the operation this mojo runs, which decides how its configuration is validated.
+   *
+   * @return the operation
+   */
+  abstract ExecutionPlan.Operation operation();
+
+  /**
+   * Gets the execution options of the Vault operation from the configuration of this mojo.
+   * The options are created once per execution, so that the operation joins the reads started by the prefetch.
+   *
+   * @return the execution options
+   */
+  ExecutionOptions executionOptions() throws MojoExecutionException {
+    if (executionOptions == null) {
+      SecretCache secretCache = sessionCache ? sessionSecretCache() : null;
+      executionOptions = new ExecutionOptions()
+              .parallelism(parallelism)
+              .secretCache(secretCache == null && prefetch ? new SecretCache() : secretCache)
+              .diskCache(diskSecretCache())
+              .versionCheck(diskCacheVersionCheck)
+              .log(getLog());
+    }
+    return executionOptions;
+  }
+
+  /**
+   * Starts the Vault requests that can run before the authentication, so that they overlap with it.
+   * Mojos that have nothing to prefetch do nothing.
+   *
+   * @throws MojoExecutionException if an exception is thrown starting the requests
+   */
+  void executeVaultPrefetch() throws MojoExecutionException { }
+
+  /**
+   * Gets the secret cache shared by all the executions of this plugin during the Maven session.
+   * The cache is kept in the session data of the repository session, so that it lives as long as the build
+   * and is visible to all modules, including the ones built in parallel.
+   *
+   * @return the cache, or null if there is no session
+   */
+  private SecretCache sessionSecretCache() {
+    if (session == null || session.getRepositorySession() == null) {
+      return null;
+    }
+    SessionData data = session.getRepositorySession().getData();
+    data.set(SecretCache.class, null, new SecretCache());
+    return (SecretCache) data.get(SecretCache.class);
+  }
+
+  /**
+   * Gets the encrypted cache keeping the secrets on disk between builds, cleared first if requested.
+   *
+   * @return the cache, or null if it is not enabled
+   * @throws MojoExecutionException if the cache cannot be cleared
+   */
+  private DiskSecretCache diskSecretCache() throws MojoExecutionException {
+    if (!diskCache && !diskCacheClear) {
+      return null;
+    }
+    var cache = new DiskSecretCache(diskCacheDirectory.toPath(), diskCacheMaxSize, Duration.ofSeconds(diskCacheTtl));
+    if (diskCacheClear) {
+      try {
+        cache.clear();
+      } catch (IOException e) {
+        throw new MojoExecutionException("Exception thrown clearing the Vault disk cache.", e);
+      }
+    }
+    return diskCache ? cache : null;
+  }
+
+  /**
+   * Logs the hit and miss counts of the secret cache used by an operation.
+   *
+   * @param options the execution options of the operation
+   */
+  void logCacheStatistics(ExecutionOptions options) {
+    SecretCache cache = options.getSecretCache();
+    if (cache != null) {
+      getLog().info(String.format("Vault secret cache: %d hits, %d misses in this build",
+              cache.getHits(), cache.getMisses()));
+    }
+  }
+
   abstract void executeVaultOperation() throws MojoExecutionException;
 }
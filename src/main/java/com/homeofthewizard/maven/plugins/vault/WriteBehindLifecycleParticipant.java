@@ -0,0 +1,74 @@
+package com.homeofthewizard.maven.plugins.vault;
+
+import com.homeofthewizard.maven.plugins.vault.client.WriteBehindQueue;
+import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Provides the queue of the pushes in write-behind mode, and writes it once at the end of the build.
+ * Nothing is written if the build failed. Maven only runs this participant when the plugin is declared
+ * with {@code <extensions>true</extensions>}: without it, the pushes have no queue and write right away.
+ */
+@Named("vault-write-behind")
+@Singleton
+public class WriteBehindLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindLifecycleParticipant.class);
+
+  /**
+   * Creates the queue of the build, kept in the session data of the repository session.
+   *
+   * @param session the session
+   */
+  @Override
+  public void afterProjectsRead(MavenSession session) {
+    if (session.getRepositorySession() != null) {
+      session.getRepositorySession().getData().set(WriteBehindQueue.class, new WriteBehindQueue());
+    }
+  }
+
+  /**
+   * Writes the paths queued during the build, or drops them if the build failed.
+   *
+   * @param session the session
+   * @throws MavenExecutionException if an exception is thrown pushing the secrets
+   */
+  @Override
+  public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
+    WriteBehindQueue queue = queue(session);
+    if (queue == null || queue.size() == 0) {
+      return;
+    }
+    if (session.getResult() != null && session.getResult().hasExceptions()) {
+      LOGGER.warn("The build failed: the {} Vault paths queued by the pushes are not written", queue.size());
+      queue.clear();
+      return;
+    }
+    LOGGER.info("Writing the {} Vault paths queued by the pushes", queue.size());
+    try {
+      queue.flush();
+    } catch (VaultException | RuntimeException e) {
+      throw new MavenExecutionException("Exception thrown pushing secrets.", e);
+    }
+  }
+
+  /**
+   * Gets the queue of the build.
+   *
+   * @param session the session
+   * @return the queue, or null if this participant is not running
+   */
+  static WriteBehindQueue queue(MavenSession session) {
+    if (session == null || session.getRepositorySession() == null) {
+      return null;
+    }
+    return (WriteBehindQueue) session.getRepositorySession().getData().get(WriteBehindQueue.class);
+  }
+}
@@ -0,0 +1,394 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs Vault requests concurrently within a global parallelism limit and optional per-server limits.
+ * Uses virtual threads when the runtime provides them and a bounded pool of daemon threads otherwise.
+ * With a parallelism of one the tasks run sequentially on the calling thread.
+ * Results are either collected with {@link #invokeAll(List)}, or streamed in order to a {@link Sink} with
+ * {@link #forEachInOrder(List, Sink)}, which keeps a bounded number of them in memory. Both stop at the first
+ * failure; {@link #invokeAllSettled(List)} instead runs every task and keeps the failures with the results.
+ * Tasks running nested tasks share the threads and permits of their executor with
+ * {@link #invokeAllSharing(Semaphore, List)}.
+ */
+final class BoundedExecutor implements AutoCloseable {
+
+  private final int parallelism;
+
+  private final Semaphore permits;
+
+  private final ExecutorService executor;
+
+  /**
+   * Initializes a new instance of the {@link BoundedExecutor} class.
+   *
+   * @param parallelism the maximum number of tasks running at the same time
+   * @param name        the prefix of the worker thread names
+   */
+  BoundedExecutor(int parallelism, String name) {
+    this.parallelism = Math.max(1, parallelism);
+    this.permits = new Semaphore(this.parallelism);
+    this.executor = parallelism > 1 ? newExecutor(parallelism, name) : null;
+  }
+
+  /**
+   * Creates the permits limiting the number of concurrent tasks for one server.
+   *
+   * @param maxConcurrency the limit of the server, or null or a value lower than one for no limit
+   * @return the permits, or null if the server has no limit of its own
+   */
+  static Semaphore serverPermits(Integer maxConcurrency) {
+    return maxConcurrency != null && maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+  }
+
+  /**
+   * Wraps a task so that it only runs while holding one of the given server permits.
+   *
+   * @param serverPermits the permits of the server, or null if the server has no limit
+   * @param task          the task
+   * @param <T>           the type of the task result
+   * @return the wrapped task
+   */
+  static <T> Callable<T> limited(Semaphore serverPermits, Callable<T> task) {
+    if (serverPermits == null) {
+      return task;
+    }
+    return () -> {
+      serverPermits.acquire();
+      try {
+        return task.call();
+      } finally {
+        serverPermits.release();
+      }
+    };
+  }
+
+  /**
+   * Runs all tasks and returns their results in the order of the tasks.
+   * The first failure cancels the tasks that are still pending or running and is rethrown.
+   *
+   * @param tasks the tasks
+   * @param <T>   the type of the task results
+   * @return the results, in the order of the tasks
+   * @throws VaultException if a task fails with a checked exception
+   */
+  <T> List<T> invokeAll(List<Callable<T>> tasks) throws VaultException {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (executor == null) {
+      for (Callable<T> task : tasks) {
+        results.add(callUnchecked(task));
+      }
+      return results;
+    }
+    CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    try {
+      for (Callable<T> task : tasks) {
+        futures.add(completion.submit(limited(permits, task)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        completion.take().get();
+      }
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (ExecutionException e) {
+      cancel(futures);
+      throw propagate(e.getCause());
+    } catch (InterruptedException e) {
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    }
+  }
+
+  /**
+   * Runs all tasks from within a task of this executor, sharing its threads and permits with the other tasks.
+   *
+   * @param serverPermits the permits of the server, or null if the server has no limit
+   * @param tasks         the tasks
+   * @param <T>           the type of the task results
+   * @return the results, in the order of the tasks
+   * @throws VaultException if a task fails with a checked exception
+   * @see #invokeAllSharing(ExecutorService, Semaphore, Semaphore, List)
+   */
+  <T> List<T> invokeAllSharing(Semaphore serverPermits, List<Callable<T>> tasks) throws VaultException {
+    return invokeAllSharing(executor, permits, serverPermits, tasks);
+  }
+
+  /**
+   * Runs all tasks from within a task already holding one of the given permits, and one of the server permits.
+   * The calling thread runs the tasks itself, and is only helped by other threads of the executor for which
+   * both a permit and a server permit are free right away, so that the tasks never wait for permits held by
+   * their caller, nor exceed the limits shared with the other tasks. Helpers that have not started once the
+   * calling thread ran out of tasks are cancelled, and tasks submitted to an executor that was shut down run on
+   * the calling thread. The first failure stops the tasks not started yet and is rethrown.
+   *
+   * @param executor      the executor of the helpers, or null to run the tasks on the calling thread
+   * @param permits       the permits of the executor
+   * @param serverPermits the permits of the server, or null if the server has no limit
+   * @param tasks         the tasks
+   * @param <T>           the type of the task results
+   * @return the results, in the order of the tasks
+   * @throws VaultException if a task fails with a checked exception
+   */
+  static <T> List<T> invokeAllSharing(ExecutorService executor, Semaphore permits, Semaphore serverPermits,
+                                      List<Callable<T>> tasks) throws VaultException {
+    Object[] results = new Object[tasks.size()];
+    AtomicInteger next = new AtomicInteger();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Runnable drain = () -> {
+      for (int i = next.getAndIncrement(); i < tasks.size() && failure.get() == null; i = next.getAndIncrement()) {
+        try {
+          results[i] = tasks.get(i).call();
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }
+    };
+    List<Future<?>> helpers = new ArrayList<>();
+    List<AtomicBoolean> started = new ArrayList<>();
+    for (int i = 1; executor != null && i < tasks.size(); i++) {
+      if (!permits.tryAcquire()) {
+        break;
+      }
+      if (serverPermits != null && !serverPermits.tryAcquire()) {
+        permits.release();
+        break;
+      }
+      AtomicBoolean start = new AtomicBoolean();
+      try {
+        helpers.add(executor.submit(() -> {
+          if (start.compareAndSet(false, true)) {
+            try {
+              drain.run();
+            } finally {
+              release(permits, serverPermits);
+            }
+          }
+        }));
+        started.add(start);
+      } catch (RejectedExecutionException e) {
+        release(permits, serverPermits);
+        break;
+      }
+    }
+    drain.run();
+    try {
+      for (int i = 0; i < helpers.size(); i++) {
+        if (started.get(i).compareAndSet(false, true)) {
+          helpers.get(i).cancel(false);
+          release(permits, serverPermits);
+        } else {
+          helpers.get(i).get();
+        }
+      }
+    } catch (ExecutionException e) {
+      failure.compareAndSet(null, e.getCause());
+    } catch (InterruptedException e) {
+      next.set(tasks.size());
+      cancel(helpers);
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    }
+    if (failure.get() != null) {
+      throw propagate(failure.get());
+    }
+    @SuppressWarnings("unchecked")
+    List<T> list = (List<T>) Arrays.asList(results);
+    return list;
+  }
+
+  /**
+   * Runs all tasks and hands their results to a sink in the order of the tasks, as soon as they are available.
+   * At most twice the parallelism of tasks are submitted ahead of the result the sink waits for, so that
+   * the number of results held in memory does not grow with the number of tasks.
+   * The first failure, of a task or of the sink, cancels the tasks that are still pending or running.
+   *
+   * @param tasks the tasks
+   * @param sink  the sink receiving the results
+   * @param <T>   the type of the task results
+   * @throws VaultException if a task or the sink fails with a checked exception
+   */
+  <T> void forEachInOrder(List<Callable<T>> tasks, Sink<T> sink) throws VaultException {
+    if (executor == null) {
+      for (int i = 0; i < tasks.size(); i++) {
+        sink.accept(i, callUnchecked(tasks.get(i)));
+      }
+      return;
+    }
+    int window = 2 * parallelism;
+    Deque<Future<T>> pending = new ArrayDeque<>(window);
+    Iterator<Callable<T>> remaining = tasks.iterator();
+    int index = 0;
+    try {
+      while (remaining.hasNext() || !pending.isEmpty()) {
+        while (remaining.hasNext() && pending.size() < window) {
+          pending.add(executor.submit(limited(permits, remaining.next())));
+        }
+        T result = pending.poll().get();
+        sink.accept(index++, result);
+      }
+    } catch (ExecutionException e) {
+      cancel(pending);
+      throw propagate(e.getCause());
+    } catch (InterruptedException e) {
+      cancel(pending);
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    } catch (VaultException | RuntimeException | Error e) {
+      cancel(pending);
+      throw e;
+    }
+  }
+
+  /**
+   * Runs all tasks to completion, whether or not some of them fail, and returns their futures in the order of
+   * the tasks. Unlike {@link #invokeAll(List)}, a failure does not cancel the other tasks: each future holds
+   * either the result or the failure of its task.
+   * If the calling thread is interrupted while waiting, the tasks still running are cancelled and the exception
+   * tells how many of them may or may not have completed.
+   *
+   * @param tasks the tasks
+   * @param <T>   the type of the task results
+   * @return the completed futures, in the order of the tasks
+   * @throws VaultException if the calling thread is interrupted
+   */
+  <T> List<Future<T>> invokeAllSettled(List<Callable<T>> tasks) throws VaultException {
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    if (executor == null) {
+      for (Callable<T> task : tasks) {
+        try {
+          futures.add(CompletableFuture.completedFuture(task.call()));
+        } catch (Exception e) {
+          futures.add(CompletableFuture.failedFuture(e));
+        }
+      }
+      return futures;
+    }
+    for (Callable<T> task : tasks) {
+      futures.add(executor.submit(limited(permits, task)));
+    }
+    for (Future<T> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        // kept in the future for the caller
+      } catch (InterruptedException e) {
+        long running = futures.stream().filter(f -> !f.isDone()).count();
+        cancel(futures);
+        Thread.currentThread().interrupt();
+        throw new VaultException(String.format("Interrupted while %d of %d tasks were not completed: "
+                + "their requests may or may not have been applied", running, futures.size()));
+      }
+    }
+    return futures;
+  }
+
+  /**
+   * Stops the worker threads, interrupting the tasks that may still be running.
+   */
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> T callUnchecked(Callable<T> task) throws VaultException {
+    try {
+      return task.call();
+    } catch (Exception e) {
+      throw propagate(e);
+    }
+  }
+
+  private static void release(Semaphore permits, Semaphore serverPermits) {
+    permits.release();
+    if (serverPermits != null) {
+      serverPermits.release();
+    }
+  }
+
+  private static void cancel(Iterable<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Rethrows unchecked failures as they are and converts the checked ones into a {@link VaultException}.
+   */
+  private static VaultException propagate(Throwable cause) {
+    if (cause instanceof VaultException) {
+      return (VaultException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new VaultException(cause);
+  }
+
+  /**
+   * Creates the executor running tasks in the background, with virtual threads when the runtime provides them
+   * and a bounded pool of daemon threads otherwise, so that it never prevents the JVM from exiting.
+   *
+   * @param parallelism the number of threads of the pool
+   * @param name        the prefix of the worker thread names
+   * @return the executor
+   */
+  static ExecutorService newExecutor(int parallelism, String name) {
+    try {
+      Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) virtualThreads.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      var threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-%d").build();
+      return Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+  }
+
+  /**
+   * Receives the results of tasks in the order of the tasks.
+   *
+   * @param <T> the type of the task results
+   */
+  @FunctionalInterface
+  interface Sink<T> {
+
+    /**
+     * Receives the result of a task.
+     *
+     * @param index  the index of the task
+     * @param result the result of the task
+     * @throws VaultException if the result cannot be handled
+     */
+    void accept(int index, T result) throws VaultException;
+  }
+}
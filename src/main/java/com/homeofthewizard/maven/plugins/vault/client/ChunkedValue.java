@@ -0,0 +1,210 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.hash.Hashing;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a value too large for a single Vault request into chunks, and reassembles it.
+ * The chunks are stored in sub-paths next to the path of the value, one chunk per sub-path, and the key of the value
+ * holds a manifest instead: the number of chunks, the length of the value and its SHA-256 checksum.
+ * The chunks of a value are stored under its checksum, so that a new value never overwrites the chunks of the value
+ * a concurrent reader may be reassembling, and the checksum is verified once the value is reassembled.
+ * For example, the chunks of the key {@code keystore} of {@code secret/app} are stored in
+ * {@code secret/app.chunks/keystore/<checksum>/0}, {@code secret/app.chunks/keystore/<checksum>/1}, and so on.
+ */
+final class ChunkedValue {
+
+  /**
+   * Defines the key holding the chunk in the sub-path of a chunk.
+   */
+  static final String CHUNK_KEY = "chunk";
+
+  /**
+   * Defines the suffix of the folders holding the chunks of a path, skipped when listing subtrees.
+   */
+  static final String FOLDER_SUFFIX = ".chunks/";
+
+  /**
+   * Defines the smallest chunk size, in bytes, so that any character fits in a chunk.
+   */
+  static final int MIN_CHUNK_SIZE = 4;
+
+  private static final String MANIFEST_PREFIX = "vault-chunks:v1:";
+
+  private final int count;
+
+  private final int length;
+
+  private final String checksum;
+
+  private ChunkedValue(int count, int length, String checksum) {
+    this.count = count;
+    this.length = length;
+    this.checksum = checksum;
+  }
+
+  /**
+   * Splits a value in chunks whose UTF-8 encoding is at most the given number of bytes, as the request size limit
+   * of Vault is in bytes, never splitting a character.
+   *
+   * @param value the value
+   * @param chunkSize the maximum number of bytes of a chunk
+   * @return the chunks
+   */
+  static List<String> split(String value, int chunkSize) {
+    int size = Math.max(MIN_CHUNK_SIZE, chunkSize);
+    List<String> chunks = new ArrayList<>();
+    int start = 0;
+    int bytes = 0;
+    for (int index = 0; index < value.length(); ) {
+      int codePoint = value.codePointAt(index);
+      int length = utf8Length(codePoint);
+      if (bytes + length > size) {
+        chunks.add(value.substring(start, index));
+        start = index;
+        bytes = 0;
+      }
+      bytes += length;
+      index += Character.charCount(codePoint);
+    }
+    if (start < value.length()) {
+      chunks.add(value.substring(start));
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns a value indicating whether a value is longer than the chunk size once encoded in UTF-8.
+   *
+   * @param value the value
+   * @param chunkSize the maximum number of bytes of a chunk
+   * @return {@code true} if the value must be split; otherwise, {@code false}
+   */
+  static boolean exceeds(String value, int chunkSize) {
+    // a char takes 1 to 3 bytes, so that most values are decided without counting their bytes
+    if (value.length() > chunkSize || 3L * value.length() <= chunkSize) {
+      return value.length() > chunkSize;
+    }
+    long bytes = 0;
+    for (int index = 0; index < value.length(); ) {
+      int codePoint = value.codePointAt(index);
+      bytes += utf8Length(codePoint);
+      index += Character.charCount(codePoint);
+    }
+    return bytes > chunkSize;
+  }
+
+  private static int utf8Length(int codePoint) {
+    if (codePoint < 0x80) {
+      return 1;
+    }
+    if (codePoint < 0x800) {
+      return 2;
+    }
+    return codePoint < 0x10000 ? 3 : 4;
+  }
+
+  /**
+   * Gets the manifest of a value split in the given number of chunks.
+   *
+   * @param value the value
+   * @param count the number of chunks
+   * @return the manifest
+   */
+  static String manifest(String value, int count) {
+    return MANIFEST_PREFIX + count + ":" + value.length() + ":" + checksum(value);
+  }
+
+  /**
+   * Parses the manifest of a chunked value.
+   *
+   * @param value the value of a key
+   * @return the chunked value, or null if the value is not a manifest
+   */
+  static ChunkedValue parse(String value) {
+    if (value == null || !value.startsWith(MANIFEST_PREFIX)) {
+      return null;
+    }
+    String[] fields = value.substring(MANIFEST_PREFIX.length()).split(":");
+    try {
+      return fields.length == 3 ? new ChunkedValue(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), fields[2])
+              : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the path of a chunk of a value.
+   *
+   * @param path the path of the value
+   * @param key the key of the value
+   * @param checksum the checksum of the value
+   * @param index the index of the chunk, from {@code 0}
+   * @return the path of the chunk
+   */
+  static String chunkPath(String path, String key, String checksum, int index) {
+    return path + FOLDER_SUFFIX + key + "/" + checksum + "/" + index;
+  }
+
+  /**
+   * Gets the path of a chunk of this value.
+   *
+   * @param path the path of the value
+   * @param key the key of the value
+   * @param index the index of the chunk, from {@code 0}
+   * @return the path of the chunk
+   */
+  String chunkPath(String path, String key, int index) {
+    return chunkPath(path, key, this.checksum, index);
+  }
+
+  /**
+   * Reassembles this value from its chunks, and verifies its checksum.
+   *
+   * @param chunks the chunks, in order
+   * @return the value
+   * @throws VaultException if a chunk is missing, or the value does not match its checksum
+   */
+  String join(List<String> chunks) throws VaultException {
+    StringBuilder value = new StringBuilder(this.length);
+    for (int i = 0; i < chunks.size(); i++) {
+      if (chunks.get(i) == null) {
+        throw new VaultException(String.format("Chunk %d of %d is missing", i, this.count));
+      }
+      value.append(chunks.get(i));
+    }
+    if (chunks.size() != this.count || value.length() != this.length
+            || !checksum(value.toString()).equals(this.checksum)) {
+      throw new VaultException("The chunks do not match the checksum of their manifest, "
+              + "the value may have been pushed again while it was read");
+    }
+    return value.toString();
+  }
+
+  /**
+   * Gets the number of chunks of this value.
+   *
+   * @return the number of chunks
+   */
+  int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the checksum of this value.
+   *
+   * @return the SHA-256 checksum, in hexadecimal
+   */
+  String getChecksum() {
+    return this.checksum;
+  }
+
+  private static String checksum(String value) {
+    return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -0,0 +1,203 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the health of the nodes of a Vault cluster, to send the reads to the fastest node able to serve them and
+ * the writes to the active node. The nodes are checked in parallel with their unauthenticated {@code sys/health}
+ * endpoint, the first time they are needed, then again once the last check is too old or a request to a node
+ * failed transiently. A node not answering within the check timeout is considered down.
+ */
+final class Cluster {
+
+  /**
+   * Defines the time after which the health of the nodes is checked again.
+   */
+  static final Duration CHECK_INTERVAL = Duration.ofSeconds(30);
+
+  private static final int ACTIVE = 200;
+
+  private static final int STANDBY = 429;
+
+  private static final int PERFORMANCE_STANDBY = 473;
+
+  private final List<String> urls;
+
+  private final HealthCheck check;
+
+  private final Duration timeout;
+
+  private final ExecutorService executor;
+
+  private volatile Health health;
+
+  /**
+   * Initializes a new instance of the {@link Cluster} class.
+   *
+   * @param urls the urls of the nodes, the first one being used when no node is healthy
+   * @param check the check of the health of a node
+   * @param timeout the time to wait for the health of the nodes
+   * @param executor the executor checking the nodes in parallel
+   */
+  Cluster(List<String> urls, HealthCheck check, Duration timeout, ExecutorService executor) {
+    this.urls = List.copyOf(urls);
+    this.check = check;
+    this.timeout = timeout;
+    this.executor = executor;
+  }
+
+  /**
+   * Gets the urls of the nodes.
+   *
+   * @return the urls
+   */
+  List<String> urls() {
+    return this.urls;
+  }
+
+  /**
+   * Gets the url of the active node, the first node if none is known to be active.
+   *
+   * @return the url
+   */
+  String active() {
+    Health current = health();
+    return current.active != null ? current.active : this.urls.get(0);
+  }
+
+  /**
+   * Gets the urls of the nodes able to serve reads, the active node and the standbys, from the fastest to answer
+   * its health check to the slowest. When no node is healthy, all of them are returned, in their configured order.
+   *
+   * @return the urls
+   */
+  List<String> readers() {
+    Health current = health();
+    return !current.readers.isEmpty() ? current.readers : this.urls;
+  }
+
+  /**
+   * Reports that a request to a node failed transiently, so that the health of the nodes is checked again before
+   * the next request.
+   *
+   * @param url the url of the node
+   */
+  void failed(String url) {
+    Health current = this.health;
+    if (current != null && (url.equals(current.active) || current.readers.contains(url))) {
+      this.health = null;
+    }
+  }
+
+  private Health health() {
+    Health current = this.health;
+    if (current != null && System.nanoTime() - current.checkedAt < CHECK_INTERVAL.toNanos()) {
+      return current;
+    }
+    synchronized (this) {
+      current = this.health;
+      if (current == null || System.nanoTime() - current.checkedAt >= CHECK_INTERVAL.toNanos()) {
+        current = checkAll();
+        this.health = current;
+      }
+      return current;
+    }
+  }
+
+  /**
+   * Checks the health of all the nodes in parallel, waiting at most for the check timeout.
+   */
+  private Health checkAll() {
+    List<Callable<Node>> checks = new ArrayList<>();
+    for (String url : this.urls) {
+      checks.add(() -> {
+        long start = System.nanoTime();
+        int status = this.check.status(url);
+        return new Node(url, status, System.nanoTime() - start);
+      });
+    }
+    List<Node> nodes = new ArrayList<>();
+    try {
+      for (Future<Node> future : this.executor.invokeAll(checks, this.timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        if (!future.isCancelled()) {
+          try {
+            nodes.add(future.get());
+          } catch (ExecutionException e) {
+            // the node cannot be reached: it is down
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    String active = null;
+    List<String> readers = new ArrayList<>();
+    nodes.sort(Comparator.comparingLong(node -> node.latency));
+    for (Node node : nodes) {
+      if (node.status == ACTIVE && active == null) {
+        active = node.url;
+      }
+      if (node.status == ACTIVE || node.status == STANDBY || node.status == PERFORMANCE_STANDBY) {
+        readers.add(node.url);
+      }
+    }
+    return new Health(active, readers, System.nanoTime());
+  }
+
+  /**
+   * Checks the health of a node.
+   */
+  @FunctionalInterface
+  interface HealthCheck {
+
+    /**
+     * Gets the status of the {@code sys/health} endpoint of a node: 200 if it is active, 429 if it is a standby,
+     * 473 if it is a performance standby, and 501 or 503 if it is not initialized or sealed.
+     *
+     * @param url the url of the node
+     * @return the status
+     * @throws VaultException if the node cannot be reached
+     */
+    int status(String url) throws VaultException;
+  }
+
+  private static final class Node {
+
+    private final String url;
+
+    private final int status;
+
+    private final long latency;
+
+    private Node(String url, int status, long latency) {
+      this.url = url;
+      this.status = status;
+      this.latency = latency;
+    }
+  }
+
+  private static final class Health {
+
+    private final String active;
+
+    private final List<String> readers;
+
+    private final long checkedAt;
+
+    private Health(String active, List<String> readers, long checkedAt) {
+      this.active = active;
+      this.readers = List.copyOf(readers);
+      this.checkedAt = checkedAt;
+    }
+  }
+}
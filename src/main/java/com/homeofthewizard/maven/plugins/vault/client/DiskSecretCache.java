@@ -0,0 +1,381 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Keeps the secrets read from Vault on disk between builds, encrypted with AES-GCM.
+ * An entry expires after the lease duration returned by Vault, or after a default time to live when Vault
+ * returns none. The entries are scoped by the token they were read with: their key is derived from the token with
+ * HKDF-SHA256 and never stored, so an entry can only be read back by a build using the same token.
+ * Entries of KV v2 secrets can also keep the version they were read at, so that they are reused as long as
+ * the version has not changed in Vault.
+ * When the entries exceed the maximum size, the least recently used ones are evicted.
+ * A damaged or unreadable entry is treated as missing, so the cache never fails a build.
+ */
+public final class DiskSecretCache {
+
+  private static final byte[] KEY_SALT = "vault-maven-plugin disk cache".getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] KEY_INFO = "AES-256-GCM entry key".getBytes(StandardCharsets.UTF_8);
+
+  private static final String HMAC = "HmacSHA256";
+
+  private static final String ENTRY_SUFFIX = ".secret";
+
+  private static final String CIPHER = "AES/GCM/NoPadding";
+
+  private static final int IV_LENGTH = 12;
+
+  private static final int TAG_LENGTH = 128;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final Path directory;
+
+  private final long maxSize;
+
+  private final Duration defaultTtl;
+
+  private final Clock clock;
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final Map<String, SecretKey> keys = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes a new instance of the {@link DiskSecretCache} class.
+   *
+   * @param directory  the directory of the cache
+   * @param maxSize    the maximum size of the entries in bytes
+   * @param defaultTtl the time to live of the entries for which Vault returns no lease duration
+   */
+  public DiskSecretCache(Path directory, long maxSize, Duration defaultTtl) {
+    this(directory, maxSize, defaultTtl, Clock.systemUTC());
+  }
+
+  DiskSecretCache(Path directory, long maxSize, Duration defaultTtl, Clock clock) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.defaultTtl = defaultTtl;
+    this.clock = clock;
+  }
+
+  /**
+   * Gets the secrets of a location if they are cached and not expired.
+   *
+   * @param location the location
+   * @return the secrets, or null if there is no valid entry
+   */
+  Map<String, String> get(SecretLocation location) {
+    Entry entry = lookup(location);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.getExpiresAt() <= clock.millis()) {
+      invalidate(location);
+      return null;
+    }
+    return entry.getSecrets();
+  }
+
+  /**
+   * Gets the entry of a location, even if it is expired, so that its version can be checked against Vault.
+   *
+   * @param location the location
+   * @return the entry, or null if there is none or it cannot be read
+   */
+  Entry lookup(SecretLocation location) {
+    if (token(location).isEmpty()) {
+      return null;
+    }
+    Path file = entry(location);
+    try {
+      Map<String, Object> content = decrypt(Files.readAllBytes(file), location);
+      Files.setLastModifiedTime(file, FileTime.fromMillis(clock.millis()));
+      @SuppressWarnings("unchecked")
+      Map<String, String> secrets = (Map<String, String>) content.get("secrets");
+      Number version = (Number) content.get("version");
+      return new Entry(secrets, version != null ? version.longValue() : null,
+              ((Number) content.get("expiresAt")).longValue());
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | GeneralSecurityException | RuntimeException e) {
+      delete(file);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the secrets of a location.
+   *
+   * @param location             the location
+   * @param secrets              the secrets
+   * @param leaseDurationSeconds the lease duration returned by Vault, zero or null if there is none
+   */
+  void put(SecretLocation location, Map<String, String> secrets, Long leaseDurationSeconds) {
+    put(location, secrets, leaseDurationSeconds, null);
+  }
+
+  /**
+   * Stores the secrets of a location along with the KV v2 version they were read at.
+   * An entry with a version is kept after it expires, as long as the version is checked before it is used.
+   *
+   * @param location             the location
+   * @param secrets              the secrets
+   * @param leaseDurationSeconds the lease duration returned by Vault, zero or null if there is none
+   * @param version              the version of the secrets, or null if it is not known
+   */
+  void put(SecretLocation location, Map<String, String> secrets, Long leaseDurationSeconds, Long version) {
+    Duration ttl = leaseDurationSeconds != null && leaseDurationSeconds > 0
+            ? Duration.ofSeconds(leaseDurationSeconds) : defaultTtl;
+    if (version == null && (ttl.isZero() || ttl.isNegative()) || token(location).isEmpty()) {
+      return;
+    }
+    Map<String, Object> entry = new HashMap<>();
+    entry.put("expiresAt", clock.millis() + Math.max(0, ttl.toMillis()));
+    entry.put("version", version);
+    entry.put("secrets", secrets);
+    Path file = entry(location);
+    try {
+      Files.createDirectories(directory);
+      Path temporary = Files.createTempFile(directory, "entry", ".tmp");
+      restrictToOwner(temporary);
+      Files.write(temporary, encrypt(entry, location));
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | GeneralSecurityException e) {
+      delete(file);
+      return;
+    }
+    evict();
+  }
+
+  /**
+   * Removes the entry of a location.
+   *
+   * @param location the location
+   */
+  void invalidate(SecretLocation location) {
+    delete(entry(location));
+  }
+
+  /**
+   * Removes all the entries of this cache, whatever the token they were read with.
+   *
+   * @throws IOException if an exception is thrown listing the cache directory
+   */
+  public void clear() throws IOException {
+    for (Path file : entries()) {
+      delete(file);
+    }
+  }
+
+  private Path entry(SecretLocation location) {
+    String name = Hashing.sha256().hashString(identity(location), StandardCharsets.UTF_8).toString();
+    return directory.resolve(name + ENTRY_SUFFIX);
+  }
+
+  private static String identity(SecretLocation location) {
+    Endpoint endpoint = location.getEndpoint();
+    return String.join("\n", endpoint.getUrl(), endpoint.getNamespace(),
+            String.valueOf(endpoint.getEngineVersion()), location.getTokenHash(), location.getPath());
+  }
+
+  private static String token(SecretLocation location) {
+    return Strings.nullToEmpty(location.getEndpoint().getServer().getToken());
+  }
+
+  private byte[] encrypt(Map<String, Object> entry, SecretLocation location)
+          throws IOException, GeneralSecurityException {
+    byte[] iv = new byte[IV_LENGTH];
+    random.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance(CIPHER);
+    cipher.init(Cipher.ENCRYPT_MODE, key(location), new GCMParameterSpec(TAG_LENGTH, iv));
+    cipher.updateAAD(identity(location).getBytes(StandardCharsets.UTF_8));
+    byte[] encrypted = cipher.doFinal(MAPPER.writeValueAsBytes(entry));
+    return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+  }
+
+  private Map<String, Object> decrypt(byte[] content, SecretLocation location)
+          throws IOException, GeneralSecurityException {
+    Cipher cipher = Cipher.getInstance(CIPHER);
+    cipher.init(Cipher.DECRYPT_MODE, key(location), new GCMParameterSpec(TAG_LENGTH, content, 0, IV_LENGTH));
+    cipher.updateAAD(identity(location).getBytes(StandardCharsets.UTF_8));
+    byte[] decrypted = cipher.doFinal(content, IV_LENGTH, content.length - IV_LENGTH);
+    return MAPPER.readValue(decrypted, new TypeReference<Map<String, Object>>() { });
+  }
+
+  /**
+   * Gets the encryption key of the entries read with the token of a location, derived from the token with HKDF.
+   */
+  private SecretKey key(SecretLocation location) throws GeneralSecurityException {
+    SecretKey key = keys.get(location.getTokenHash());
+    if (key == null) {
+      key = new SecretKeySpec(hkdf(token(location).getBytes(StandardCharsets.UTF_8)), "AES");
+      keys.put(location.getTokenHash(), key);
+    }
+    return key;
+  }
+
+  /**
+   * Derives a 256 bits key from a secret with HKDF-SHA256 (RFC 5869), a single block being expanded.
+   */
+  static byte[] hkdf(byte[] secret) throws GeneralSecurityException {
+    Mac mac = Mac.getInstance(HMAC);
+    mac.init(new SecretKeySpec(KEY_SALT, HMAC));
+    byte[] pseudoRandomKey = mac.doFinal(secret);
+    mac.init(new SecretKeySpec(pseudoRandomKey, HMAC));
+    mac.update(KEY_INFO);
+    mac.update((byte) 1);
+    return mac.doFinal();
+  }
+
+  private static void restrictToOwner(Path file) throws IOException {
+    if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+    } else {
+      file.toFile().setReadable(false, false);
+      file.toFile().setReadable(true, true);
+      file.toFile().setWritable(false, false);
+      file.toFile().setWritable(true, true);
+    }
+  }
+
+  /**
+   * Removes the least recently used entries until the entries fit in the maximum size.
+   */
+  private synchronized void evict() {
+    List<Path> files;
+    try {
+      files = entries();
+    } catch (IOException e) {
+      return;
+    }
+    Map<Path, Long> sizes = new HashMap<>();
+    long total = 0;
+    for (Path file : files) {
+      long size = size(file);
+      sizes.put(file, size);
+      total += size;
+    }
+    if (total <= maxSize) {
+      return;
+    }
+    files.sort(Comparator.comparingLong(DiskSecretCache::lastModified));
+    for (Path file : files) {
+      if (total <= maxSize) {
+        break;
+      }
+      delete(file);
+      total -= sizes.get(file);
+    }
+  }
+
+  private List<Path> entries() throws IOException {
+    List<Path> files = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return files;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    return files;
+  }
+
+  private static long size(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static long lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      file.toFile().deleteOnExit();
+    }
+  }
+
+  /**
+   * Holds the content of a cache entry.
+   */
+  static final class Entry {
+
+    private final Map<String, String> secrets;
+
+    private final Long version;
+
+    private final long expiresAt;
+
+    private Entry(Map<String, String> secrets, Long version, long expiresAt) {
+      this.secrets = secrets;
+      this.version = version;
+      this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the secrets of this entry.
+     *
+     * @return the secrets
+     */
+    Map<String, String> getSecrets() {
+      return this.secrets;
+    }
+
+    /**
+     * Gets the KV v2 version the secrets of this entry were read at.
+     *
+     * @return the version, or null if it is not known
+     */
+    Long getVersion() {
+      return this.version;
+    }
+
+    /**
+     * Gets the time this entry expires at, in milliseconds since the epoch.
+     *
+     * @return the expiry time
+     */
+    long getExpiresAt() {
+      return this.expiresAt;
+    }
+  }
+}
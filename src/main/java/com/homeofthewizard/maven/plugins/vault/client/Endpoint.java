@@ -0,0 +1,146 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.base.Equivalence;
+import com.google.common.base.Strings;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Identifies a Vault server by the settings that select the secrets it serves: URL, namespace and engine version,
+ * and by the settings used to reach it: credentials and SSL verification. Servers of the configuration sharing all
+ * these settings are the same endpoint, and the first of them is used to reach it: they must share their other
+ * settings too, such as their transport and chunk size, as compiling a plan checks. Servers with other credentials
+ * or SSL settings are other endpoints, so that a path is never read with the credentials or the SSL settings of
+ * another server.
+ */
+final class Endpoint {
+
+  private final String url;
+
+  private final String namespace;
+
+  private final Integer engineVersion;
+
+  private final boolean sslVerify;
+
+  private final File sslCertificate;
+
+  private final Object credential;
+
+  private final Server server;
+
+  private Endpoint(Server server) {
+    this.url = server.getUrl();
+    this.namespace = Strings.nullToEmpty(server.getNamespace());
+    this.engineVersion = server.getEngineVersion();
+    this.sslVerify = server.getSslVerify();
+    this.sslCertificate = server.getSslCertificate();
+    this.server = server;
+    if (!Strings.isNullOrEmpty(server.getToken())) {
+      this.credential = server.getToken();
+    } else if (server.getAuthentication() != null) {
+      this.credential = server.getAuthentication();
+    } else {
+      // authenticated from the command line, by position: the server is only equal to itself
+      this.credential = Equivalence.identity().wrap(server);
+    }
+  }
+
+  /**
+   * Returns the endpoint of a server.
+   *
+   * @param server the server
+   * @return the endpoint
+   */
+  static Endpoint of(Server server) {
+    return new Endpoint(server);
+  }
+
+  /**
+   * Gets the server giving the connection settings of this endpoint.
+   *
+   * @return the server
+   */
+  Server getServer() {
+    return this.server;
+  }
+
+  /**
+   * Gets a value indicating whether the server of this endpoint is authenticated by a login rather than by a token
+   * set in the configuration.
+   *
+   * @return {@code true} if the server logs in; otherwise, {@code false}
+   */
+  boolean isAuthenticatedByLogin() {
+    return !(this.credential instanceof String);
+  }
+
+  /**
+   * Gets the URL of this endpoint.
+   *
+   * @return the URL
+   */
+  String getUrl() {
+    return this.url;
+  }
+
+  /**
+   * Gets the namespace of this endpoint, empty if none is used.
+   *
+   * @return the namespace
+   */
+  String getNamespace() {
+    return this.namespace;
+  }
+
+  /**
+   * Gets the KV engine version of this endpoint.
+   *
+   * @return the engine version
+   */
+  Integer getEngineVersion() {
+    return this.engineVersion;
+  }
+
+  /**
+   * Returns a hash code value for this endpoint.
+   *
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.url, this.namespace, this.engineVersion, this.sslVerify, this.sslCertificate,
+            this.credential);
+  }
+
+  /**
+   * Returns a value indicating whether this endpoint is equal to another object.
+   *
+   * @return {@code true} if the this endpoint is equal to the object; otherwise, {@code false}
+   */
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof Endpoint) {
+      Endpoint that = (Endpoint) object;
+      return Objects.equals(this.url, that.url)
+          && Objects.equals(this.namespace, that.namespace)
+          && Objects.equals(this.engineVersion, that.engineVersion)
+          && this.sslVerify == that.sslVerify
+          && Objects.equals(this.sslCertificate, that.sslCertificate)
+          && Objects.equals(this.credential, that.credential);
+    }
+    return false;
+  }
+
+  /**
+   * Returns a readable description of this endpoint.
+   *
+   * @return the description
+   */
+  @Override
+  public String toString() {
+    return this.namespace.isEmpty() ? this.url : this.url + " (namespace " + this.namespace + ")";
+  }
+}
@@ -0,0 +1,149 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Holds the settings of a {@link VaultClient} operation that apply to the whole execution rather than to one server.
+ */
+public final class ExecutionOptions {
+
+  private int parallelism = 1;
+
+  private SecretCache secretCache;
+
+  private DiskSecretCache diskCache;
+
+  private boolean versionCheck;
+
+  private Log log;
+
+  private PushJournal journal;
+
+  /**
+   * Initializes a new instance of the {@link ExecutionOptions} class with the default settings.
+   */
+  public ExecutionOptions() { }
+
+  /**
+   * Sets the maximum number of Vault requests that may be in flight at the same time across all servers.
+   * A value of {@code 1} or less keeps the requests sequential.
+   *
+   * @param parallelism the global parallelism limit
+   * @return this instance
+   */
+  public ExecutionOptions parallelism(int parallelism) {
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * Gets the maximum number of Vault requests that may be in flight at the same time across all servers.
+   *
+   * @return the global parallelism limit
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the cache shared by the executions of the build, or null to always read the secrets from Vault.
+   *
+   * @param secretCache the cache
+   * @return this instance
+   */
+  public ExecutionOptions secretCache(SecretCache secretCache) {
+    this.secretCache = secretCache;
+    return this;
+  }
+
+  /**
+   * Gets the cache shared by the executions of the build.
+   *
+   * @return the cache, or null if none is used
+   */
+  public SecretCache getSecretCache() {
+    return this.secretCache;
+  }
+
+  /**
+   * Sets the cache keeping the secrets on disk between builds, or null to not keep them.
+   *
+   * @param diskCache the cache
+   * @return this instance
+   */
+  public ExecutionOptions diskCache(DiskSecretCache diskCache) {
+    this.diskCache = diskCache;
+    return this;
+  }
+
+  /**
+   * Gets the cache keeping the secrets on disk between builds.
+   *
+   * @return the cache, or null if none is used
+   */
+  public DiskSecretCache getDiskCache() {
+    return this.diskCache;
+  }
+
+  /**
+   * Sets whether the disk cache entries of KV v2 paths are checked against the current version of the path
+   * in its metadata, so that the secrets are only read again when the version has changed.
+   *
+   * @param versionCheck {@code true} to check the versions; otherwise, {@code false}
+   * @return this instance
+   */
+  public ExecutionOptions versionCheck(boolean versionCheck) {
+    this.versionCheck = versionCheck;
+    return this;
+  }
+
+  /**
+   * Gets whether the disk cache entries of KV v2 paths are checked against the current version of the path.
+   *
+   * @return {@code true} if the versions are checked; otherwise, {@code false}
+   */
+  public boolean isVersionCheck() {
+    return this.versionCheck;
+  }
+
+  /**
+   * Sets the log receiving the outcome of the operation on each path, or null to not log it.
+   *
+   * @param log the log
+   * @return this instance
+   */
+  public ExecutionOptions log(Log log) {
+    this.log = log;
+    return this;
+  }
+
+  /**
+   * Gets the log receiving the outcome of the operation on each path.
+   *
+   * @return the log, or null if none is used
+   */
+  public Log getLog() {
+    return this.log;
+  }
+
+  /**
+   * Sets the journal recording the paths pushed, so that a failed push is resumed by the next run, or null to
+   * push all the paths each time.
+   *
+   * @param journal the journal
+   * @return this instance
+   */
+  public ExecutionOptions journal(PushJournal journal) {
+    this.journal = journal;
+    return this;
+  }
+
+  /**
+   * Gets the journal recording the paths pushed.
+   *
+   * @return the journal, or null if none is used
+   */
+  public PushJournal getJournal() {
+    return this.journal;
+  }
+}
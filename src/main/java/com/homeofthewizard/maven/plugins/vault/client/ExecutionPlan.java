@@ -0,0 +1,332 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.base.Strings;
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Holds the configuration of the servers compiled into the requests of a pull or a push, before any is sent.
+ * The paths are grouped by endpoint and path name, so that each distinct path is requested only once and then
+ * fans out to all of its mappings. Endpoints and paths keep the order in which they first appear in the
+ * configuration. Subtree paths are kept apart, until the client lists their leaves and expands the plan.
+ * Compiling a plan validates the whole configuration and reports all of its errors at once.
+ * A plan is immutable: expanding it returns a new plan.
+ */
+public final class ExecutionPlan {
+
+  /**
+   * Identifies the operation a plan is compiled for, which decides how its configuration is validated.
+   */
+  public enum Operation {
+    /**
+     * Reads secrets into properties: a property may only be mapped from one secret.
+     */
+    PULL,
+    /**
+     * Writes properties into secrets: a secret may only be mapped from one property.
+     */
+    PUSH,
+    /**
+     * Writes the entries of a file into secrets: the paths of the servers are not used, only their endpoints.
+     */
+    IMPORT,
+    /**
+     * Copies the secrets of a source server into the servers: the paths of the servers are not used, only their
+     * endpoints.
+     */
+    SYNC;
+
+    /**
+     * Returns a value indicating whether the paths of the servers are used by this operation.
+     *
+     * @return {@code true} if the paths are used; otherwise, {@code false}
+     */
+    boolean usesPaths() {
+      return this != IMPORT && this != SYNC;
+    }
+  }
+
+  private final Map<Endpoint, Map<String, PlannedPath>> paths;
+
+  private final Map<Endpoint, List<Path>> subtrees;
+
+  private ExecutionPlan(Map<Endpoint, Map<String, PlannedPath>> paths, Map<Endpoint, List<Path>> subtrees) {
+    Map<Endpoint, Map<String, PlannedPath>> frozen = new LinkedHashMap<>();
+    paths.forEach((endpoint, byName) -> frozen.put(endpoint, Collections.unmodifiableMap(new LinkedHashMap<>(byName))));
+    Map<Endpoint, List<Path>> frozenSubtrees = new LinkedHashMap<>();
+    subtrees.forEach((endpoint, list) -> frozenSubtrees.put(endpoint, List.copyOf(list)));
+    this.paths = Collections.unmodifiableMap(frozen);
+    this.subtrees = Collections.unmodifiableMap(frozenSubtrees);
+  }
+
+  /**
+   * Compiles the plan of the servers that are not skipped, for servers that are already authenticated.
+   *
+   * @param servers   the servers
+   * @param operation the operation
+   * @return the plan
+   * @throws VaultException if the configuration is invalid, with all of its errors
+   */
+  public static ExecutionPlan compile(List<Server> servers, Operation operation) throws VaultException {
+    return compile(servers, operation, null);
+  }
+
+  /**
+   * Compiles the plan of the servers that are not skipped, checking that every server can authenticate.
+   *
+   * @param servers         the servers
+   * @param operation       the operation
+   * @param authSystemProps the authentication methods given on the command line, or null to not check
+   *                        the authentication of the servers
+   * @return the plan
+   * @throws VaultException if the configuration is invalid, with all of its errors
+   */
+  public static ExecutionPlan compile(List<Server> servers, Operation operation,
+                                      AuthenticationSysProperties authSystemProps) throws VaultException {
+    List<String> errors = new ArrayList<>();
+    Map<Endpoint, Endpoint> endpoints = new LinkedHashMap<>();
+    Map<Endpoint, Integer> positions = new HashMap<>();
+    Map<Endpoint, Map<String, Set<Mapping>>> mappings = new LinkedHashMap<>();
+    Map<Endpoint, List<Path>> subtrees = new LinkedHashMap<>();
+    Map<String, String> targets = new HashMap<>();
+    for (int i = 0; i < servers.size(); i++) {
+      Server server = servers.get(i);
+      String label = String.format("server #%d (%s)", i + 1, server.getUrl());
+      if (Strings.isNullOrEmpty(server.getUrl())) {
+        errors.add(label + " has no url");
+      }
+      if (server.getEndpoints() != null && server.getEndpoints().stream().anyMatch(Strings::isNullOrEmpty)) {
+        errors.add(label + " has an endpoint without url");
+      }
+      if (server.getHedgePercentile() != null
+              && (server.getHedgePercentile() < 1 || server.getHedgePercentile() > 99)) {
+        errors.add(label + " has a hedge percentile outside of 1 to 99");
+      }
+      if (authSystemProps != null && !canAuthenticate(server, authSystemProps, i)) {
+        errors.add(label + " has neither a token nor an authentication method");
+      }
+      if (server.isSkipExecution() || server.getPaths() == null && operation.usesPaths()) {
+        continue;
+      }
+      Endpoint endpoint = endpoints.computeIfAbsent(Endpoint.of(server), e -> e);
+      int number = i + 1;
+      int position = positions.computeIfAbsent(endpoint, e -> number);
+      List<String> conflicts = conflictingSettings(endpoint.getServer(), server);
+      if (!conflicts.isEmpty()) {
+        errors.add(String.format("%s is the same endpoint as server #%d, but has another %s", label, position,
+                String.join(", ", conflicts)));
+      }
+      Map<String, Set<Mapping>> byName = mappings.computeIfAbsent(endpoint, e -> new LinkedHashMap<>());
+      if (!operation.usesPaths()) {
+        continue;
+      }
+      for (Path path : server.getPaths()) {
+        String pathLabel = String.format("%s path %s", label, path.getName());
+        if (Strings.isNullOrEmpty(path.getName())) {
+          errors.add(label + " has a path without name");
+        } else if (path.isSubtree()) {
+          if (operation == Operation.PUSH) {
+            errors.add(pathLabel + " is a subtree, which can only be pulled");
+          }
+          subtrees.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(path);
+        } else if (path.getMappings() == null || path.getMappings().isEmpty()) {
+          errors.add(pathLabel + " has no mappings");
+        } else {
+          for (Mapping mapping : path.getMappings()) {
+            if (mapping.getFile() != null) {
+              if (operation != Operation.PUSH) {
+                errors.add(String.format("%s maps the key %s from a file, which can only be pushed", pathLabel,
+                        mapping.getKey()));
+              } else if (!Strings.isNullOrEmpty(mapping.getProperty())) {
+                errors.add(String.format("%s maps the key %s from both a property and a file", pathLabel,
+                        mapping.getKey()));
+              }
+            }
+            if (Strings.isNullOrEmpty(mapping.getKey())
+                    || Strings.isNullOrEmpty(mapping.getProperty()) && mapping.getFile() == null) {
+              errors.add(pathLabel + " has a mapping without key or property");
+              continue;
+            }
+            String error = checkTarget(targets, operation, endpoint, path.getName(), mapping);
+            if (error != null) {
+              errors.add(pathLabel + error);
+            }
+            byName.computeIfAbsent(path.getName(), name -> new LinkedHashSet<>()).add(mapping);
+          }
+        }
+      }
+    }
+    if (!errors.isEmpty()) {
+      throw new VaultException("Invalid Vault configuration:\n  - " + String.join("\n  - ", errors));
+    }
+    Map<Endpoint, Map<String, PlannedPath>> paths = new LinkedHashMap<>();
+    mappings.forEach((endpoint, byName) -> {
+      Map<String, PlannedPath> planned = paths.computeIfAbsent(endpoint, e -> new LinkedHashMap<>());
+      byName.forEach((name, set) -> planned.put(name, new PlannedPath(endpoint, name, List.copyOf(set), List.of())));
+    });
+    return new ExecutionPlan(paths, subtrees);
+  }
+
+  /**
+   * Gets the settings of a server that differ from the ones of the server giving the settings of their endpoint,
+   * which would otherwise be ignored.
+   *
+   * @param first the server giving the settings of the endpoint
+   * @param server the server
+   * @return the names of the settings
+   */
+  private static List<String> conflictingSettings(Server first, Server server) {
+    List<String> conflicts = new ArrayList<>();
+    if (!Objects.equals(first.getMaxConcurrency(), server.getMaxConcurrency())) {
+      conflicts.add("maxConcurrency");
+    }
+    if (!Objects.equals(first.getChunkSize(), server.getChunkSize())) {
+      conflicts.add("chunkSize");
+    }
+    if (!Objects.equals(TransportOptions.of(first), TransportOptions.of(server))) {
+      conflicts.add("transport, timeout or retry setting");
+    }
+    return conflicts;
+  }
+
+  /**
+   * Creates a plan of already validated paths, without subtrees.
+   *
+   * @param paths the paths, by endpoint and name
+   * @return the plan
+   */
+  static ExecutionPlan of(Map<Endpoint, Map<String, PlannedPath>> paths) {
+    return new ExecutionPlan(paths, Map.of());
+  }
+
+  /**
+   * Creates a plan writing given secrets, each key mapped from a property generated for its value.
+   *
+   * @param secrets    the secrets, by endpoint, path name and key
+   * @param properties the properties receiving the values of the generated properties
+   * @return the plan
+   */
+  static ExecutionPlan ofSecrets(Map<Endpoint, Map<String, Map<String, String>>> secrets, Properties properties) {
+    Map<Endpoint, Map<String, PlannedPath>> paths = new LinkedHashMap<>();
+    secrets.forEach((endpoint, byName) -> byName.forEach((name, values) -> {
+      List<Mapping> mappings = new ArrayList<>();
+      values.forEach((key, value) -> {
+        String property = "vault.secret." + properties.size();
+        properties.setProperty(property, value);
+        mappings.add(new Mapping(key, property));
+      });
+      paths.computeIfAbsent(endpoint, e -> new LinkedHashMap<>())
+              .put(name, new PlannedPath(endpoint, name, mappings, List.of()));
+    }));
+    return of(paths);
+  }
+
+  /**
+   * Gets the distinct endpoints of this plan.
+   *
+   * @return the endpoints
+   */
+  Set<Endpoint> endpoints() {
+    return this.paths.keySet();
+  }
+
+  /**
+   * Gets the distinct paths of an endpoint.
+   *
+   * @param endpoint the endpoint
+   * @return the paths
+   */
+  List<PlannedPath> paths(Endpoint endpoint) {
+    return new ArrayList<>(this.paths.getOrDefault(endpoint, Map.of()).values());
+  }
+
+  /**
+   * Gets the distinct paths of all endpoints.
+   *
+   * @return the paths
+   */
+  List<PlannedPath> paths() {
+    List<PlannedPath> all = new ArrayList<>();
+    this.paths.values().forEach(byName -> all.addAll(byName.values()));
+    return all;
+  }
+
+  /**
+   * Gets the subtree paths of an endpoint.
+   *
+   * @param endpoint the endpoint
+   * @return the subtree paths
+   */
+  List<Path> subtrees(Endpoint endpoint) {
+    return this.subtrees.getOrDefault(endpoint, List.of());
+  }
+
+  /**
+   * Returns a plan including the leaves of a subtree path of an endpoint. A leaf that is also a path of the
+   * endpoint shares its read with it.
+   *
+   * @param endpoint the endpoint
+   * @param subtree  the subtree path
+   * @param leaves   the names of the leaves
+   * @return the expanded plan
+   */
+  ExecutionPlan expand(Endpoint endpoint, Path subtree, List<String> leaves) {
+    Map<Endpoint, Map<String, PlannedPath>> expanded = new LinkedHashMap<>(this.paths);
+    Map<String, PlannedPath> byName = new LinkedHashMap<>(this.paths.getOrDefault(endpoint, Map.of()));
+    for (String leaf : leaves) {
+      PlannedPath existing = byName.get(leaf);
+      byName.put(leaf, existing != null
+              ? existing.withSubtree(subtree)
+              : new PlannedPath(endpoint, leaf, List.of(), List.of(subtree)));
+    }
+    expanded.put(endpoint, byName);
+    return new ExecutionPlan(expanded, this.subtrees);
+  }
+
+  /**
+   * Returns a value indicating whether a server can authenticate, following the same rules as the
+   * authentication: a token, an authentication method given on the command line, or one in the configuration.
+   */
+  private static boolean canAuthenticate(Server server, AuthenticationSysProperties authSystemProps, int index) {
+    List<String> authMethods = authSystemProps.getAuthMethods();
+    return !Strings.isNullOrEmpty(server.getToken())
+            || authMethods != null && index < authMethods.size() && authMethods.get(index) != null
+            || server.getAuthentication() != null;
+  }
+
+  /**
+   * Records the target of a mapping and checks that it is not already the target of another one.
+   * The target of a pull is the property, and the one of a push is the secret key of the path.
+   *
+   * @return the error, or null if the target is free or mapped from the same source
+   */
+  private static String checkTarget(Map<String, String> targets, Operation operation, Endpoint endpoint,
+                                    String path, Mapping mapping) {
+    String secret = String.format("%s %s key %s", endpoint, path, mapping.getKey());
+    String property = mapping.getFile() != null ? "file " + mapping.getFile() : "property " + mapping.getProperty();
+    String target = operation == Operation.PULL ? mapping.getProperty() : secret;
+    String source = operation == Operation.PULL ? secret : property;
+    String existing = targets.putIfAbsent(target, source);
+    if (existing == null || existing.equals(source)) {
+      return null;
+    }
+    return operation == Operation.PULL
+            ? String.format(" maps the property %s, already mapped from %s", target, existing)
+            : String.format(" maps the key %s from the %s, already mapped from the %s",
+                    mapping.getKey(), source, existing);
+  }
+}
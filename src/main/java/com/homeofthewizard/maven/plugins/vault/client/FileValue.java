@@ -0,0 +1,89 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * Reads the content of a file as the base64 value of a secret.
+ * The file is read through a channel in blocks, each block encoded as it is read straight into an array of the exact
+ * size of the value, so that the file is never held in memory, neither as bytes nor as an intermediate string:
+ * the only copy is the final value.
+ */
+final class FileValue {
+
+  private static final int BLOCK_SIZE = 64 * 1024;
+
+  /**
+   * Defines the length of the longest value, the one of the longest array.
+   */
+  private static final long MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+  private FileValue() { }
+
+  /**
+   * Reads the content of a file, encoded in base64.
+   *
+   * @param file the file
+   * @return the base64 value of the file
+   * @throws IOException if the file cannot be read, is too large, or changes while it is read
+   */
+  static String base64(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = 4 * ((channel.size() + 2) / 3);
+      if (length > MAX_LENGTH) {
+        throw new IOException(String.format("The file %s is too large to be a secret", file));
+      }
+      EncodedOutput encoded = new EncodedOutput(new byte[(int) length], file);
+      ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+      try (OutputStream encoder = Base64.getEncoder().wrap(encoded)) {
+        while (channel.read(block) >= 0) {
+          block.flip();
+          encoder.write(block.array(), 0, block.limit());
+          block.clear();
+        }
+      }
+      if (encoded.count != length) {
+        throw new IOException(String.format("The file %s changed while it was read", file));
+      }
+      // base64 is ASCII: the array is the value as it is stored by compact strings
+      return new String(encoded.array, StandardCharsets.ISO_8859_1);
+    }
+  }
+
+  /**
+   * Receives the encoded bytes into an array of a fixed size.
+   */
+  private static final class EncodedOutput extends OutputStream {
+
+    private final byte[] array;
+
+    private final Path file;
+
+    private int count;
+
+    private EncodedOutput(byte[] array, Path file) {
+      this.array = array;
+      this.file = file;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      if (length > this.array.length - this.count) {
+        throw new IOException(String.format("The file %s changed while it was read", this.file));
+      }
+      System.arraycopy(bytes, offset, this.array, this.count, length);
+      this.count += length;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Sends the requests to a Vault server with a {@link HttpClient}, which keeps its connections alive and negotiates
+ * HTTP/2 with the servers supporting it, as Vault does over TLS: the concurrent requests are then multiplexed over
+ * a single connection, with a single handshake. With HTTP/1.1, the client opens a connection per request in flight,
+ * bounded by the pool size, and reuses them.
+ * When the connections were unused for longer than the idle timeout, the client holding them is replaced by a new
+ * one, closing them. The new client shares the SSL context, and so resumes the TLS sessions of the previous one.
+ */
+final class HttpClientTransport implements VaultTransport {
+
+  private final SSLContext sslContext;
+
+  private final Duration connectTimeout;
+
+  private final Duration requestTimeout;
+
+  private final Semaphore permits;
+
+  private final long idleTimeoutNanos;
+
+  private HttpClient client;
+
+  private int inFlight;
+
+  private long lastUsed;
+
+  /**
+   * Initializes a new instance of the {@link HttpClientTransport} class.
+   *
+   * @param sslContext the SSL context, or null to use the default one
+   * @param connectTimeout the timeout opening a connection
+   * @param requestTimeout the timeout waiting for a response
+   * @param poolSize the maximum number of requests in flight, or null if not bounded
+   * @param idleTimeout the number of seconds unused connections are kept open, or null if not bounded
+   */
+  HttpClientTransport(SSLContext sslContext, Duration connectTimeout, Duration requestTimeout, Integer poolSize,
+                      Integer idleTimeout) {
+    this.sslContext = sslContext;
+    this.connectTimeout = connectTimeout;
+    this.requestTimeout = requestTimeout;
+    this.permits = poolSize != null && poolSize > 0 ? new Semaphore(poolSize, true) : null;
+    this.idleTimeoutNanos = idleTimeout != null && idleTimeout > 0 ? Duration.ofSeconds(idleTimeout).toNanos() : 0;
+  }
+
+  @Override
+  public Response send(String method, URI uri, Map<String, String> headers, byte[] body) throws VaultException {
+    HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(uri)
+            .timeout(this.requestTimeout)
+            .method(method, body != null
+                    ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+    headers.forEach(request::header);
+    try {
+      if (this.permits != null) {
+        this.permits.acquire();
+      }
+      try {
+        HttpClient client = acquire();
+        try {
+          HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+          return new Response(response.statusCode(),
+                  response.headers().firstValue("Content-Type").orElse("application/json"), response.body(),
+                  response.headers().firstValue("Retry-After").map(HttpClientTransport::retryAfter).orElse(null));
+        } finally {
+          release();
+        }
+      } finally {
+        if (this.permits != null) {
+          this.permits.release();
+        }
+      }
+    } catch (IOException e) {
+      throw new VaultException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    }
+  }
+
+  /**
+   * Parses the value of a {@code Retry-After} header, a number of seconds or a date.
+   *
+   * @param value the value
+   * @return the time to wait, or null if the value is invalid
+   */
+  static Duration retryAfter(String value) {
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      // not a number of seconds: a date
+    }
+    try {
+      Duration wait = Duration.between(Instant.now(),
+              ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+      return wait.isNegative() ? Duration.ZERO : wait;
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the client sending the next request, a new one if there is none yet or the connections of the current
+   * one were unused for longer than the idle timeout.
+   */
+  private synchronized HttpClient acquire() {
+    if (this.client != null && this.idleTimeoutNanos > 0 && this.inFlight == 0
+            && System.nanoTime() - this.lastUsed > this.idleTimeoutNanos) {
+      close(this.client);
+      this.client = null;
+    }
+    if (this.client == null) {
+      HttpClient.Builder builder = HttpClient.newBuilder()
+              .version(HttpClient.Version.HTTP_2)
+              .connectTimeout(this.connectTimeout);
+      if (this.sslContext != null) {
+        builder.sslContext(this.sslContext);
+      }
+      this.client = builder.build();
+    }
+    this.inFlight++;
+    return this.client;
+  }
+
+  private synchronized void release() {
+    this.inFlight--;
+    this.lastUsed = System.nanoTime();
+  }
+
+  /**
+   * Closes the connections of a client. A client can only be closed from Java 21: before, its connections are
+   * closed once it is collected.
+   */
+  private static void close(HttpClient client) {
+    if (client instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) client).close();
+      } catch (Exception e) {
+        // best effort: the connections are closed once the client is collected
+      }
+    }
+  }
+}
@@ -2,23 +2,47 @@ package com.homeofthewizard.maven.plugins.vault.client;
 
 import static com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodFactory.methods;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
+import com.google.common.base.Suppliers;
 
+import com.homeofthewizard.maven.plugins.vault.config.LazyProperties;
 import com.homeofthewizard.maven.plugins.vault.config.Mapping;
 import com.homeofthewizard.maven.plugins.vault.config.OutputMethod;
 import com.homeofthewizard.maven.plugins.vault.config.Path;
 import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethod;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
 import io.github.jopenlibs.vault.Vault;
 import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.response.DataMetadata;
+import io.github.jopenlibs.vault.response.LogicalResponse;
+import io.github.jopenlibs.vault.rest.RestResponse;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * Provides implementations of operations from {@link VaultClient} to interact with a Vault Server.
@@ -26,6 +50,18 @@ import java.util.Properties;
  */
 final class JOpenLibsVaultClient implements VaultClient {
 
+  /**
+   * Defines the number of attempts to write a KV v2 path that other writers keep changing.
+   */
+  private static final int MAX_WRITE_ATTEMPTS = 5;
+
+  /**
+   * Defines the base of the random delay between the attempts to write a KV v2 path.
+   */
+  private static final long WRITE_BACKOFF_MILLIS = 50;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   private final VaultBackendProvider vaultBackendProvider;
 
   /**
@@ -36,63 +72,844 @@ final class JOpenLibsVaultClient implements VaultClient {
   }
 
   /**
-   * Pulls secrets from one or more Vault servers and paths and store the values to the output method selected.
+   * Pulls secrets from the servers and paths of a plan and store the values to the output method selected.
+   * Each distinct path is read once, concurrently within the limits given by the options and the servers,
+   * and its secrets are then applied to all of its mappings in the order of the configuration.
+   * The secrets are streamed to the output method as soon as the paths before them are done, and dropped
+   * right after, so that only a bounded number of paths are held in memory however many are pulled.
+   * With a lazy output method, the paths are not read here: their properties are registered in the lazy properties
+   * and the paths read the first time one of their properties is read. The leaves of subtrees are always read here,
+   * as their properties depend on the keys they hold.
+   * The leaves of subtree paths are listed level by level, each level concurrently, and read as the other paths.
+   * Paths already read during the build are served from the secret cache of the options, if any,
+   * and paths read by a previous build from the disk cache of the options until their lease expires.
+   * With version checks, the disk cache entries of KV v2 paths are instead reused as long as the current version
+   * in the metadata of the path is the one they were read at.
+   * Chunked values are reassembled from their chunks, read concurrently, and verified against their checksum.
    *
-   * @param servers      the servers
+   * @param plan         the plan of the servers
    * @param properties   the properties
    * @param outputMethod the output method (maven properties, system properties, or a .env file)
+   * @param options      the execution options
    * @throws VaultException if an exception is throw pulling the secrets
    */
   @Override
-  public void pull(List<Server> servers, Properties properties, OutputMethod outputMethod) throws VaultException {
-    for (Server server : servers) {
-      if (server.isSkipExecution()) {
-        continue;
-      }
-      Vault vault = vaultBackendProvider.vault(server.getUrl(), server.getToken(), server.getNamespace(),
-              server.getSslVerify(), server.getSslCertificate(), server.getEngineVersion());
-      for (Path path : server.getPaths()) {
-        Map<String, String> secrets = get(vault, path.getName());
-        for (Mapping mapping : path.getMappings()) {
-          if (!secrets.containsKey(mapping.getKey())) {
-            String message = String.format("No value found in path %s for key %s", path.getName(), mapping.getKey());
-            throw new NoSuchElementException(message);
+  public void pull(ExecutionPlan plan, Properties properties, OutputMethod outputMethod, ExecutionOptions options)
+          throws VaultException {
+    List<PlannedPath> paths = new ArrayList<>();
+    try (var executor = new BoundedExecutor(options.getParallelism(), "vault-pull")) {
+      List<Callable<Map<String, String>>> reads = new ArrayList<>();
+      for (Endpoint endpoint : plan.endpoints()) {
+        Vault vault = vault(endpoint.getServer());
+        Vault metadataVault = isVersionChecked(endpoint, options) ? vault(endpoint.getServer(), 1) : null;
+        Semaphore serverPermits = BoundedExecutor.serverPermits(endpoint.getServer().getMaxConcurrency());
+        for (Path subtree : plan.subtrees(endpoint)) {
+          plan = plan.expand(endpoint, subtree, leaves(vault, serverPermits, subtree.getPrefix(), executor));
+        }
+        for (PlannedPath path : plan.paths(endpoint)) {
+          Callable<Map<String, String>> read =
+                  BoundedExecutor.limited(serverPermits, () -> read(vault, metadataVault, path, options,
+                          chunks -> executor.invokeAllSharing(serverPermits, chunks)));
+          if (outputMethod.isLazy() && !path.hasSubtrees()) {
+            register(path, read, lazyProperties(properties));
+          } else {
+            paths.add(path);
+            reads.add(read);
           }
-          outputMethod.flush(properties, secrets, mapping);
         }
       }
+      executor.forEachInOrder(reads, (index, secrets) -> flush(paths.get(index), secrets, properties, outputMethod));
     }
   }
 
   /**
-   * Pushes secrets to one or more Vault servers and paths from a {@link Properties} instance.
+   * Registers the properties of the mappings of a planned path, so that the path is read the first time
+   * one of them is read, and only once.
    *
-   * @param servers the servers
+   * @param path the path
+   * @param read the read of the path
+   * @param properties the lazy properties
+   */
+  private static void register(PlannedPath path, Callable<Map<String, String>> read, LazyProperties properties) {
+    Supplier<Map<String, String>> secrets = Suppliers.memoize(() -> {
+      try {
+        return read.call();
+      } catch (Exception e) {
+        String message = String.format("Exception thrown pulling secrets of path %s", path.getName());
+        throw new IllegalStateException(message, e);
+      }
+    });
+    for (Mapping mapping : path.getMappings()) {
+      properties.register(mapping.getProperty(), () -> {
+        Map<String, String> values = secrets.get();
+        if (!values.containsKey(mapping.getKey())) {
+          String message = String.format("No value found in path %s for key %s", path.getName(), mapping.getKey());
+          throw new NoSuchElementException(message);
+        }
+        return values.get(mapping.getKey());
+      });
+    }
+  }
+
+  private static LazyProperties lazyProperties(Properties properties) {
+    if (!(properties instanceof LazyProperties)) {
+      throw new IllegalArgumentException("A lazy output method needs lazy properties");
+    }
+    return (LazyProperties) properties;
+  }
+
+  /**
+   * Stores the secrets read from a planned path to the output method, for all of its mappings.
+   *
+   * @param path the path
+   * @param secrets the secrets read from the path
    * @param properties the properties
+   * @param outputMethod the output method
+   */
+  private static void flush(PlannedPath path, Map<String, String> secrets, Properties properties,
+                            OutputMethod outputMethod) {
+    for (Mapping mapping : path.mappings(secrets)) {
+      if (!secrets.containsKey(mapping.getKey())) {
+        String message = String.format("No value found in path %s for key %s", path.getName(), mapping.getKey());
+        throw new NoSuchElementException(message);
+      }
+      outputMethod.flush(properties, secrets, mapping);
+    }
+  }
+
+  /**
+   * Starts pulling secrets in the background into the secret cache of the options, so that a later pull of the
+   * same servers only joins the reads. The paths of servers that already have a token are read right away,
+   * within the limits given by the options and the servers. Servers that still need to log in are only
+   * warmed up: their host is resolved and a connection opened while the login runs.
+   * Subtree paths are not prefetched. Nothing is done if the options have no secret cache.
+   *
+   * @param plan the plan of the servers
+   * @param options the execution options
+   * @throws VaultException if an exception is thrown configuring the clients
+   */
+  @Override
+  public void prefetch(ExecutionPlan plan, ExecutionOptions options) throws VaultException {
+    SecretCache cache = options.getSecretCache();
+    if (cache == null) {
+      return;
+    }
+    ExecutorService background = BoundedExecutor.newExecutor(Math.max(1, options.getParallelism()), "vault-prefetch");
+    try {
+      Semaphore permits = new Semaphore(Math.max(1, options.getParallelism()));
+      for (Endpoint endpoint : plan.endpoints()) {
+        Server server = endpoint.getServer();
+        if (Strings.isNullOrEmpty(server.getToken())) {
+          background.execute(() -> vaultBackendProvider.warmUp(server.getUrl()));
+          continue;
+        }
+        Vault vault = vault(server);
+        Vault metadataVault = isVersionChecked(endpoint, options) ? vault(server, 1) : null;
+        Semaphore serverPermits = BoundedExecutor.serverPermits(server.getMaxConcurrency());
+        ChunkReader chunkReader =
+            chunks -> BoundedExecutor.invokeAllSharing(background, permits, serverPermits, chunks);
+        for (PlannedPath path : plan.paths(endpoint)) {
+          SecretLocation location = new SecretLocation(endpoint, path.getName());
+          Callable<Map<String, String>> read = BoundedExecutor.limited(permits, BoundedExecutor.limited(serverPermits,
+                  () -> load(vault, metadataVault, location, options.getDiskCache(), chunkReader)));
+          cache.prefetch(location, read, background);
+        }
+      }
+    } finally {
+      background.shutdown();
+    }
+  }
+
+  /**
+   * Pushes secrets to the servers and paths of a plan from a {@link Properties} instance.
+   * Each distinct path is read once, and only written if the values of its mappings differ from its secrets,
+   * keeping its other secrets. A path that does not exist is created with the values of its mappings, and a path
+   * that cannot be read, for instance because the read is denied, is not written.
+   * The changed keys of KV v2 paths are sent with a single merge patch; the paths of KV v1 servers, and of KV v2
+   * servers that do not support patches, are written back with the values merged into the secrets read.
+   * The writes of KV v2 paths are checked against the version read, and retried if another writer changed the path.
+   * The paths are pushed concurrently within the limits given by the options and the servers, the read and the
+   * write of one path always in this order. A failing path does not stop the others: all the paths are pushed,
+   * and the failures are then reported together, by server and path.
+   * The outcome of each path, created, updated, unchanged or failed, is logged to the log of the options, if any.
+   * All the properties are checked before the first request, and the missing ones reported together.
+   * Written paths are removed from the secret and disk caches of the options, if any.
+   * With a journal in the options, each path is recorded in the journal as soon as it is pushed, and the journal
+   * deleted once all the paths are. A KV v2 path whose values were already recorded is not pushed again as long
+   * as its current version, read from its metadata, is the version it was recorded at.
+   * The values longer than the chunk size of their server, if any, are stored in chunks written before the path,
+   * and the path holds their manifest instead.
+   *
+   * @param plan the plan of the servers
+   * @param properties the properties
+   * @param options the execution options
    * @throws VaultException if an exception is throw pushing the secrets
    */
   @Override
-  public void push(List<Server> servers, Properties properties) throws VaultException {
-    for (Server server : servers) {
-      if (server.isSkipExecution()) {
+  public void push(ExecutionPlan plan, Properties properties, ExecutionOptions options) throws VaultException {
+    checkProperties(plan, properties);
+    PushJournal journal = options.getJournal();
+    List<PlannedPath> paths = new ArrayList<>();
+    List<Callable<PushOutcome>> pushes = new ArrayList<>();
+    for (Endpoint endpoint : plan.endpoints()) {
+      Vault vault = vault(endpoint.getServer());
+      Vault metadataVault = journal != null && Integer.valueOf(2).equals(endpoint.getEngineVersion())
+              ? vault(endpoint.getServer(), 1) : null;
+      Semaphore serverPermits = BoundedExecutor.serverPermits(endpoint.getServer().getMaxConcurrency());
+      for (PlannedPath path : plan.paths(endpoint)) {
+        SecretLocation location = new SecretLocation(endpoint, path.getName());
+        paths.add(path);
+        pushes.add(BoundedExecutor.limited(serverPermits, () -> {
+          // the values are resolved by the push of their path, so that only the files being pushed are in memory
+          Map<String, String> values = new LinkedHashMap<>();
+          for (Mapping mapping : path.getMappings()) {
+            values.put(mapping.getKey(), value(mapping, properties));
+          }
+          Map<String, List<String>> chunks = split(values, endpoint.getServer().getChunkSize());
+          if (journal != null && isConfirmed(journal, metadataVault, location, values)) {
+            return PushOutcome.CONFIRMED;
+          }
+          PushResult result = push(vault, endpoint, path.getName(), values, chunks);
+          if (result.outcome != PushOutcome.UNCHANGED) {
+            invalidate(location, options);
+          }
+          if (journal != null) {
+            confirm(journal, location, values, result.version, options);
+          }
+          return result.outcome;
+        }));
+      }
+    }
+    List<Future<PushOutcome>> results;
+    try (var executor = new BoundedExecutor(options.getParallelism(), "vault-push")) {
+      results = executor.invokeAllSettled(pushes);
+    }
+    report(paths, results, options);
+    if (journal != null) {
+      try {
+        journal.complete();
+      } catch (IOException e) {
+        throw new VaultException(e);
+      }
+    }
+  }
+
+  /**
+   * Splits the values longer than the chunk size of a server, replacing each of them by its manifest.
+   *
+   * @param values the values of the mappings of a path, updated with the manifests
+   * @param chunkSize the chunk size of the server, or null if the values are never split
+   * @return the chunks of the split values, by key
+   */
+  private static Map<String, List<String>> split(Map<String, String> values, Integer chunkSize) {
+    Map<String, List<String>> chunks = new HashMap<>();
+    if (chunkSize == null || chunkSize <= 0) {
+      return chunks;
+    }
+    for (Map.Entry<String, String> value : values.entrySet()) {
+      if (ChunkedValue.exceeds(value.getValue(), chunkSize)) {
+        List<String> split = ChunkedValue.split(value.getValue(), chunkSize);
+        chunks.put(value.getKey(), split);
+        value.setValue(ChunkedValue.manifest(value.getValue(), split.size()));
+      }
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns a value indicating whether the values of a location were pushed by a previous run, according to
+   * the journal, and the location has not been written since.
+   *
+   * @param journal the journal
+   * @param metadataVault the vault reading the KV v2 metadata, or null if the location is not a KV v2 path
+   * @param location the location
+   * @param values the values of the mappings of the location
+   * @return {@code true} if the values are still current; otherwise, {@code false}
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static boolean isConfirmed(PushJournal journal, Vault metadataVault, SecretLocation location,
+                                     Map<String, String> values) throws VaultException {
+    Long version = metadataVault != null ? journal.confirmedVersion(location, values) : null;
+    return version != null && version.equals(currentVersion(metadataVault, location.getPath()));
+  }
+
+  /**
+   * Records the push of a location in the journal. The push succeeded: a journal that cannot be written is only
+   * logged, the next run pushing the location again.
+   *
+   * @param journal the journal
+   * @param location the location
+   * @param values the values of the mappings of the location
+   * @param version the KV v2 version the values were written at, or null if it is not known
+   * @param options the execution options
+   */
+  private static void confirm(PushJournal journal, SecretLocation location, Map<String, String> values,
+                              Long version, ExecutionOptions options) {
+    try {
+      journal.confirm(location, values, version);
+    } catch (IOException e) {
+      if (options.getLog() != null) {
+        options.getLog().warn(String.format("Cannot record the push of path %s in the journal: %s",
+                location.getPath(), e));
+      }
+    }
+  }
+
+  /**
+   * Checks that all the properties and files mapped by the paths of a plan are defined.
+   *
+   * @param plan the plan of the servers
+   * @param properties the properties
+   * @throws NoSuchElementException if some properties or files are missing, with all of them
+   */
+  static void checkProperties(ExecutionPlan plan, Properties properties) {
+    Set<String> missing = new LinkedHashSet<>();
+    Set<String> missingFiles = new LinkedHashSet<>();
+    for (PlannedPath path : plan.paths()) {
+      for (Mapping mapping : path.getMappings()) {
+        if (mapping.getFile() != null) {
+          if (!mapping.getFile().isFile()) {
+            missingFiles.add(mapping.getFile().toString());
+          }
+        } else if (!properties.containsKey(mapping.getProperty())) {
+          missing.add(mapping.getProperty());
+        }
+      }
+    }
+    List<String> errors = new ArrayList<>();
+    if (!missing.isEmpty()) {
+      errors.add(String.format("No value found for property %s", String.join(", ", missing)));
+    }
+    if (!missingFiles.isEmpty()) {
+      errors.add(String.format("No file found at %s", String.join(", ", missingFiles)));
+    }
+    if (!errors.isEmpty()) {
+      throw new NoSuchElementException(String.join("; ", errors));
+    }
+  }
+
+  /**
+   * Gets the value pushed by a mapping: the value of its property, or the content of its file encoded in base64.
+   *
+   * @param mapping the mapping
+   * @param properties the properties
+   * @return the value
+   * @throws VaultException if the file of the mapping cannot be read
+   */
+  static String value(Mapping mapping, Properties properties) throws VaultException {
+    if (mapping.getFile() == null) {
+      return properties.getProperty(mapping.getProperty());
+    }
+    try {
+      return FileValue.base64(mapping.getFile().toPath());
+    } catch (IOException e) {
+      throw new VaultException(e);
+    }
+  }
+
+  /**
+   * Logs the outcome of the push of each path to the log of the options, if any, and reports the failures.
+   *
+   * @param paths the pushed paths
+   * @param results the completed pushes of the paths, in the same order
+   * @param options the execution options
+   * @throws VaultException if the push of some paths failed, with the failure of each of them
+   */
+  private static void report(List<PlannedPath> paths, List<Future<PushOutcome>> results, ExecutionOptions options)
+          throws VaultException {
+    Map<PushOutcome, Integer> outcomes = new EnumMap<>(PushOutcome.class);
+    List<String> failures = new ArrayList<>();
+    List<Throwable> causes = new ArrayList<>();
+    for (int i = 0; i < paths.size(); i++) {
+      PlannedPath path = paths.get(i);
+      String outcome;
+      try {
+        PushOutcome pushOutcome = results.get(i).get();
+        outcomes.merge(pushOutcome, 1, Integer::sum);
+        outcome = pushOutcome.getDescription();
+      } catch (ExecutionException | InterruptedException e) {
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        failures.add(String.format("server %s path %s: %s", path.getEndpoint(), path.getName(), cause.getMessage()));
+        causes.add(cause);
+        outcome = "failed";
+      }
+      if (options.getLog() != null) {
+        options.getLog().info(String.format("Vault path %s %s", path.getName(), outcome));
+      }
+    }
+    if (options.getLog() != null) {
+      String summary = String.format("Vault push: %d created, %d updated, %d unchanged, %d failed",
+              outcomes.getOrDefault(PushOutcome.CREATED, 0), outcomes.getOrDefault(PushOutcome.UPDATED, 0),
+              outcomes.getOrDefault(PushOutcome.UNCHANGED, 0), failures.size());
+      if (outcomes.containsKey(PushOutcome.CONFIRMED)) {
+        summary += String.format(", %d already pushed", outcomes.get(PushOutcome.CONFIRMED));
+      }
+      options.getLog().info(summary);
+    }
+    if (!failures.isEmpty()) {
+      VaultException exception = new VaultException(String.format(
+              "Failed to push %d of %d paths, the other paths were pushed:\n  - %s",
+              failures.size(), paths.size(), String.join("\n  - ", failures)));
+      causes.forEach(exception::addSuppressed);
+      throw exception;
+    }
+  }
+
+  /**
+   * Identifies the outcome of the push of a path.
+   */
+  private enum PushOutcome {
+    CREATED("created"),
+    UPDATED("updated"),
+    UNCHANGED("unchanged"),
+    CONFIRMED("already pushed");
+
+    private final String description;
+
+    PushOutcome(String description) {
+      this.description = description;
+    }
+
+    String getDescription() {
+      return this.description;
+    }
+  }
+
+  /**
+   * Holds the outcome of the push of a path, and the KV v2 version of the path after the push.
+   */
+  private static final class PushResult {
+
+    private final PushOutcome outcome;
+
+    private final Long version;
+
+    private PushResult(PushOutcome outcome, Long version) {
+      this.outcome = outcome;
+      this.version = version;
+    }
+  }
+
+  /**
+   * Pushes values to a path, writing only the keys whose value changed.
+   * The writes of KV v2 paths are checked against the version read, so that a concurrent push is never
+   * overwritten: when the path changed since it was read, it is read again, the values merged again into its
+   * new secrets, and written again after a random delay, growing with each attempt.
+   *
+   * @param vault the vault
+   * @param endpoint the endpoint
+   * @param path the path
+   * @param values the values of the mappings of the path, with the manifests of the chunked values
+   * @param chunks the chunks of the chunked values, by key
+   * @return the outcome, with the version of the path after the push if it is known: the version read for an
+   *         unchanged path, the version following it for a checked write, and the version returned by Vault for
+   *         a patch or an unchecked write
+   * @throws VaultException if an exception is thrown connecting to vault, or the path keeps changing
+   */
+  private PushResult push(Vault vault, Endpoint endpoint, String path, Map<String, String> values,
+                          Map<String, List<String>> chunks) throws VaultException {
+    Set<String> chunked = new HashSet<>();
+    boolean kv2 = Integer.valueOf(2).equals(endpoint.getEngineVersion()) && path.indexOf('/') > 0;
+    for (int attempt = 1; ; attempt++) {
+      LogicalResponse response = readable(readIfAny(vault, path), path);
+      boolean exists = exists(response);
+      Map<String, String> secrets = exists ? new HashMap<>(response.getData()) : new HashMap<>();
+      Map<String, String> changes = new LinkedHashMap<>();
+      values.forEach((key, value) -> {
+        if (!exists || !value.equals(secrets.get(key))) {
+          changes.put(key, value);
+        }
+      });
+      Long version = kv2 ? version(response, exists) : null;
+      if (changes.isEmpty()) {
+        return new PushResult(PushOutcome.UNCHANGED, version);
+      }
+      PushOutcome outcome = exists ? PushOutcome.UPDATED : PushOutcome.CREATED;
+      writeChunks(vault, path, changes, chunks, chunked);
+      Map<String, String> previous = exists ? response.getData() : Map.of();
+      VaultTransport.Response patched = kv2 && exists ? patch(endpoint, path, changes) : null;
+      if (patched != null) {
+        deleteChunks(vault, endpoint, path, changes, previous);
+        return new PushResult(outcome, writtenVersion(patched));
+      }
+      secrets.putAll(changes);
+      if (version == null) {
+        LogicalResponse written = set(vault, path, secrets);
+        deleteChunks(vault, endpoint, path, changes, previous);
+        return new PushResult(outcome, kv2 ? writtenVersion(written) : null);
+      }
+      if (writeChecked(endpoint, path, secrets, version)) {
+        deleteChunks(vault, endpoint, path, changes, previous);
+        return new PushResult(outcome, version + 1);
+      }
+      if (attempt == MAX_WRITE_ATTEMPTS) {
+        throw new VaultException(String.format("Path %s was changed by another writer at each of %d attempts",
+                path, attempt));
+      }
+      backOff(attempt);
+    }
+  }
+
+  /**
+   * Writes the chunks of the changed values that are chunked, before their manifest, so that a manifest is never
+   * read before its chunks. The chunks already written by a previous attempt are not written again.
+   *
+   * @param vault the vault
+   * @param path the path
+   * @param changes the changed values
+   * @param chunks the chunks of the chunked values, by key
+   * @param written the keys whose chunks are written, updated with the keys written
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static void writeChunks(Vault vault, String path, Map<String, String> changes,
+                                  Map<String, List<String>> chunks, Set<String> written) throws VaultException {
+    for (String key : changes.keySet()) {
+      ChunkedValue chunked = chunks.containsKey(key) ? ChunkedValue.parse(changes.get(key)) : null;
+      if (chunked == null || !written.add(key)) {
         continue;
       }
-      Vault vault = vaultBackendProvider.vault(server.getUrl(), server.getToken(), server.getNamespace(),
-              server.getSslVerify(), server.getSslCertificate(), server.getEngineVersion());
-      for (Path path : server.getPaths()) {
-        Map<String, String> secrets = exists(vault, path.getName()) ? get(vault, path.getName()) : new HashMap<>();
-        for (Mapping mapping : path.getMappings()) {
-          if (!properties.containsKey(mapping.getProperty())) {
-            String message = String.format("No value found for property %s", mapping.getProperty());
-            throw new NoSuchElementException(message);
+      List<String> values = chunks.get(key);
+      for (int i = 0; i < values.size(); i++) {
+        set(vault, chunked.chunkPath(path, key, i), Map.of(ChunkedValue.CHUNK_KEY, values.get(i)));
+      }
+    }
+  }
+
+  /**
+   * Deletes the chunks of the previous values of changed keys, once the new values are written.
+   * The chunks of a KV v2 path are deleted with their metadata, which destroys all their versions, as a delete of
+   * their data would only hide their latest version. A chunk that cannot be deleted is left behind, as it is never
+   * read again.
+   *
+   * @param vault the vault
+   * @param endpoint the endpoint
+   * @param path the path
+   * @param changes the changed values
+   * @param previous the previous values of the path
+   * @throws VaultException if an exception is thrown configuring the client of the KV v2 metadata
+   */
+  private void deleteChunks(Vault vault, Endpoint endpoint, String path, Map<String, String> changes,
+                            Map<String, String> previous) throws VaultException {
+    boolean kv2 = Integer.valueOf(2).equals(endpoint.getEngineVersion()) && metadataPath(path) != null;
+    Vault metadataVault = null;
+    for (String key : changes.keySet()) {
+      ChunkedValue chunked = ChunkedValue.parse(previous.get(key));
+      ChunkedValue current = ChunkedValue.parse(changes.get(key));
+      if (chunked == null || current != null && current.getChecksum().equals(chunked.getChecksum())) {
+        continue;
+      }
+      if (kv2 && metadataVault == null) {
+        metadataVault = vault(endpoint.getServer(), 1);
+      }
+      try {
+        for (int i = 0; i < chunked.getCount(); i++) {
+          String chunkPath = chunked.chunkPath(path, key, i);
+          if (kv2) {
+            metadataVault.logical().delete(metadataPath(chunkPath));
+          } else {
+            vault.logical().delete(chunkPath);
           }
-          secrets.put(mapping.getKey(), properties.getProperty(mapping.getProperty()));
         }
-        set(vault, path.getName(), secrets);
+      } catch (VaultException e) {
+        // the chunks are not referenced anymore
       }
     }
   }
 
+  /**
+   * Waits before writing a path again, for a random delay up to twice as long as for the previous attempt.
+   *
+   * @param attempt the attempt that failed, from {@code 1}
+   * @throws VaultException if the thread is interrupted
+   */
+  private static void backOff(int attempt) throws VaultException {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(WRITE_BACKOFF_MILLIS << attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    }
+  }
+
+  /**
+   * Writes the secrets of a KV v2 path if its current version is still the given one.
+   *
+   * @param endpoint the endpoint
+   * @param path the path
+   * @param secrets the secrets
+   * @param version the version read, {@code 0} if the path did not exist
+   * @return {@code true} if the path is written; {@code false} if its version changed
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private boolean writeChecked(Endpoint endpoint, String path, Map<String, String> secrets, long version)
+          throws VaultException {
+    Server server = endpoint.getServer();
+    return vaultBackendProvider.writeChecked(server.getUrl(), server.getToken(), server.getNamespace(),
+            server.getSslVerify(), server.getSslCertificate(), path, secrets, version, TransportOptions.of(server));
+  }
+
+  /**
+   * Updates the given secrets of an existing KV v2 path with a merge patch.
+   *
+   * @param endpoint the endpoint
+   * @param path the path
+   * @param values the secrets to set
+   * @return the response of the patch, or null if the path cannot be patched, as the server does not support
+   *         patches, the token is not allowed to patch it, or the path was deleted since it was read
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private VaultTransport.Response patch(Endpoint endpoint, String path, Map<String, String> values)
+          throws VaultException {
+    if (path.indexOf('/') <= 0) {
+      return null;
+    }
+    Server server = endpoint.getServer();
+    VaultTransport.Response response = vaultBackendProvider.patch(server.getUrl(), server.getToken(),
+            server.getNamespace(), server.getSslVerify(), server.getSslCertificate(), path, values,
+            TransportOptions.of(server));
+    return response.getStatus() < 400 ? response : null;
+  }
+
+  /**
+   * Gets the KV v2 version a patch wrote, from the metadata of the new version held by its response.
+   *
+   * @param response the response of the patch
+   * @return the version, or null if the response holds none
+   */
+  private static Long writtenVersion(VaultTransport.Response response) {
+    try {
+      JsonNode version = MAPPER.readTree(response.getBody()).path("data").path("version");
+      return version.canConvertToLong() ? version.asLong() : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the KV v2 version a write of the driver wrote, from the metadata of the new version held by its response.
+   *
+   * @param response the response of the write
+   * @return the version, or null if the response holds none
+   */
+  private static Long writtenVersion(LogicalResponse response) {
+    String version = response != null && response.getData() != null ? response.getData().get("version") : null;
+    try {
+      return version != null ? Long.valueOf(version) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Synchronizes the target servers of a plan with a source server. The paths of the source are its configured
+   * paths, the subtree paths listed recursively, and all of their keys are copied, without mappings.
+   * The source paths are read concurrently, their chunked values reassembled, and then compared with each target.
+   * A source path that does not exist is skipped, and a source path that cannot be read, for instance because the
+   * read is denied, fails the synchronization before any target is written. A target path that cannot be read is
+   * not written either, nor is a target path holding secrets when the source path holds none.
+   * A target path holding the same secrets as the source is not written; the other ones are written concurrently,
+   * within the limits given by the options and the servers, with the secrets of the source only, so that a key
+   * removed from the source is removed from the targets too. The writes of KV v2 paths are checked against the
+   * version read, and retried if another writer changed the path. Paths found on a target below a subtree of the
+   * source, but not on the source, are reported and never deleted.
+   * A failing target path does not stop the others: the failures are reported together, by server and path.
+   *
+   * @param source the source server
+   * @param targets the plan of the target servers, only their endpoints are used
+   * @param options the execution options
+   * @param dryRun {@code true} to only report the drift, without writing the targets
+   * @return the report of the synchronization
+   * @throws VaultException if an exception is thrown reading the source, or some target paths failed
+   */
+  @Override
+  public SyncReport sync(Server source, ExecutionPlan targets, ExecutionOptions options, boolean dryRun)
+          throws VaultException {
+    long start = System.nanoTime();
+    Vault sourceVault = vault(source);
+    Semaphore sourcePermits = BoundedExecutor.serverPermits(source.getMaxConcurrency());
+    try (var executor = new BoundedExecutor(options.getParallelism(), "vault-sync")) {
+      Set<String> names = new LinkedHashSet<>();
+      List<String> prefixes = new ArrayList<>();
+      for (Path path : source.getPaths()) {
+        if (path.isSubtree()) {
+          prefixes.add(path.getPrefix());
+          names.addAll(leaves(sourceVault, sourcePermits, path.getPrefix(), executor));
+        } else {
+          names.add(path.getName());
+        }
+      }
+      List<String> paths = new ArrayList<>(names);
+      List<Callable<Map<String, String>>> reads = new ArrayList<>();
+      for (String path : paths) {
+        reads.add(BoundedExecutor.limited(sourcePermits, () -> readSource(sourceVault, path,
+                chunks -> executor.invokeAllSharing(sourcePermits, chunks))));
+      }
+      List<Map<String, String>> secrets = new ArrayList<>(executor.invokeAll(reads));
+      for (int i = paths.size() - 1; i >= 0; i--) {
+        if (secrets.get(i) == null) {
+          log(options, String.format("Vault path %s is not on the source, it is skipped", paths.get(i)));
+          names.remove(paths.remove(i));
+          secrets.remove(i);
+        }
+      }
+
+      SyncReport report = new SyncReport(paths.size(), dryRun);
+      List<String> failures = new ArrayList<>();
+      List<Throwable> causes = new ArrayList<>();
+      for (Endpoint endpoint : targets.endpoints()) {
+        Vault vault = vault(endpoint.getServer());
+        Semaphore serverPermits = BoundedExecutor.serverPermits(endpoint.getServer().getMaxConcurrency());
+        SyncReport.Target target = report.target(endpoint.toString());
+        List<Callable<PushOutcome>> copies = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+          String path = paths.get(i);
+          Map<String, String> values = secrets.get(i);
+          copies.add(BoundedExecutor.limited(serverPermits, () -> {
+            PushOutcome outcome = copy(vault, endpoint, path, values, dryRun);
+            if (outcome != PushOutcome.UNCHANGED && !dryRun) {
+              invalidate(new SecretLocation(endpoint, path), options);
+            }
+            return outcome;
+          }));
+        }
+        List<Future<PushOutcome>> results = executor.invokeAllSettled(copies);
+        for (int i = 0; i < paths.size(); i++) {
+          String path = paths.get(i);
+          try {
+            PushOutcome outcome = results.get(i).get();
+            if (outcome == PushOutcome.CREATED) {
+              target.created();
+            } else if (outcome == PushOutcome.UPDATED) {
+              target.updated();
+            } else {
+              target.unchanged();
+              continue;
+            }
+            if (!dryRun) {
+              report.copied(size(secrets.get(i)));
+            }
+            log(options, String.format("Vault path %s %s on %s", path, dryRun ? "differs" : outcome.getDescription(),
+                    endpoint));
+          } catch (ExecutionException | InterruptedException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            target.failed();
+            failures.add(String.format("server %s path %s: %s", endpoint, path, cause.getMessage()));
+            causes.add(cause);
+          }
+        }
+        for (String prefix : prefixes) {
+          for (String leaf : leaves(vault, serverPermits, prefix, executor)) {
+            if (!names.contains(leaf)) {
+              target.extra(leaf);
+              log(options, String.format("Vault path %s is only on %s", leaf, endpoint));
+            }
+          }
+        }
+        log(options, target.summary());
+      }
+      report.elapsed(Duration.ofNanos(System.nanoTime() - start));
+      log(options, report.summary());
+      if (!failures.isEmpty()) {
+        VaultException exception = new VaultException(String.format(
+                "Failed to synchronize %d paths, the other paths were synchronized:\n  - %s",
+                failures.size(), String.join("\n  - ", failures)));
+        causes.forEach(exception::addSuppressed);
+        throw exception;
+      }
+      return report;
+    }
+  }
+
+  /**
+   * Copies the secrets of a source path to a target path, unless the target already holds the same secrets.
+   * The values longer than the chunk size of the target server are stored in chunks.
+   *
+   * @param vault the vault of the target
+   * @param endpoint the endpoint of the target
+   * @param path the path
+   * @param secrets the secrets of the source path
+   * @param dryRun {@code true} to only compare the secrets, without writing them
+   * @return the outcome
+   * @throws VaultException if an exception is thrown connecting to vault, or the path keeps changing
+   */
+  private PushOutcome copy(Vault vault, Endpoint endpoint, String path, Map<String, String> secrets,
+                           boolean dryRun) throws VaultException {
+    boolean kv2 = Integer.valueOf(2).equals(endpoint.getEngineVersion()) && path.indexOf('/') > 0;
+    Map<String, String> values = new LinkedHashMap<>(secrets);
+    Map<String, List<String>> chunks = split(values, endpoint.getServer().getChunkSize());
+    Set<String> chunked = new HashSet<>();
+    for (int attempt = 1; ; attempt++) {
+      LogicalResponse response = readable(readIfAny(vault, path), path);
+      boolean exists = exists(response);
+      Map<String, String> previous = exists ? response.getData() : Map.of();
+      if (exists && previous.equals(values)) {
+        return PushOutcome.UNCHANGED;
+      }
+      if (values.isEmpty() && !previous.isEmpty()) {
+        throw new VaultException(String.format("Path %s holds no secrets on the source, the secrets of the target "
+                + "are kept", path));
+      }
+      PushOutcome outcome = exists ? PushOutcome.UPDATED : PushOutcome.CREATED;
+      if (dryRun) {
+        return outcome;
+      }
+      Map<String, String> changes = new HashMap<>(values);
+      previous.keySet().forEach(key -> changes.putIfAbsent(key, null));
+      writeChunks(vault, path, values, chunks, chunked);
+      Long version = kv2 ? version(response, exists) : null;
+      if (version == null) {
+        set(vault, path, values);
+        deleteChunks(vault, endpoint, path, changes, previous);
+        return outcome;
+      }
+      if (writeChecked(endpoint, path, values, version)) {
+        deleteChunks(vault, endpoint, path, changes, previous);
+        return outcome;
+      }
+      if (attempt == MAX_WRITE_ATTEMPTS) {
+        throw new VaultException(String.format("Path %s was changed by another writer at each of %d attempts",
+                path, attempt));
+      }
+      backOff(attempt);
+    }
+  }
+
+  /**
+   * Reads a path of the source of a synchronization, with its chunked values reassembled.
+   *
+   * @param vault the vault of the source
+   * @param path the path
+   * @param chunkReader the reader of the chunks
+   * @return the secrets, or null if the path does not exist
+   * @throws VaultException if an exception is thrown connecting to vault, or the path cannot be read
+   */
+  private static Map<String, String> readSource(Vault vault, String path, ChunkReader chunkReader)
+          throws VaultException {
+    LogicalResponse response = readable(readIfAny(vault, path), path);
+    return exists(response) ? reassemble(vault, path, response.getData(), chunkReader) : null;
+  }
+
+  /**
+   * Gets the size of the keys and values of secrets, in bytes.
+   *
+   * @param secrets the secrets
+   * @return the number of bytes
+   */
+  private static long size(Map<String, String> secrets) {
+    long size = 0;
+    for (Map.Entry<String, String> secret : secrets.entrySet()) {
+      size += secret.getKey().getBytes(StandardCharsets.UTF_8).length;
+      size += secret.getValue() != null ? secret.getValue().getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+    return size;
+  }
+
+  private static void log(ExecutionOptions options, String message) {
+    if (options.getLog() != null) {
+      options.getLog().info(message);
+    }
+  }
+
   /**
    * Authenticate to one or more Vault servers and paths from a {@link Properties} instance.
    *
@@ -111,9 +928,9 @@ final class JOpenLibsVaultClient implements VaultClient {
         return;
       } else if (!authSystemProps.getAuthMethods().isEmpty()
               && !Objects.isNull(authSystemProps.getAuthMethods().get(counter))) {
-        factory.fromSystemProperties(s, authSystemProps, counter).login();
+        login(s, factory.fromSystemProperties(s, authSystemProps, counter));
       } else if (!Objects.isNull(s.getAuthentication())) {
-        factory.fromServer(s).login();
+        login(s, factory.fromServer(s));
       } else {
         throw new VaultException("Either a Token or Authentication method must be provided !!\n"
                 + "Put in your server configuration in the pom.xml:\n"
@@ -135,15 +952,346 @@ final class JOpenLibsVaultClient implements VaultClient {
   }
 
   /**
-   * Returns a value indicating whether a path exists.
+   * Logs in to a Vault server, retrying with the retry policy of the server when the login fails transiently.
+   *
+   * @param server the server
+   * @param method the authentication method
+   * @throws VaultException if the login fails
+   */
+  private static void login(Server server, AuthenticationMethod<?> method) throws VaultException {
+    RetryPolicy.of(server.getRetry()).call(() -> {
+      method.login();
+      return null;
+    });
+  }
+
+  /**
+   * Returns the client of the Vault server.
+   *
+   * @param server the server
+   * @return the vault
+   * @throws VaultException if an exception is thrown configuring the client
+   */
+  private Vault vault(Server server) throws VaultException {
+    return vault(server, server.getEngineVersion());
+  }
+
+  /**
+   * Returns a client of the Vault server using another engine version than the one configured.
+   * A version 1 client reaches the KV v2 metadata endpoints, as it does not rewrite the paths.
+   *
+   * @param server the server
+   * @param engineVersion the engine version
+   * @return the vault
+   * @throws VaultException if an exception is thrown configuring the client
+   */
+  private Vault vault(Server server, Integer engineVersion) throws VaultException {
+    return vaultBackendProvider.vault(server.getUrl(), server.getToken(), server.getNamespace(),
+            server.getSslVerify(), server.getSslCertificate(), engineVersion, TransportOptions.of(server));
+  }
+
+  /**
+   * Returns a value indicating whether the disk cache entries of an endpoint are checked against KV v2 versions.
+   *
+   * @param endpoint the endpoint
+   * @param options the execution options
+   * @return {@code true} if the versions are checked; otherwise, {@code false}
+   */
+  private static boolean isVersionChecked(Endpoint endpoint, ExecutionOptions options) {
+    return options.isVersionCheck() && options.getDiskCache() != null
+            && Integer.valueOf(2).equals(endpoint.getEngineVersion());
+  }
+
+  /**
+   * Reads the secrets of a planned path, through the caches of the options if there are any.
    *
    * @param vault the vault
+   * @param metadataVault the vault reading the KV v2 metadata, or null if the versions are not checked
    * @param path the path
-   * @return {@code true} if the path exists; otherwise, {@code false}
+   * @param options the execution options
+   * @param chunkReader the reader of the chunks of the chunked values
+   * @return the secrets
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static Map<String, String> read(Vault vault, Vault metadataVault, PlannedPath path,
+                                          ExecutionOptions options, ChunkReader chunkReader) throws VaultException {
+    SecretLocation location = new SecretLocation(path.getEndpoint(), path.getName());
+    SecretCache cache = options.getSecretCache();
+    if (cache == null) {
+      return load(vault, metadataVault, location, options.getDiskCache(), chunkReader);
+    }
+    return cache.get(location, () -> load(vault, metadataVault, location, options.getDiskCache(), chunkReader));
+  }
+
+  /**
+   * Loads the secrets of a location from the disk cache, or from Vault if the disk cache has no valid entry.
+   * When the versions are checked, the entry is valid if it was read at the current version of the path,
+   * whether or not it is expired.
+   *
+   * @param vault the vault
+   * @param metadataVault the vault reading the KV v2 metadata, or null if the versions are not checked
+   * @param location the location
+   * @param diskCache the disk cache, or null if none is used
+   * @param chunkReader the reader of the chunks of the chunked values
+   * @return the secrets, with their chunked values reassembled
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static Map<String, String> load(Vault vault, Vault metadataVault, SecretLocation location,
+                                          DiskSecretCache diskCache, ChunkReader chunkReader) throws VaultException {
+    if (diskCache == null) {
+      return reassemble(vault, location.getPath(), get(vault, location.getPath()), chunkReader);
+    }
+    Long version = null;
+    if (metadataVault != null) {
+      version = currentVersion(metadataVault, location.getPath());
+      DiskSecretCache.Entry entry = version != null ? diskCache.lookup(location) : null;
+      if (entry != null && version.equals(entry.getVersion())) {
+        return entry.getSecrets();
+      }
+    } else {
+      Map<String, String> cached = diskCache.get(location);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    // The version is read before the data: if the path changes in between, the newer data is stored with the
+    // older version, and read again by the next build.
+    LogicalResponse response = vault.logical().read(location.getPath());
+    Map<String, String> secrets = reassemble(vault, location.getPath(), response.getData(), chunkReader);
+    RestResponse restResponse = response.getRestResponse();
+    if (restResponse == null || restResponse.getStatus() == 200) {
+      diskCache.put(location, secrets, response.getLeaseDuration(), version);
+    }
+    return secrets;
+  }
+
+  /**
+   * Replaces the manifests of chunked values by the values, their chunks read with the given reader and verified
+   * against the checksum of their manifest.
+   *
+   * @param vault the vault
+   * @param path the path
+   * @param secrets the secrets read from the path
+   * @param chunkReader the reader of the chunks
+   * @return the secrets, with their chunked values reassembled
+   * @throws VaultException if an exception is thrown connecting to vault, or a value does not match its checksum
+   */
+  private static Map<String, String> reassemble(Vault vault, String path, Map<String, String> secrets,
+                                                ChunkReader chunkReader) throws VaultException {
+    if (secrets == null) {
+      return null;
+    }
+    Map<String, String> reassembled = null;
+    for (Map.Entry<String, String> secret : secrets.entrySet()) {
+      ChunkedValue chunked = ChunkedValue.parse(secret.getValue());
+      if (chunked == null) {
+        continue;
+      }
+      List<Callable<String>> reads = new ArrayList<>();
+      for (int i = 0; i < chunked.getCount(); i++) {
+        String chunkPath = chunked.chunkPath(path, secret.getKey(), i);
+        reads.add(() -> get(vault, chunkPath).get(ChunkedValue.CHUNK_KEY));
+      }
+      List<String> chunks = chunkReader.readAll(reads);
+      if (reassembled == null) {
+        reassembled = new LinkedHashMap<>(secrets);
+      }
+      try {
+        reassembled.put(secret.getKey(), chunked.join(chunks));
+      } catch (VaultException e) {
+        throw new VaultException(String.format("Exception thrown reassembling key %s of path %s: %s",
+                secret.getKey(), path, e.getMessage()));
+      }
+    }
+    return reassembled != null ? reassembled : secrets;
+  }
+
+  /**
+   * Gets the current version of a KV v2 path from its metadata.
+   * The first segment of the path is the mount of the engine, as for the reads of the Vault driver.
+   *
+   * @param metadataVault the vault reading the KV v2 metadata
+   * @param path the path
+   * @return the current version, or null if it cannot be determined
    * @throws VaultException if an exception is thrown connecting to vault
    */
-  private static boolean exists(Vault vault, String path) throws VaultException {
-    return !vault.logical().list(path).getData().isEmpty();
+  private static Long currentVersion(Vault metadataVault, String path) throws VaultException {
+    String metadataPath = metadataPath(path);
+    if (metadataPath == null) {
+      return null;
+    }
+    LogicalResponse response = metadataVault.logical().read(metadataPath);
+    RestResponse restResponse = response.getRestResponse();
+    if (restResponse != null && restResponse.getStatus() != 200) {
+      return null;
+    }
+    String version = response.getData().get("current_version");
+    try {
+      return version != null ? Long.valueOf(version) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the path of the metadata of a KV v2 path, the first segment of the path being the mount of the engine.
+   *
+   * @param path the path
+   * @return the path of the metadata, or null if the path is not below a mount
+   */
+  private static String metadataPath(String path) {
+    int separator = path.indexOf('/');
+    return separator > 0 ? path.substring(0, separator) + "/metadata" + path.substring(separator) : null;
+  }
+
+  /**
+   * Reads the chunks of a chunked value, within the limits of the path reading the value.
+   */
+  @FunctionalInterface
+  private interface ChunkReader {
+
+    /**
+     * Runs the reads of the chunks.
+     *
+     * @param reads the reads, in the order of the chunks
+     * @return the chunks, in the order of the reads
+     * @throws VaultException if an exception is thrown reading a chunk
+     */
+    List<String> readAll(List<Callable<String>> reads) throws VaultException;
+  }
+
+
+  /**
+   * Removes a location from the caches of the options.
+   *
+   * @param location the location
+   * @param options the execution options
+   */
+  private static void invalidate(SecretLocation location, ExecutionOptions options) {
+    if (options.getSecretCache() != null) {
+      options.getSecretCache().invalidate(location);
+    }
+    if (options.getDiskCache() != null) {
+      options.getDiskCache().invalidate(location);
+    }
+  }
+
+  /**
+   * Lists the leaves below a prefix, recursively. The folders of each level are listed concurrently.
+   *
+   * @param vault the vault
+   * @param serverPermits the permits of the server, or null if the server has no limit
+   * @param prefix the prefix, without trailing slash
+   * @param executor the executor running the listings
+   * @return the paths of the leaves
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static List<String> leaves(Vault vault, Semaphore serverPermits, String prefix,
+                                     BoundedExecutor executor) throws VaultException {
+    List<String> leaves = new ArrayList<>();
+    List<String> folders = List.of(prefix + "/");
+    while (!folders.isEmpty()) {
+      List<Callable<List<String>>> listings = new ArrayList<>();
+      for (String folder : folders) {
+        listings.add(BoundedExecutor.limited(serverPermits, () -> list(vault, folder)));
+      }
+      List<List<String>> keys = executor.invokeAll(listings);
+      List<String> next = new ArrayList<>();
+      for (int i = 0; i < folders.size(); i++) {
+        for (String key : keys.get(i)) {
+          String child = folders.get(i) + key;
+          if (key.endsWith(ChunkedValue.FOLDER_SUFFIX)) {
+            continue;
+          }
+          if (key.endsWith("/")) {
+            next.add(child);
+          } else {
+            leaves.add(child);
+          }
+        }
+      }
+      folders = next;
+    }
+    return leaves;
+  }
+
+  /**
+   * Lists the keys of a folder, the ones of sub-folders ending with a slash.
+   *
+   * @param vault the vault
+   * @param folder the folder
+   * @return the keys, empty if the folder does not exist
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static List<String> list(Vault vault, String folder) throws VaultException {
+    List<String> keys = vault.logical().list(folder).getListData();
+    return keys == null ? List.of() : keys;
+  }
+
+  /**
+   * Reads a path with a single request, whether or not it exists.
+   *
+   * @param vault the vault
+   * @param path the path
+   * @return the response, or null if the path does not exist and the driver reported it with an exception
+   * @throws VaultException if an exception is thrown connecting to vault
+   */
+  private static LogicalResponse readIfAny(Vault vault, String path) throws VaultException {
+    try {
+      return vault.logical().read(path);
+    } catch (VaultException e) {
+      if (e.getHttpStatusCode() == 404) {
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Checks that a path was read, or does not exist. The driver returns the failed reads, such as the denied ones,
+   * as responses without secrets, which would otherwise be taken for an empty path.
+   *
+   * @param response the response of the read, or null if the path does not exist
+   * @param path the path
+   * @return the response
+   * @throws VaultException if the path cannot be read
+   */
+  private static LogicalResponse readable(LogicalResponse response, String path) throws VaultException {
+    RestResponse restResponse = response != null ? response.getRestResponse() : null;
+    int status = restResponse != null ? restResponse.getStatus() : 200;
+    if (status != 200 && status != 404) {
+      throw new VaultException(String.format("Path %s cannot be read: HTTP status %d", path, status), status);
+    }
+    return response;
+  }
+
+  /**
+   * Returns a value indicating whether a read path exists.
+   *
+   * @param response the response of the read, or null if the path does not exist
+   * @return {@code true} if the path exists; otherwise, {@code false}
+   */
+  private static boolean exists(LogicalResponse response) {
+    if (response == null || response.getData() == null) {
+      return false;
+    }
+    RestResponse restResponse = response.getRestResponse();
+    return restResponse == null || restResponse.getStatus() != 404;
+  }
+
+  /**
+   * Gets the current version of a read KV v2 path. A deleted path still has the version it was deleted at.
+   *
+   * @param response the response of the read, or null if the path does not exist
+   * @param exists {@code true} if the path exists; otherwise, {@code false}
+   * @return the version, {@code 0} if the path never existed, or null if it cannot be determined
+   */
+  private static Long version(LogicalResponse response, boolean exists) {
+    DataMetadata metadata = response != null ? response.getDataMetadata() : null;
+    if (metadata != null && metadata.getVersion() != null) {
+      return metadata.getVersion();
+    }
+    return exists ? null : 0L;
   }
 
   /**
@@ -167,9 +1315,9 @@ final class JOpenLibsVaultClient implements VaultClient {
    * @param secrets the secrets
    * @throws VaultException if an exception is thrown connecting to vault or the path does not exist
    */
-  private static void set(Vault vault, String path, Map<String, String> secrets) throws VaultException {
+  private static LogicalResponse set(Vault vault, String path, Map<String, String> secrets) throws VaultException {
     Map<String,Object> nameValuePairs = (Map) secrets;
-    vault.logical().write(path, nameValuePairs);
+    return vault.logical().write(path, nameValuePairs);
   }
 
 }
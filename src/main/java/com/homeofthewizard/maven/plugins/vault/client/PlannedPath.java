@@ -0,0 +1,107 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Represents one distinct path of an {@link Endpoint} together with all the mappings configured for it,
+ * and the subtree paths it is a leaf of.
+ */
+final class PlannedPath {
+
+  private final Endpoint endpoint;
+
+  private final String name;
+
+  private final List<Mapping> mappings;
+
+  private final List<Path> subtrees;
+
+  /**
+   * Initializes a new instance of the {@link PlannedPath} class.
+   *
+   * @param endpoint the endpoint
+   * @param name     the name of the path
+   * @param mappings the mappings configured for the path
+   * @param subtrees the subtree paths the path is a leaf of
+   */
+  PlannedPath(Endpoint endpoint, String name, List<Mapping> mappings, List<Path> subtrees) {
+    this.endpoint = endpoint;
+    this.name = name;
+    this.mappings = List.copyOf(mappings);
+    this.subtrees = List.copyOf(subtrees);
+  }
+
+  /**
+   * Gets the endpoint serving this path.
+   *
+   * @return the endpoint
+   */
+  Endpoint getEndpoint() {
+    return this.endpoint;
+  }
+
+  /**
+   * Gets the name of this path.
+   *
+   * @return the name
+   */
+  String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the mappings of this path, in the order of the configuration.
+   *
+   * @return the mappings
+   */
+  List<Mapping> getMappings() {
+    return this.mappings;
+  }
+
+  /**
+   * Returns a value indicating whether this path is a leaf of subtree paths.
+   *
+   * @return {@code true} if this path is a leaf of subtrees; otherwise, {@code false}
+   */
+  boolean hasSubtrees() {
+    return !this.subtrees.isEmpty();
+  }
+
+  /**
+   * Returns this path as a leaf of one more subtree path.
+   *
+   * @param subtree the subtree path
+   * @return the path
+   */
+  PlannedPath withSubtree(Path subtree) {
+    List<Path> all = new ArrayList<>(this.subtrees);
+    all.add(subtree);
+    return new PlannedPath(this.endpoint, this.name, this.mappings, all);
+  }
+
+  /**
+   * Gets the mappings of this path for the secrets read from it: the configured mappings, followed by
+   * one mapping per key and subtree this path is a leaf of, in the order of the keys.
+   *
+   * @param secrets the secrets read from this path
+   * @return the mappings
+   */
+  List<Mapping> mappings(Map<String, String> secrets) {
+    if (this.subtrees.isEmpty()) {
+      return this.mappings;
+    }
+    List<Mapping> all = new ArrayList<>(this.mappings);
+    for (Path subtree : this.subtrees) {
+      for (String key : new TreeSet<>(secrets.keySet())) {
+        all.add(new Mapping(key, subtree.propertyName(this.name, key)));
+      }
+    }
+    return all;
+  }
+}
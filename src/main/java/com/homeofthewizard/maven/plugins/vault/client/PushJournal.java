@@ -0,0 +1,194 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the writes of a push confirmed by Vault, so that a push interrupted or failed part way is resumed
+ * by the next run rather than started over. Each line of the journal holds a location, a digest of the values
+ * written to it, and the KV v2 version they were written at when it is known. The values themselves are never
+ * stored: the digests are keyed with a random salt kept in the first line of the journal.
+ * A location whose values and version are unchanged since they were confirmed is not written again.
+ * The journal is deleted once a push completes without failure. A damaged line is ignored, and a journal that
+ * cannot be read is started over, so the journal never fails a build, at worst pushing again a path that was
+ * already pushed.
+ */
+public final class PushJournal {
+
+  private static final String HEADER = "vault-push-journal";
+
+  private final Path file;
+
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  private String salt;
+
+  /**
+   * Initializes a new instance of the {@link PushJournal} class.
+   *
+   * @param file the file of the journal, read on first use if it exists
+   */
+  public PushJournal(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Gets the KV v2 version at which the given values of a location were confirmed.
+   *
+   * @param location the location
+   * @param values   the values to write
+   * @return the version, or null if these values were not confirmed or their version is not known
+   */
+  synchronized Long confirmedVersion(SecretLocation location, Map<String, String> values) {
+    load();
+    Entry entry = entries.get(key(location));
+    return entry != null && entry.digest.equals(digest(values)) ? entry.version : null;
+  }
+
+  /**
+   * Records that values of a location were written, or already current, and appends it to the journal right away.
+   * The location is recorded in memory even if the journal cannot be written.
+   *
+   * @param location the location
+   * @param values   the values written
+   * @param version  the KV v2 version the values were written at, or null if it is not known
+   * @throws IOException if the journal cannot be written, the next run pushing the location again
+   */
+  synchronized void confirm(SecretLocation location, Map<String, String> values, Long version) throws IOException {
+    load();
+    String key = key(location);
+    String digest = digest(values);
+    entries.put(key, new Entry(digest, version));
+    String line = key + " " + digest + " " + (version != null ? version : "-") + "\n";
+    if (!Files.exists(file)) {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      Files.createFile(file);
+      restrict(file);
+      Files.write(file, (HEADER + " " + salt + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+    Files.write(file, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+  }
+
+  /**
+   * Gets the number of locations confirmed in this journal.
+   *
+   * @return the number of locations
+   */
+  public synchronized int size() {
+    load();
+    return entries.size();
+  }
+
+  /**
+   * Deletes the journal, once all its locations are pushed.
+   *
+   * @throws IOException if the journal cannot be deleted
+   */
+  public synchronized void complete() throws IOException {
+    Files.deleteIfExists(file);
+    entries.clear();
+    salt = null;
+  }
+
+  /**
+   * Reads the journal the first time it is used, or generates a new salt if there is no valid journal.
+   * A journal that cannot be read or deleted is ignored, and replaced by the next confirmed location.
+   */
+  private void load() {
+    if (salt != null) {
+      return;
+    }
+    try {
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      String[] header = lines.isEmpty() ? new String[0] : lines.get(0).split(" ");
+      if (header.length == 2 && HEADER.equals(header[0])) {
+        salt = header[1];
+        for (String line : lines.subList(1, lines.size())) {
+          String[] fields = line.split(" ");
+          if (fields.length == 3) {
+            entries.put(fields[0], new Entry(fields[1], version(fields[2])));
+          }
+        }
+        return;
+      }
+      Files.delete(file);
+    } catch (NoSuchFileException e) {
+      // no journal yet
+    } catch (IOException e) {
+      entries.clear();
+      deleteQuietly(file);
+    }
+    byte[] bytes = new byte[16];
+    new SecureRandom().nextBytes(bytes);
+    salt = Hashing.sha256().hashBytes(bytes).toString().substring(0, 32);
+  }
+
+  private static Long version(String field) {
+    try {
+      return "-".equals(field) ? null : Long.valueOf(field);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private String key(SecretLocation location) {
+    Endpoint endpoint = location.getEndpoint();
+    return Hashing.sha256().hashString(String.join("\n", endpoint.getUrl(), endpoint.getNamespace(),
+            String.valueOf(endpoint.getEngineVersion()), location.getPath()), StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Gets the salted digest of values, independent of the order of their keys.
+   */
+  private String digest(Map<String, String> values) {
+    Hasher hasher = Hashing.sha256().newHasher().putString(salt, StandardCharsets.UTF_8);
+    new TreeMap<>(values).forEach((key, value) -> hasher
+            .putInt(key.length()).putString(key, StandardCharsets.UTF_8)
+            .putInt(value.length()).putString(value, StandardCharsets.UTF_8));
+    return hasher.hash().toString();
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // written over by the next confirmed location, if it can be
+    }
+  }
+
+  private static void restrict(Path file) {
+    try {
+      Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+    } catch (UnsupportedOperationException | IOException e) {
+      // not a POSIX file system
+    }
+  }
+
+  /**
+   * Holds the digest and version of a confirmed location.
+   */
+  private static final class Entry {
+
+    private final String digest;
+
+    private final Long version;
+
+    private Entry(String digest, Long version) {
+      this.digest = digest;
+      this.version = version;
+    }
+  }
+}
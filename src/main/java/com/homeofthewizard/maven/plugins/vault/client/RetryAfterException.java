@@ -0,0 +1,35 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+
+import java.time.Duration;
+
+/**
+ * Signals an error response of Vault telling how long to wait before sending the request again,
+ * with its {@code Retry-After} header.
+ */
+final class RetryAfterException extends VaultException {
+
+  private final Duration retryAfter;
+
+  /**
+   * Initializes a new instance of the {@link RetryAfterException} class.
+   *
+   * @param message the message
+   * @param httpStatusCode the status of the response
+   * @param retryAfter the time to wait before sending the request again
+   */
+  RetryAfterException(String message, int httpStatusCode, Duration retryAfter) {
+    super(message, httpStatusCode);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Gets the time to wait before sending the request again.
+   *
+   * @return the time
+   */
+  Duration getRetryAfter() {
+    return this.retryAfter;
+  }
+}
@@ -0,0 +1,212 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Retry;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries the idempotent requests to a Vault server that fail transiently: the requests that could not be sent or
+ * timed out, and the responses telling that the server is unavailable, such as during a leader election, or rate
+ * limited. The backoff between two attempts grows exponentially and is fully jittered, that is drawn at random
+ * between zero and its exponential bound, so that the clients failing together do not retry together. A backoff is
+ * never shorter than the {@code Retry-After} of the response, when the transport reports it. A request is no longer
+ * retried after its maximum number of attempts, or when its next attempt would start after its deadline.
+ */
+public final class RetryPolicy {
+
+  /**
+   * Defines the maximum number of attempts of a request when none is configured.
+   */
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+  /**
+   * Defines the backoff before the first retry, in milliseconds, when none is configured.
+   */
+  public static final int DEFAULT_INITIAL_BACKOFF = 250;
+
+  /**
+   * Defines the longest backoff between two attempts, in milliseconds, when none is configured.
+   */
+  public static final int DEFAULT_MAX_BACKOFF = 5000;
+
+  /**
+   * Defines the number of seconds after which a request is no longer retried, when none is configured.
+   */
+  public static final int DEFAULT_DEADLINE = 60;
+
+  /**
+   * Defines a policy sending each request once.
+   */
+  public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+  private static final Set<Integer> RETRYABLE_STATUSES = Set.of(408, 429, 500, 502, 503, 504);
+
+  private final int maxAttempts;
+
+  private final Duration initialBackoff;
+
+  private final Duration maxBackoff;
+
+  private final Duration deadline;
+
+  private final Sleeper sleeper;
+
+  /**
+   * Initializes a new instance of the {@link RetryPolicy} class.
+   *
+   * @param maxAttempts the maximum number of attempts of a request, the first one included
+   * @param initialBackoff the bound of the backoff before the first retry
+   * @param maxBackoff the bound of the backoff between two attempts
+   * @param deadline the time after the first attempt of a request after which it is no longer retried
+   */
+  public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration deadline) {
+    this(maxAttempts, initialBackoff, maxBackoff, deadline, duration -> Thread.sleep(duration.toMillis()));
+  }
+
+  RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration deadline, Sleeper sleeper) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.deadline = deadline;
+    this.sleeper = sleeper;
+  }
+
+  /**
+   * Gets the policy of a retry configuration, its unset settings taking their defaults.
+   *
+   * @param retry the configuration, or null to use the defaults
+   * @return the policy
+   */
+  public static RetryPolicy of(Retry retry) {
+    Retry settings = retry != null ? retry : new Retry();
+    return new RetryPolicy(
+            Objects.requireNonNullElse(settings.getMaxAttempts(), DEFAULT_MAX_ATTEMPTS),
+            Duration.ofMillis(Objects.requireNonNullElse(settings.getInitialBackoff(), DEFAULT_INITIAL_BACKOFF)),
+            Duration.ofMillis(Objects.requireNonNullElse(settings.getMaxBackoff(), DEFAULT_MAX_BACKOFF)),
+            Duration.ofSeconds(Objects.requireNonNullElse(settings.getDeadline(), DEFAULT_DEADLINE)));
+  }
+
+  /**
+   * Gets the maximum number of attempts of a request, the first one included.
+   *
+   * @return the number of attempts
+   */
+  public int getMaxAttempts() {
+    return this.maxAttempts;
+  }
+
+  /**
+   * Sends a request until it succeeds, fails with an exception that is not transient, or cannot be retried anymore.
+   *
+   * @param request the request
+   * @param <T> the type of the response
+   * @return the response
+   * @throws VaultException the exception of the last attempt, or if interrupted while waiting to retry
+   */
+  public <T> T call(Request<T> request) throws VaultException {
+    long start = System.nanoTime();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return request.send();
+      } catch (VaultException e) {
+        if (attempt >= this.maxAttempts || !isRetryable(e)) {
+          throw e;
+        }
+        Duration backoff = backoff(attempt, e instanceof RetryAfterException
+                ? ((RetryAfterException) e).getRetryAfter() : null);
+        if (Duration.ofNanos(System.nanoTime() - start).plus(backoff).compareTo(this.deadline) > 0) {
+          throw e;
+        }
+        try {
+          this.sleeper.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          e.addSuppressed(interrupted);
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the backoff before an attempt: a random duration up to the initial backoff doubled at each retry, and
+   * bounded by the maximum backoff, but never shorter than the {@code Retry-After} of the failed attempt.
+   *
+   * @param attempt the number of the failed attempt, starting at 1
+   * @param retryAfter the {@code Retry-After} of the failed attempt, or null if there is none
+   * @return the backoff
+   */
+  Duration backoff(int attempt, Duration retryAfter) {
+    long bound = this.initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+    if (bound < 0 || bound > this.maxBackoff.toMillis()) {
+      bound = this.maxBackoff.toMillis();
+    }
+    Duration backoff = Duration.ofMillis(bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0);
+    return retryAfter != null && retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+  }
+
+  /**
+   * Returns a value indicating whether a failed request may succeed if sent again: it could not be sent, timed
+   * out, or the server answered that it cannot serve it for now.
+   *
+   * @param exception the exception
+   * @return {@code true} if the request may be retried; otherwise, {@code false}
+   */
+  static boolean isRetryable(VaultException exception) {
+    if (RETRYABLE_STATUSES.contains(exception.getHttpStatusCode())) {
+      return true;
+    }
+    if (exception.getHttpStatusCode() > 0) {
+      return false;
+    }
+    for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RetryPolicy that = (RetryPolicy) o;
+    return maxAttempts == that.maxAttempts
+            && initialBackoff.equals(that.initialBackoff)
+            && maxBackoff.equals(that.maxBackoff)
+            && deadline.equals(that.deadline);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxAttempts, initialBackoff, maxBackoff, deadline);
+  }
+
+  /**
+   * Sends a request.
+   *
+   * @param <T> the type of the response
+   */
+  @FunctionalInterface
+  public interface Request<T> {
+    T send() throws VaultException;
+  }
+
+  /**
+   * Waits before the next attempt.
+   */
+  @FunctionalInterface
+  interface Sleeper {
+    void sleep(Duration duration) throws InterruptedException;
+  }
+}
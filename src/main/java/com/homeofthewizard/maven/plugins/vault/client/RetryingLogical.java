@@ -0,0 +1,52 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultConfig;
+import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.api.Logical;
+import io.github.jopenlibs.vault.response.LogicalResponse;
+
+import java.util.Map;
+
+/**
+ * Retries the reads and the lists of another {@link Logical} with a {@link RetryPolicy}, as they are idempotent.
+ * The writes and the deletes are sent once: a write that timed out may have been applied.
+ */
+final class RetryingLogical extends Logical {
+
+  private final Logical delegate;
+
+  private final RetryPolicy retry;
+
+  /**
+   * Initializes a new instance of the {@link RetryingLogical} class.
+   *
+   * @param config the configuration of the server
+   * @param delegate the logical sending the requests
+   * @param retry the retry policy
+   */
+  RetryingLogical(VaultConfig config, Logical delegate, RetryPolicy retry) {
+    super(config);
+    this.delegate = delegate;
+    this.retry = retry;
+  }
+
+  @Override
+  public LogicalResponse read(String path) throws VaultException {
+    return this.retry.call(() -> this.delegate.read(path));
+  }
+
+  @Override
+  public LogicalResponse list(String path) throws VaultException {
+    return this.retry.call(() -> this.delegate.list(path));
+  }
+
+  @Override
+  public LogicalResponse write(String path, Map<String, Object> nameValuePairs) throws VaultException {
+    return this.delegate.write(path, nameValuePairs);
+  }
+
+  @Override
+  public LogicalResponse delete(String path) throws VaultException {
+    return this.delegate.delete(path);
+  }
+}
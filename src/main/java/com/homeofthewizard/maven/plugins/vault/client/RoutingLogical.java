@@ -0,0 +1,222 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.jopenlibs.vault.VaultConfig;
+import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.api.Logical;
+import io.github.jopenlibs.vault.response.LogicalResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends the requests of the Vault driver to the nodes of a {@link Cluster}: the reads and the lists to the fastest
+ * node able to serve them, and the writes and the deletes to the active node. A node failing a request transiently
+ * has the health of the cluster checked again, so that the next attempt of the request goes to another node.
+ * When hedging is enabled, a read still running after the given percentile of the latencies of the previous reads
+ * is sent to the next node too, and the first response is kept, the other request being cancelled. The reads are
+ * only hedged when another node can serve them, and within a bounded number of threads shared by all the servers:
+ * a read that cannot get a thread waits for its node without hedging.
+ */
+final class RoutingLogical extends Logical {
+
+  /**
+   * Defines the number of latencies the percentile is computed from, the latest ones.
+   */
+  static final int LATENCY_WINDOW = 256;
+
+  /**
+   * Defines the number of reads to measure before hedging, so that the percentile is meaningful.
+   */
+  static final int MIN_SAMPLES = 20;
+
+  /**
+   * Defines the maximum number of threads sending the hedged reads, both the first requests and the hedges.
+   */
+  static final int MAX_HEDGE_THREADS = 64;
+
+  private static final ExecutorService HEDGES = new ThreadPoolExecutor(0, MAX_HEDGE_THREADS, 60, TimeUnit.SECONDS,
+          new SynchronousQueue<>(), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("vault-hedge-%d").build());
+
+  private final Cluster cluster;
+
+  private final Function<String, Logical> nodes;
+
+  private final Integer hedgePercentile;
+
+  private final Latencies latencies = new Latencies(LATENCY_WINDOW);
+
+  /**
+   * Initializes a new instance of the {@link RoutingLogical} class.
+   *
+   * @param config the configuration of the server
+   * @param cluster the nodes of the server
+   * @param nodes the logical sending the requests to a node, by url
+   * @param hedgePercentile the percentile of the latencies after which a read is sent again, or null to not hedge
+   */
+  RoutingLogical(VaultConfig config, Cluster cluster, Function<String, Logical> nodes, Integer hedgePercentile) {
+    super(config);
+    this.cluster = cluster;
+    this.nodes = nodes;
+    this.hedgePercentile = hedgePercentile;
+  }
+
+  @Override
+  public LogicalResponse read(String path) throws VaultException {
+    return read(logical -> logical.read(path));
+  }
+
+  @Override
+  public LogicalResponse list(String path) throws VaultException {
+    return read(logical -> logical.list(path));
+  }
+
+  @Override
+  public LogicalResponse write(String path, Map<String, Object> nameValuePairs) throws VaultException {
+    return send(this.cluster.active(), logical -> logical.write(path, nameValuePairs));
+  }
+
+  @Override
+  public LogicalResponse delete(String path) throws VaultException {
+    return send(this.cluster.active(), logical -> logical.delete(path));
+  }
+
+  private LogicalResponse read(Operation operation) throws VaultException {
+    List<String> readers = this.cluster.readers();
+    long threshold = this.hedgePercentile != null ? this.latencies.percentile(this.hedgePercentile, MIN_SAMPLES) : -1;
+    if (threshold < 0 || readers.size() < 2) {
+      return measured(readers.get(0), operation);
+    }
+    CompletionService<LogicalResponse> completion = new ExecutorCompletionService<>(HEDGES);
+    Future<LogicalResponse> first;
+    try {
+      first = completion.submit(() -> measured(readers.get(0), operation));
+    } catch (RejectedExecutionException e) {
+      return measured(readers.get(0), operation);
+    }
+    Future<LogicalResponse> hedge = null;
+    try {
+      Future<LogicalResponse> done = completion.poll(threshold, TimeUnit.NANOSECONDS);
+      if (done == null) {
+        try {
+          hedge = completion.submit(() -> measured(readers.get(1), operation));
+        } catch (RejectedExecutionException e) {
+          // no thread left: the read waits for the first node
+        }
+        done = completion.take();
+      }
+      try {
+        return done.get();
+      } catch (ExecutionException e) {
+        if (hedge == null) {
+          throw e;
+        }
+        // the other request may still succeed
+        return completion.take().get();
+      }
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    } finally {
+      first.cancel(true);
+      if (hedge != null) {
+        hedge.cancel(true);
+      }
+    }
+  }
+
+  private LogicalResponse measured(String url, Operation operation) throws VaultException {
+    long start = System.nanoTime();
+    LogicalResponse response = send(url, operation);
+    this.latencies.add(System.nanoTime() - start);
+    return response;
+  }
+
+  private LogicalResponse send(String url, Operation operation) throws VaultException {
+    try {
+      return operation.send(this.nodes.apply(url));
+    } catch (VaultException e) {
+      if (RetryPolicy.isRetryable(e)) {
+        this.cluster.failed(url);
+      }
+      throw e;
+    }
+  }
+
+  private static VaultException unwrap(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof VaultException) {
+      return (VaultException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new VaultException(cause);
+  }
+
+  /**
+   * Sends a request to a node.
+   */
+  @FunctionalInterface
+  private interface Operation {
+    LogicalResponse send(Logical logical) throws VaultException;
+  }
+
+  /**
+   * Holds the latest latencies of the reads.
+   */
+  static final class Latencies {
+
+    private final long[] samples;
+
+    private int count;
+
+    private int next;
+
+    Latencies(int size) {
+      this.samples = new long[size];
+    }
+
+    synchronized void add(long latency) {
+      this.samples[this.next] = latency;
+      this.next = (this.next + 1) % this.samples.length;
+      this.count = Math.min(this.count + 1, this.samples.length);
+    }
+
+    /**
+     * Gets a percentile of the latencies.
+     *
+     * @param percentile the percentile
+     * @param minSamples the number of latencies needed
+     * @return the percentile, in nanoseconds, or -1 if there are not enough latencies
+     */
+    long percentile(int percentile, int minSamples) {
+      long[] sorted;
+      synchronized (this) {
+        if (this.count < minSamples) {
+          return -1;
+        }
+        sorted = Arrays.copyOf(this.samples, this.count);
+      }
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+  }
+}
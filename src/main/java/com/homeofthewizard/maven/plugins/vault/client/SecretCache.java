@@ -0,0 +1,126 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the secrets read from Vault for the lifetime of one build, keyed by endpoint and path.
+ * Concurrent requests for the same path wait for a single read, so that each path is fetched once
+ * however many modules or executions need it. Reads may also be started ahead in the background, and are then
+ * joined by the first execution needing them. Failed reads are not cached.
+ */
+public final class SecretCache {
+
+  private final ConcurrentMap<SecretLocation, CompletableFuture<Map<String, String>>> entries =
+          new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Initializes a new instance of the {@link SecretCache} class.
+   */
+  public SecretCache() { }
+
+  /**
+   * Gets the secrets of a location, reading them with the given loader if they are not cached yet.
+   *
+   * @param location the location
+   * @param loader   the loader reading the secrets from Vault
+   * @return the secrets
+   * @throws VaultException if an exception is thrown reading the secrets
+   */
+  Map<String, String> get(SecretLocation location, Callable<Map<String, String>> loader) throws VaultException {
+    CompletableFuture<Map<String, String>> created = new CompletableFuture<>();
+    CompletableFuture<Map<String, String>> existing = entries.putIfAbsent(location, created);
+    if (existing != null) {
+      hits.incrementAndGet();
+      return await(existing);
+    }
+    misses.incrementAndGet();
+    load(location, created, loader);
+    return await(created);
+  }
+
+  /**
+   * Starts reading the secrets of a location in the background if they are not cached yet, so that
+   * a later {@link #get(SecretLocation, Callable)} only waits for the read to complete.
+   *
+   * @param location the location
+   * @param loader   the loader reading the secrets from Vault
+   * @param executor the executor running the loader
+   */
+  void prefetch(SecretLocation location, Callable<Map<String, String>> loader, Executor executor) {
+    CompletableFuture<Map<String, String>> created = new CompletableFuture<>();
+    if (entries.putIfAbsent(location, created) != null) {
+      return;
+    }
+    misses.incrementAndGet();
+    try {
+      executor.execute(() -> load(location, created, loader));
+    } catch (RejectedExecutionException e) {
+      entries.remove(location, created);
+      created.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Removes the secrets of a location, for example after they have been overwritten.
+   *
+   * @param location the location
+   */
+  void invalidate(SecretLocation location) {
+    entries.remove(location);
+  }
+
+  /**
+   * Gets the number of reads served from this cache.
+   *
+   * @return the hits
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Gets the number of reads that had to be sent to Vault.
+   *
+   * @return the misses
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  private void load(SecretLocation location, CompletableFuture<Map<String, String>> created,
+                    Callable<Map<String, String>> loader) {
+    try {
+      created.complete(Collections.unmodifiableMap(loader.call()));
+    } catch (Exception | Error e) {
+      entries.remove(location, created);
+      created.completeExceptionally(e);
+    }
+  }
+
+  private static Map<String, String> await(CompletableFuture<Map<String, String>> future) throws VaultException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof VaultException ? (VaultException) cause : new VaultException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VaultException(e);
+    }
+  }
+}
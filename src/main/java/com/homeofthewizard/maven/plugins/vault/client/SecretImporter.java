@@ -0,0 +1,100 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes secrets read one at a time, for example from a file, to all the servers of a plan.
+ * The secrets are grouped by path in batches of a bounded number of paths, and each batch is written as one push,
+ * concurrently within the limits given by the options and the servers. Only one batch is held in memory, however
+ * many secrets are imported. A path met again after its batch was written is written again in a later batch,
+ * which only changes the keys of this batch, as any push.
+ */
+public final class SecretImporter {
+
+  private final VaultClient client;
+
+  private final ExecutionPlan plan;
+
+  private final ExecutionOptions options;
+
+  private final int batchSize;
+
+  private final Map<String, Map<String, String>> batch = new LinkedHashMap<>();
+
+  private int keys;
+
+  private int batches;
+
+  /**
+   * Initializes a new instance of the {@link SecretImporter} class.
+   *
+   * @param client    the client
+   * @param plan      the plan of the servers, compiled for {@link ExecutionPlan.Operation#IMPORT}
+   * @param options   the execution options
+   * @param batchSize the maximum number of paths of a batch
+   */
+  public SecretImporter(VaultClient client, ExecutionPlan plan, ExecutionOptions options, int batchSize) {
+    this.client = client;
+    this.plan = plan;
+    this.options = options;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Adds a secret, and writes the current batch first if it is full and the secret is of another path.
+   *
+   * @param path  the path
+   * @param key   the key
+   * @param value the value
+   * @throws VaultException if an exception is thrown writing the batch
+   */
+  public void put(String path, String key, String value) throws VaultException {
+    if (!this.batch.containsKey(path) && this.batch.size() >= this.batchSize) {
+      flush();
+    }
+    this.batch.computeIfAbsent(path, p -> new LinkedHashMap<>()).put(key, value);
+    this.keys++;
+  }
+
+  /**
+   * Writes the current batch to all the servers of the plan, and starts a new one.
+   *
+   * @throws VaultException if an exception is thrown writing the batch
+   */
+  public void flush() throws VaultException {
+    if (this.batch.isEmpty()) {
+      return;
+    }
+    Map<Endpoint, Map<String, Map<String, String>>> secrets = new LinkedHashMap<>();
+    for (Endpoint endpoint : this.plan.endpoints()) {
+      secrets.put(endpoint, this.batch);
+    }
+    Properties properties = new Properties();
+    ExecutionPlan batchPlan = ExecutionPlan.ofSecrets(secrets, properties);
+    this.batch.clear();
+    this.batches++;
+    this.client.push(batchPlan, properties, this.options);
+  }
+
+  /**
+   * Gets the number of secrets added so far.
+   *
+   * @return the number of secrets
+   */
+  public int getKeys() {
+    return this.keys;
+  }
+
+  /**
+   * Gets the number of batches written so far.
+   *
+   * @return the number of batches
+   */
+  public int getBatches() {
+    return this.batches;
+  }
+}
@@ -0,0 +1,96 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Identifies a path on an {@link Endpoint}, as read with the token of its server. The token is only kept as a hash,
+ * so that the secrets read with one token are never served to a server using another one.
+ */
+final class SecretLocation {
+
+  private final Endpoint endpoint;
+
+  private final String path;
+
+  private final String tokenHash;
+
+  /**
+   * Initializes a new instance of the {@link SecretLocation} class.
+   *
+   * @param endpoint the endpoint
+   * @param path     the path
+   */
+  SecretLocation(Endpoint endpoint, String path) {
+    this.endpoint = endpoint;
+    this.path = path;
+    this.tokenHash = Hashing.sha256()
+            .hashString(Strings.nullToEmpty(endpoint.getServer().getToken()), StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Gets the endpoint of this location.
+   *
+   * @return the endpoint
+   */
+  Endpoint getEndpoint() {
+    return this.endpoint;
+  }
+
+  /**
+   * Gets the path of this location.
+   *
+   * @return the path
+   */
+  String getPath() {
+    return this.path;
+  }
+
+  /**
+   * Gets the SHA-256 hash of the token the path is read with, the hash of an empty token if there is none yet.
+   *
+   * @return the hash
+   */
+  String getTokenHash() {
+    return this.tokenHash;
+  }
+
+  /**
+   * Returns a hash code value for this location.
+   *
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.endpoint, this.path, this.tokenHash);
+  }
+
+  /**
+   * Returns a value indicating whether this location is equal to another object.
+   *
+   * @return {@code true} if the this location is equal to the object; otherwise, {@code false}
+   */
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof SecretLocation) {
+      SecretLocation that = (SecretLocation) object;
+      return Objects.equals(this.endpoint, that.endpoint)
+          && Objects.equals(this.path, that.path)
+          && Objects.equals(this.tokenHash, that.tokenHash);
+    }
+    return false;
+  }
+
+  /**
+   * Returns a readable description of this location.
+   *
+   * @return the description
+   */
+  @Override
+  public String toString() {
+    return this.path + " on " + this.endpoint;
+  }
+}
@@ -0,0 +1,141 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.SslConfig;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * Holds the SSL configurations of the certificate files, so that each file is parsed, and its trust store and
+ * {@link SSLContext} built, once per JVM rather than once per client: the modules of a reactor talking to the same
+ * Vault share them. A configuration is keyed by the path of its file, and built again when the file was modified.
+ * As the TLS sessions are cached by their {@link SSLContext}, sharing it lets the later connections to a server
+ * resume the session of the first one, with an abbreviated handshake.
+ */
+final class SslConfigCache {
+
+  private static final ConcurrentMap<Path, Entry> CONFIGS = new ConcurrentHashMap<>();
+
+  private static volatile SSLContext trustAllContext;
+
+  private SslConfigCache() { }
+
+  /**
+   * Gets the SSL configuration of a server. Only the configurations with a certificate are built, the others
+   * being resolved by the driver.
+   *
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @return the configuration
+   * @throws VaultException if the certificate cannot be read or parsed
+   */
+  static SslConfig sslConfig(boolean sslVerify, File sslCertificate) throws VaultException {
+    if (!sslVerify || sslCertificate == null) {
+      return new SslConfig().verify(sslVerify);
+    }
+    Path path = sslCertificate.toPath().toAbsolutePath().normalize();
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException e) {
+      throw new VaultException(e);
+    }
+    long modified = attributes.lastModifiedTime().toMillis();
+    Entry entry = CONFIGS.get(path);
+    if (entry != null && entry.modified == modified && entry.size == attributes.size()) {
+      return entry.config;
+    }
+    SslConfig config = new SslConfig().verify(true).pemFile(sslCertificate).build();
+    CONFIGS.put(path, new Entry(modified, attributes.size(), config));
+    return config;
+  }
+
+  /**
+   * Gets the SSL context of a server for the HTTP clients of the transports.
+   *
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @return the context, or null to use the default one
+   * @throws VaultException if the certificate cannot be read or parsed
+   */
+  static SSLContext sslContext(boolean sslVerify, File sslCertificate) throws VaultException {
+    if (!sslVerify) {
+      return trustAllContext();
+    }
+    return sslCertificate != null ? sslConfig(true, sslCertificate).getSslContext() : null;
+  }
+
+  /**
+   * Returns the SSL context trusting any certificate, created the first time it is needed. Its trust manager is an
+   * extended one, so that the host name of the certificate is not checked either.
+   */
+  private static SSLContext trustAllContext() throws VaultException {
+    SSLContext context = trustAllContext;
+    if (context != null) {
+      return context;
+    }
+    TrustManager trustAll = new X509ExtendedTrustManager() {
+      @Override
+      public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) { }
+
+      @Override
+      public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) { }
+
+      @Override
+      public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) { }
+
+      @Override
+      public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) { }
+
+      @Override
+      public void checkClientTrusted(X509Certificate[] chain, String authType) { }
+
+      @Override
+      public void checkServerTrusted(X509Certificate[] chain, String authType) { }
+
+      @Override
+      public X509Certificate[] getAcceptedIssuers() {
+        return new X509Certificate[0];
+      }
+    };
+    try {
+      context = SSLContext.getInstance("TLS");
+      context.init(null, new TrustManager[] {trustAll}, null);
+    } catch (GeneralSecurityException e) {
+      throw new VaultException(e);
+    }
+    trustAllContext = context;
+    return context;
+  }
+
+  /**
+   * Holds the configuration built from a version of a certificate file.
+   */
+  private static final class Entry {
+
+    private final long modified;
+
+    private final long size;
+
+    private final SslConfig config;
+
+    private Entry(long modified, long size, SslConfig config) {
+      this.modified = modified;
+      this.size = size;
+      this.config = config;
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the outcome of the synchronization of target servers with a source server: the drift found on each target,
+ * that is the paths created, updated, or only found on the target, and the throughput of the copy.
+ */
+public final class SyncReport {
+
+  private final int sourcePaths;
+
+  private final boolean dryRun;
+
+  private final Map<String, Target> targets = new LinkedHashMap<>();
+
+  private long bytes;
+
+  private Duration elapsed = Duration.ZERO;
+
+  /**
+   * Initializes a new instance of the {@link SyncReport} class.
+   *
+   * @param sourcePaths the number of paths read from the source
+   * @param dryRun {@code true} if the drift is only reported; otherwise, {@code false}
+   */
+  SyncReport(int sourcePaths, boolean dryRun) {
+    this.sourcePaths = sourcePaths;
+    this.dryRun = dryRun;
+  }
+
+  /**
+   * Gets the report of a target, created on first use.
+   *
+   * @param target the target
+   * @return the report of the target
+   */
+  Target target(String target) {
+    return this.targets.computeIfAbsent(target, Target::new);
+  }
+
+  /**
+   * Adds the size of a copied path to the bytes copied.
+   *
+   * @param size the size of the keys and values of the path, in bytes
+   */
+  void copied(long size) {
+    this.bytes += size;
+  }
+
+  /**
+   * Sets the time the synchronization took, listing and reading the source included.
+   *
+   * @param elapsed the time
+   */
+  void elapsed(Duration elapsed) {
+    this.elapsed = elapsed;
+  }
+
+  /**
+   * Gets the number of paths read from the source.
+   *
+   * @return the number of paths
+   */
+  public int getSourcePaths() {
+    return this.sourcePaths;
+  }
+
+  /**
+   * Gets whether the drift was only reported, without copying.
+   *
+   * @return {@code true} if nothing was copied; otherwise, {@code false}
+   */
+  public boolean isDryRun() {
+    return this.dryRun;
+  }
+
+  /**
+   * Gets the reports of the targets, in the order of the configuration.
+   *
+   * @return the reports of the targets
+   */
+  public List<Target> getTargets() {
+    return List.copyOf(this.targets.values());
+  }
+
+  /**
+   * Gets the number of paths that differed from the source on all targets, or were only found on a target.
+   *
+   * @return the drift
+   */
+  public int getDrift() {
+    return this.targets.values().stream().mapToInt(Target::getDrift).sum();
+  }
+
+  /**
+   * Gets the size of the keys and values of the paths copied to the targets, in bytes.
+   *
+   * @return the number of bytes
+   */
+  public long getBytes() {
+    return this.bytes;
+  }
+
+  /**
+   * Gets the time the synchronization took.
+   *
+   * @return the time
+   */
+  public Duration getElapsed() {
+    return this.elapsed;
+  }
+
+  /**
+   * Gets a one line summary of the synchronization, with its throughput.
+   *
+   * @return the summary
+   */
+  public String summary() {
+    double seconds = Math.max(1, this.elapsed.toMillis()) / 1000.0;
+    int checked = this.sourcePaths * this.targets.size();
+    return String.format("Vault sync%s: %d paths read from the source, %d path copies checked, %d drifted; "
+                    + "%d bytes copied in %d ms (%.1f paths/s, %.1f KiB/s)",
+            this.dryRun ? " (dry run)" : "", this.sourcePaths, checked, getDrift(), this.bytes,
+            this.elapsed.toMillis(), checked / seconds, this.bytes / 1024.0 / seconds);
+  }
+
+  /**
+   * Holds the outcome of the synchronization of one target.
+   */
+  public static final class Target {
+
+    private final String name;
+
+    private final List<String> extraPaths = new ArrayList<>();
+
+    private int created;
+
+    private int updated;
+
+    private int unchanged;
+
+    private int failed;
+
+    private Target(String name) {
+      this.name = name;
+    }
+
+    void created() {
+      this.created++;
+    }
+
+    void updated() {
+      this.updated++;
+    }
+
+    void unchanged() {
+      this.unchanged++;
+    }
+
+    void failed() {
+      this.failed++;
+    }
+
+    void extra(String path) {
+      this.extraPaths.add(path);
+    }
+
+    /**
+     * Gets the name of this target, its URL and namespace.
+     *
+     * @return the name
+     */
+    public String getName() {
+      return this.name;
+    }
+
+    /**
+     * Gets the number of paths missing on this target.
+     *
+     * @return the number of paths
+     */
+    public int getCreated() {
+      return this.created;
+    }
+
+    /**
+     * Gets the number of paths of this target that differed from the source.
+     *
+     * @return the number of paths
+     */
+    public int getUpdated() {
+      return this.updated;
+    }
+
+    /**
+     * Gets the number of paths of this target that were already the same as the source.
+     *
+     * @return the number of paths
+     */
+    public int getUnchanged() {
+      return this.unchanged;
+    }
+
+    /**
+     * Gets the number of paths that could not be checked or copied.
+     *
+     * @return the number of paths
+     */
+    public int getFailed() {
+      return this.failed;
+    }
+
+    /**
+     * Gets the paths found below the subtrees of the source on this target only. They are never deleted.
+     *
+     * @return the paths
+     */
+    public List<String> getExtraPaths() {
+      return Collections.unmodifiableList(this.extraPaths);
+    }
+
+    /**
+     * Gets the number of paths of this target that differed from the source, or were only found on this target.
+     *
+     * @return the drift
+     */
+    public int getDrift() {
+      return this.created + this.updated + this.extraPaths.size();
+    }
+
+    /**
+     * Gets a one line summary of the synchronization of this target.
+     *
+     * @return the summary
+     */
+    public String summary() {
+      return String.format("Vault sync of %s: %d created, %d updated, %d unchanged, %d only on the target, %d failed",
+              this.name, this.created, this.updated, this.unchanged, this.extraPaths.size(), this.failed);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import io.github.jopenlibs.vault.VaultConfig;
+import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.api.Logical;
+import io.github.jopenlibs.vault.response.LogicalResponse;
+import io.github.jopenlibs.vault.rest.RestResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends the reads, lists, writes and deletes of the Vault driver through a {@link VaultTransport}.
+ * The paths are rewritten for the KV v2 engine as the driver does, the first segment of a path being the mount of
+ * the engine, and the responses are parsed by the driver. As with the driver, the reads and the lists failing with
+ * a client error, such as a denied or missing path, return their response, with its status, instead of throwing.
+ */
+final class TransportLogical extends Logical {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final byte[] EMPTY_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+  private final VaultConfig config;
+
+  private final VaultTransport transport;
+
+  /**
+   * Initializes a new instance of the {@link TransportLogical} class.
+   *
+   * @param config the configuration of the server
+   * @param transport the transport
+   */
+  TransportLogical(VaultConfig config, VaultTransport transport) {
+    super(config);
+    this.config = config;
+    this.transport = transport;
+  }
+
+  @Override
+  public LogicalResponse read(String path) throws VaultException {
+    boolean v2 = isVersion2();
+    VaultTransport.Response response = send("GET", v2 ? rewrite(path, "data") : path, null);
+    return parse(response, 200, true, v2 ? logicalOperations.readV2 : logicalOperations.readV1);
+  }
+
+  @Override
+  public LogicalResponse list(String path) throws VaultException {
+    boolean v2 = isVersion2();
+    logicalOperations operation = v2 ? logicalOperations.listV2 : logicalOperations.listV1;
+    VaultTransport.Response response = send("GET", (v2 ? rewrite(path, "metadata") : path) + "?list=true", null);
+    if (response.getStatus() == 404) {
+      // as the driver, a missing folder is an empty one
+      return new LogicalResponse(new RestResponse(404, "application/json", EMPTY_BODY), 0, operation);
+    }
+    return parse(response, 200, true, operation);
+  }
+
+  @Override
+  public LogicalResponse write(String path, Map<String, Object> nameValuePairs) throws VaultException {
+    boolean v2 = isVersion2();
+    Map<String, Object> body = nameValuePairs != null ? nameValuePairs : Map.of();
+    if (v2) {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("data", body);
+      body = data;
+    }
+    try {
+      VaultTransport.Response response = send("POST", v2 ? rewrite(path, "data") : path,
+              MAPPER.writeValueAsBytes(body));
+      return parse(response, 204, false, v2 ? logicalOperations.writeV2 : logicalOperations.writeV1);
+    } catch (JsonProcessingException e) {
+      throw new VaultException(e);
+    }
+  }
+
+  @Override
+  public LogicalResponse delete(String path) throws VaultException {
+    boolean v2 = isVersion2();
+    VaultTransport.Response response = send("DELETE", v2 ? rewrite(path, "data") : path, null);
+    return parse(response, 204, false, v2 ? logicalOperations.deleteV2 : logicalOperations.deleteV1);
+  }
+
+  private boolean isVersion2() {
+    Integer version = this.config.getGlobalEngineVersion();
+    return version == null || version == 2;
+  }
+
+  /**
+   * Inserts the segment of a KV v2 endpoint after the mount of a path.
+   */
+  private static String rewrite(String path, String endpoint) {
+    int separator = path.indexOf('/');
+    return separator > 0
+            ? path.substring(0, separator) + "/" + endpoint + path.substring(separator)
+            : path + "/" + endpoint;
+  }
+
+  private VaultTransport.Response send(String method, String path, byte[] body) throws VaultException {
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put("X-Vault-Request", "true");
+    if (!Strings.isNullOrEmpty(this.config.getToken())) {
+      headers.put("X-Vault-Token", this.config.getToken());
+    }
+    if (!Strings.isNullOrEmpty(this.config.getNameSpace())) {
+      headers.put("X-Vault-Namespace", this.config.getNameSpace());
+    }
+    if (body != null) {
+      headers.put("Content-Type", "application/json");
+    }
+    URI uri = URI.create(this.config.getAddress().replaceAll("/+$", "") + "/v1/" + path);
+    return this.transport.send(method, uri, headers, body);
+  }
+
+  /**
+   * Parses a response with the driver, throwing the exception of the driver if its status is an error, other than
+   * a client error when these are returned. A response without content is parsed as an empty object.
+   */
+  private static LogicalResponse parse(VaultTransport.Response response, int noContent, boolean clientErrors,
+                                       logicalOperations operation) throws VaultException {
+    int status = response.getStatus();
+    if (status != 200 && status != noContent && !(clientErrors && status >= 400 && status < 500)) {
+      throw response.failure();
+    }
+    RestResponse restResponse = response.getBody().length == 0
+            ? new RestResponse(status, "application/json", EMPTY_BODY) : response.toRestResponse();
+    return new LogicalResponse(restResponse, 0, operation);
+  }
+}
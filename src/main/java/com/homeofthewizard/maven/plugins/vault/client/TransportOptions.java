@@ -0,0 +1,205 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.Transport;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Holds the settings of the connections to a Vault server: the transport sending its requests, the pool of
+ * connections of the pooled transport, the timeouts and the retries of the requests, and the other nodes of its
+ * cluster with the hedging of its reads.
+ */
+public final class TransportOptions {
+
+  /**
+   * Defines the timeout when opening a connection with Vault, in seconds, when none is configured.
+   */
+  public static final int DEFAULT_OPEN_TIMEOUT = 5;
+
+  /**
+   * Defines the timeout when reading data from Vault, in seconds, when none is configured.
+   */
+  public static final int DEFAULT_READ_TIMEOUT = 30;
+
+  /**
+   * Defines the settings of a server sending its requests with the Vault driver.
+   */
+  public static final TransportOptions DRIVER = new TransportOptions(Transport.Driver, null, null);
+
+  private final Transport transport;
+
+  private final Integer poolSize;
+
+  private final Integer idleTimeout;
+
+  private final int openTimeout;
+
+  private final int readTimeout;
+
+  private final RetryPolicy retry;
+
+  private final List<String> endpoints;
+
+  private final Integer hedgePercentile;
+
+  /**
+   * Initializes a new instance of the {@link TransportOptions} class.
+   *
+   * @param transport the transport, or null to send the requests with the Vault driver
+   * @param poolSize the maximum number of requests in flight through the pooled transport, or null if not bounded
+   * @param idleTimeout the number of seconds an unused pooled connection is kept open, or null if not bounded
+   */
+  public TransportOptions(Transport transport, Integer poolSize, Integer idleTimeout) {
+    this(transport, poolSize, idleTimeout, null, null, null);
+  }
+
+  /**
+   * Initializes a new instance of the {@link TransportOptions} class.
+   *
+   * @param transport the transport, or null to send the requests with the Vault driver
+   * @param poolSize the maximum number of requests in flight through the pooled transport, or null if not bounded
+   * @param idleTimeout the number of seconds an unused pooled connection is kept open, or null if not bounded
+   * @param openTimeout the timeout when opening a connection, in seconds, or null to use the default
+   * @param readTimeout the timeout when reading a response, in seconds, or null to use the default
+   * @param retry the retry policy of the reads and the logins, or null to use the default
+   */
+  public TransportOptions(Transport transport, Integer poolSize, Integer idleTimeout, Integer openTimeout,
+                          Integer readTimeout, RetryPolicy retry) {
+    this(transport, poolSize, idleTimeout, openTimeout, readTimeout, retry, null, null);
+  }
+
+  /**
+   * Initializes a new instance of the {@link TransportOptions} class.
+   *
+   * @param transport the transport, or null to send the requests with the Vault driver
+   * @param poolSize the maximum number of requests in flight through the pooled transport, or null if not bounded
+   * @param idleTimeout the number of seconds an unused pooled connection is kept open, or null if not bounded
+   * @param openTimeout the timeout when opening a connection, in seconds, or null to use the default
+   * @param readTimeout the timeout when reading a response, in seconds, or null to use the default
+   * @param retry the retry policy of the reads and the logins, or null to use the default
+   * @param endpoints the urls of the other nodes of the cluster, or null if the server is a single node
+   * @param hedgePercentile the percentile of the latencies after which a read is sent again, or null to not hedge
+   */
+  public TransportOptions(Transport transport, Integer poolSize, Integer idleTimeout, Integer openTimeout,
+                          Integer readTimeout, RetryPolicy retry, List<String> endpoints, Integer hedgePercentile) {
+    this.transport = transport != null ? transport : Transport.Driver;
+    this.poolSize = poolSize;
+    this.idleTimeout = idleTimeout;
+    this.openTimeout = openTimeout != null ? openTimeout : DEFAULT_OPEN_TIMEOUT;
+    this.readTimeout = readTimeout != null ? readTimeout : DEFAULT_READ_TIMEOUT;
+    this.retry = retry != null ? retry : RetryPolicy.of(null);
+    this.endpoints = endpoints != null ? List.copyOf(endpoints) : List.of();
+    this.hedgePercentile = hedgePercentile;
+  }
+
+  /**
+   * Gets the settings of the connections to a server.
+   *
+   * @param server the server
+   * @return the settings
+   */
+  public static TransportOptions of(Server server) {
+    return new TransportOptions(server.getTransport(), server.getPoolSize(), server.getIdleTimeout(),
+            server.getOpenTimeout(), server.getReadTimeout(), RetryPolicy.of(server.getRetry()), server.getEndpoints(),
+            server.getHedgePercentile());
+  }
+
+  /**
+   * Gets the transport sending the requests.
+   *
+   * @return the transport
+   */
+  public Transport getTransport() {
+    return this.transport;
+  }
+
+  /**
+   * Gets the maximum number of requests in flight through the pooled transport.
+   *
+   * @return the pool size, or null if not bounded
+   */
+  public Integer getPoolSize() {
+    return this.poolSize;
+  }
+
+  /**
+   * Gets the number of seconds an unused pooled connection is kept open.
+   *
+   * @return the idle timeout, or null if not bounded
+   */
+  public Integer getIdleTimeout() {
+    return this.idleTimeout;
+  }
+
+  /**
+   * Gets the timeout when opening a connection, in seconds.
+   *
+   * @return the open timeout
+   */
+  public int getOpenTimeout() {
+    return this.openTimeout;
+  }
+
+  /**
+   * Gets the timeout when reading a response, in seconds.
+   *
+   * @return the read timeout
+   */
+  public int getReadTimeout() {
+    return this.readTimeout;
+  }
+
+  /**
+   * Gets the retry policy of the reads and the logins.
+   *
+   * @return the retry policy
+   */
+  public RetryPolicy getRetry() {
+    return this.retry;
+  }
+
+  /**
+   * Gets the urls of the other nodes of the cluster of the server.
+   *
+   * @return the endpoints, empty if the server is a single node
+   */
+  public List<String> getEndpoints() {
+    return this.endpoints;
+  }
+
+  /**
+   * Gets the percentile of the latencies of the reads after which a read is sent again to another node.
+   *
+   * @return the percentile, or null if the reads are sent once
+   */
+  public Integer getHedgePercentile() {
+    return this.hedgePercentile;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TransportOptions that = (TransportOptions) o;
+    return transport == that.transport
+            && Objects.equals(poolSize, that.poolSize)
+            && Objects.equals(idleTimeout, that.idleTimeout)
+            && openTimeout == that.openTimeout
+            && readTimeout == that.readTimeout
+            && retry.equals(that.retry)
+            && endpoints.equals(that.endpoints)
+            && Objects.equals(hedgePercentile, that.hedgePercentile);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(transport, poolSize, idleTimeout, openTimeout, readTimeout, retry, endpoints,
+            hedgePercentile);
+  }
+}
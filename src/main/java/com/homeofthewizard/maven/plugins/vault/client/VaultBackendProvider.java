@@ -1,54 +1,88 @@
 package com.homeofthewizard.maven.plugins.vault.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
+import com.homeofthewizard.maven.plugins.vault.config.Transport;
 
 import io.github.jopenlibs.vault.SslConfig;
 import io.github.jopenlibs.vault.Vault;
 import io.github.jopenlibs.vault.VaultConfig;
 import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.api.Logical;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class VaultBackendProvider {
 
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Holds the transports of the servers, sending the requests the Vault driver cannot send, and all the requests
+   * of the servers using the pooled transport. A transport is shared by the namespaces and engine versions of a
+   * server.
+   */
+  private final ConcurrentMap<Identity, VaultTransport> transports = new ConcurrentHashMap<>();
+
   /**
-   * Defines the timeout when opening a connection with Vault.
+   * Holds the health of the nodes of the servers configured with several endpoints, keyed as the transports.
    */
-  private static final int OPEN_TIMEOUT = 5;
+  private final ConcurrentMap<Identity, Cluster> clusters = new ConcurrentHashMap<>();
 
   /**
-   * Defines the timeout when reading data from Vault.
+   * Holds the clients of the Vault servers by identity and token, so that each server is configured once per token
+   * and build, and its client shared by the authentication, the reads and the writes. The clients of the tokens of
+   * a server share its transport, its nodes and its SSL configuration.
    */
-  private static final int READ_TIMEOUT = 30;
+  private final ConcurrentMap<Identity, ConcurrentMap<String, Client>> clients = new ConcurrentHashMap<>();
 
   /**
-   * Returns a configured instance of the {@link Vault} class.
+   * Returns the instance of the {@link Vault} class of a server, configured the first time it is needed.
    *
    * @param server         the server
    * @param token          the token
    * @param namespace      the namespace
    * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
    * @param sslCertificate the certificate file or null if not needed
-   * @return the vaultConfig
+   * @param transport      the settings of the connections
+   * @return the vault
    */
   public Vault vault(String server,
                      String token,
                      String namespace,
                      boolean sslVerify,
                      File sslCertificate,
-                     Integer engineVersion) throws VaultException {
-    return Vault.create(vaultConfig(server, token, namespace, sslVerify, sslCertificate, engineVersion));
+                     Integer engineVersion,
+                     TransportOptions transport) throws VaultException {
+    return client(server, token, namespace, sslVerify, sslCertificate, engineVersion, transport).vault;
   }
 
 
   /**
-   * Returns a configured instance of the {@link VaultConfig} class.
+   * Returns the instance of the {@link VaultConfig} class of a server, configured the first time it is needed.
    *
    * @param server         the server
    * @param token          the token
    * @param namespace      the namespace
    * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
    * @param sslCertificate the certificate file or null if not needed
+   * @param transport      the settings of the connections
    * @return the vaultConfig
    */
   public VaultConfig vaultConfig(String server,
@@ -56,15 +90,69 @@ public class VaultBackendProvider {
                                  String namespace,
                                  boolean sslVerify,
                                  File sslCertificate,
-                                 Integer engineVersion) throws VaultException {
-    SslConfig sslConfig = new SslConfig().verify(sslVerify);
-    if (sslCertificate != null) {
-      sslConfig.pemFile(sslCertificate);
+                                 Integer engineVersion,
+                                 TransportOptions transport) throws VaultException {
+    return client(server, token, namespace, sslVerify, sslCertificate, engineVersion, transport).config;
+  }
+
+  /**
+   * Returns the client of a server, identified by its url, namespace, SSL configuration, engine version and
+   * transport, for a token.
+   * The client is configured the first time it is needed, and never changed afterwards: a server getting another
+   * token, typically once it logged in, gets another client, so that the requests sent with the previous token are
+   * not affected.
+   * When the server has other endpoints, its configuration points to the node found active when the client is
+   * configured, as used by the logins, and its reads and writes are routed to the nodes by a {@link Cluster}.
+   */
+  private Client client(String server,
+                        String token,
+                        String namespace,
+                        boolean sslVerify,
+                        File sslCertificate,
+                        Integer engineVersion,
+                        TransportOptions transport) throws VaultException {
+    Identity identity = new Identity(server, namespace, sslVerify, sslCertificate, engineVersion, transport);
+    ConcurrentMap<String, Client> tokens = this.clients.computeIfAbsent(identity, key -> new ConcurrentHashMap<>());
+    Client client = tokens.get(Strings.nullToEmpty(token));
+    if (client == null) {
+      VaultTransport pooled = identity.transport.getTransport() == Transport.Pooled
+              ? transport(server, sslVerify, sslCertificate, transport) : null;
+      Cluster cluster = cluster(server, sslVerify, sslCertificate, transport);
+      VaultConfig config = newVaultConfig(cluster != null ? cluster.active() : server, token, namespace, sslVerify,
+              sslCertificate, engineVersion, identity.transport);
+      Map<String, VaultConfig> nodes = new LinkedHashMap<>();
+      Logical router = null;
+      if (cluster != null) {
+        for (String url : cluster.urls()) {
+          nodes.put(url, newVaultConfig(url, token, namespace, sslVerify, sslCertificate, engineVersion,
+                  identity.transport));
+        }
+        router = new RoutingLogical(config, cluster, url -> pooled != null
+                ? new TransportLogical(nodes.get(url), pooled) : new Logical(nodes.get(url)),
+                identity.transport.getHedgePercentile());
+      }
+      Vault vault = new SharedVault(config, pooled, router, identity.transport.getRetry());
+      Client created = new Client(config, vault);
+      client = tokens.putIfAbsent(Strings.nullToEmpty(token), created);
+      if (client == null) {
+        return created;
+      }
     }
+    return client;
+  }
+
+  private static VaultConfig newVaultConfig(String server,
+                                            String token,
+                                            String namespace,
+                                            boolean sslVerify,
+                                            File sslCertificate,
+                                            Integer engineVersion,
+                                            TransportOptions transport) throws VaultException {
+    SslConfig sslConfig = SslConfigCache.sslConfig(sslVerify, sslCertificate);
     VaultConfig vaultConfig = new VaultConfig()
           .address(server)
-          .openTimeout(OPEN_TIMEOUT)
-          .readTimeout(READ_TIMEOUT)
+          .openTimeout(transport.getOpenTimeout())
+          .readTimeout(transport.getReadTimeout())
           .sslConfig(sslConfig)
           .token(token)
           .engineVersion(engineVersion);
@@ -73,4 +161,291 @@ public class VaultBackendProvider {
     }
     return vaultConfig;
   }
+
+  /**
+   * Resolves the host of a Vault server and opens a connection to it, so that the requests sent next do not
+   * wait for them. The unauthenticated health endpoint is requested and its response fully read, which lets
+   * the connection be kept alive and reused. Failures are ignored, as the requests sent next report them.
+   *
+   * @param server the server
+   */
+  public void warmUp(String server) {
+    try {
+      URL url = new URL(server.replaceAll("/+$", "") + "/v1/sys/health");
+      InetAddress.getAllByName(url.getHost());
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setConnectTimeout(TransportOptions.DEFAULT_OPEN_TIMEOUT * 1000);
+      connection.setReadTimeout(TransportOptions.DEFAULT_READ_TIMEOUT * 1000);
+      try (InputStream body = connection.getResponseCode() < 400
+              ? connection.getInputStream() : connection.getErrorStream()) {
+        if (body != null) {
+          body.readAllBytes();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      // best effort: the requests sent next fail with a meaningful exception if the server cannot be reached
+    }
+  }
+
+  /**
+   * Updates some of the secrets of a KV v2 path with a JSON merge patch, leaving its other secrets untouched,
+   * in a single request. The Vault driver cannot send this request, as it only knows the methods of
+   * {@link HttpURLConnection}: it is sent through the transport of the server, configured as the driver.
+   * The first segment of the path is the mount of the engine, as for the reads of the Vault driver.
+   *
+   * @param server         the server
+   * @param token          the token
+   * @param namespace      the namespace
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @param path           the path
+   * @param secrets        the secrets to set
+   * @param transport      the settings of the connections
+   * @return the response, holding the metadata of the new version, or with the status 404 if the path does not
+   *         exist, 405 if the server does not support patches, and 403 if the token is not allowed to patch the path
+   * @throws VaultException if the request cannot be sent
+   */
+  public VaultTransport.Response patch(String server,
+                   String token,
+                   String namespace,
+                   boolean sslVerify,
+                   File sslCertificate,
+                   String path,
+                   Map<String, String> secrets,
+                   TransportOptions transport) throws VaultException {
+    VaultTransport.Response response = send("PATCH", server, token, namespace, sslVerify, sslCertificate,
+            transport, path, "application/merge-patch+json", Map.of("data", secrets));
+    int status = response.getStatus();
+    if (status >= 400 && status != 403 && status != 404 && status != 405) {
+      throw response.failure();
+    }
+    return response;
+  }
+
+  /**
+   * Writes the secrets of a KV v2 path only if its current version is still the expected one, with the
+   * check-and-set option of the engine. The driver cannot set this option: the request is sent as the patches.
+   *
+   * @param server         the server
+   * @param token          the token
+   * @param namespace      the namespace
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @param path           the path
+   * @param secrets        the secrets to write
+   * @param version        the expected current version, {@code 0} to only write a path that does not exist
+   * @param transport      the settings of the connections
+   * @return {@code true} if the secrets are written; {@code false} if the current version is another one
+   * @throws VaultException if the request cannot be sent or is refused for another reason
+   */
+  public boolean writeChecked(String server,
+                              String token,
+                              String namespace,
+                              boolean sslVerify,
+                              File sslCertificate,
+                              String path,
+                              Map<String, String> secrets,
+                              long version,
+                              TransportOptions transport) throws VaultException {
+    VaultTransport.Response response = send("POST", server, token, namespace, sslVerify, sslCertificate,
+            transport, path, "application/json", Map.of("options", Map.of("cas", version), "data", secrets));
+    int status = response.getStatus();
+    if (status == 400 && new String(response.getBody(), StandardCharsets.UTF_8).contains("check-and-set")) {
+      return false;
+    }
+    if (status >= 400) {
+      throw response.failure();
+    }
+    return true;
+  }
+
+  /**
+   * Sends a request with a JSON body to the data endpoint of a KV v2 path.
+   */
+  private VaultTransport.Response send(String method, String server, String token, String namespace,
+                                       boolean sslVerify, File sslCertificate, TransportOptions transport,
+                                       String path, String contentType, Map<String, Object> body)
+          throws VaultException {
+    int separator = path.indexOf('/');
+    if (separator <= 0) {
+      throw new VaultException("Cannot write path " + path + " outside of a secrets engine mount");
+    }
+    String dataPath = path.substring(0, separator) + "/data" + path.substring(separator);
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put("Content-Type", contentType);
+    if (!Strings.isNullOrEmpty(token)) {
+      headers.put("X-Vault-Token", token);
+    }
+    if (!Strings.isNullOrEmpty(namespace)) {
+      headers.put("X-Vault-Namespace", namespace);
+    }
+    Cluster cluster = cluster(server, sslVerify, sslCertificate, transport);
+    String node = cluster != null ? cluster.active() : server;
+    try {
+      return transport(server, sslVerify, sslCertificate, transport).send(method,
+              URI.create(node.replaceAll("/+$", "") + "/v1/" + dataPath), headers, MAPPER.writeValueAsBytes(body));
+    } catch (JsonProcessingException e) {
+      throw new VaultException(e);
+    }
+  }
+
+
+  /**
+   * Returns the transport of a server, created the first time it is needed.
+   * As the Vault driver, it trusts any certificate and host when the connection is not verified,
+   * and only the given certificate when one is configured.
+   *
+   * @param server         the server
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @param options        the settings of the connections
+   * @return the transport
+   * @throws VaultException if the certificate cannot be loaded
+   */
+  private VaultTransport transport(String server, boolean sslVerify, File sslCertificate, TransportOptions options)
+          throws VaultException {
+    Identity identity = new Identity(server, null, sslVerify, sslCertificate, null, options);
+    VaultTransport transport = this.transports.get(identity);
+    if (transport != null) {
+      return transport;
+    }
+    transport = new HttpClientTransport(SslConfigCache.sslContext(sslVerify, sslCertificate),
+            Duration.ofSeconds(identity.transport.getOpenTimeout()),
+            Duration.ofSeconds(identity.transport.getReadTimeout()), identity.transport.getPoolSize(),
+            identity.transport.getIdleTimeout());
+    VaultTransport existing = this.transports.putIfAbsent(identity, transport);
+    return existing != null ? existing : transport;
+  }
+
+  /**
+   * Returns the nodes of a server configured with other endpoints, created the first time they are needed, or
+   * null if the server is a single node. Their health is checked with the transport of the server, within its
+   * open timeout.
+   *
+   * @param server         the server
+   * @param sslVerify      {@code true} if the connection should be verified; otherwise, {@code false}
+   * @param sslCertificate the certificate file or null if not needed
+   * @param options        the settings of the connections
+   * @return the cluster, or null
+   * @throws VaultException if the certificate cannot be loaded
+   */
+  private Cluster cluster(String server, boolean sslVerify, File sslCertificate, TransportOptions options)
+          throws VaultException {
+    Identity identity = new Identity(server, null, sslVerify, sslCertificate, null, options);
+    Set<String> urls = new LinkedHashSet<>();
+    urls.add(server);
+    urls.addAll(identity.transport.getEndpoints());
+    if (urls.size() == 1) {
+      return null;
+    }
+    Cluster cluster = this.clusters.get(identity);
+    if (cluster != null) {
+      return cluster;
+    }
+    VaultTransport transport = transport(server, sslVerify, sslCertificate, options);
+    cluster = new Cluster(new ArrayList<>(urls), url -> transport.send("GET",
+            URI.create(url.replaceAll("/+$", "") + "/v1/sys/health"), Map.of("X-Vault-Request", "true"), null)
+            .getStatus(), Duration.ofSeconds(identity.transport.getOpenTimeout()),
+            BoundedExecutor.newExecutor(urls.size(), "vault-health"));
+    Cluster existing = this.clusters.putIfAbsent(identity, cluster);
+    return existing != null ? existing : cluster;
+  }
+
+  /**
+   * Identifies the configuration of a server, all of it but the token.
+   */
+  private static final class Identity {
+
+    private final String url;
+
+    private final String namespace;
+
+    private final boolean sslVerify;
+
+    private final File sslCertificate;
+
+    private final Integer engineVersion;
+
+    private final TransportOptions transport;
+
+    private Identity(String url, String namespace, boolean sslVerify, File sslCertificate, Integer engineVersion,
+                     TransportOptions transport) {
+      this.url = url;
+      this.namespace = Strings.nullToEmpty(namespace);
+      this.sslVerify = sslVerify;
+      this.sslCertificate = sslCertificate;
+      this.engineVersion = engineVersion;
+      this.transport = transport != null ? transport : TransportOptions.DRIVER;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Identity that = (Identity) o;
+      return sslVerify == that.sslVerify
+              && Objects.equals(url, that.url)
+              && Objects.equals(namespace, that.namespace)
+              && Objects.equals(sslCertificate, that.sslCertificate)
+              && Objects.equals(engineVersion, that.engineVersion)
+              && Objects.equals(transport, that.transport);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(url, namespace, sslVerify, sslCertificate, engineVersion, transport);
+    }
+  }
+
+  /**
+   * Holds the configuration of a server for a token, and the driver using it.
+   */
+  private static final class Client {
+
+    private final VaultConfig config;
+
+    private final Vault vault;
+
+    private Client(VaultConfig config, Vault vault) {
+      this.config = config;
+      this.vault = vault;
+    }
+  }
+
+  /**
+   * Retries the reads and the lists of the Vault driver with the retry policy of a server, and sends them
+   * with the writes and the deletes through the router of the nodes of the server if it has several, or through
+   * the pooled transport of the server if it uses one.
+   */
+  private static final class SharedVault extends Vault {
+
+    private final VaultConfig config;
+
+    private final VaultTransport transport;
+
+    private final Logical router;
+
+    private final RetryPolicy retry;
+
+    private SharedVault(VaultConfig config, VaultTransport transport, Logical router, RetryPolicy retry) {
+      super(config);
+      this.config = config;
+      this.transport = transport;
+      this.router = router;
+      this.retry = retry;
+    }
+
+    @Override
+    public Logical logical() {
+      Logical logical = this.router;
+      if (logical == null) {
+        logical = this.transport != null ? new TransportLogical(this.config, this.transport) : super.logical();
+      }
+      return new RetryingLogical(this.config, logical, this.retry);
+    }
+  }
 }
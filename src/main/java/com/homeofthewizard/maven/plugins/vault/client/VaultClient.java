@@ -23,9 +23,24 @@ public interface VaultClient {
     return new JOpenLibsVaultClient(new VaultBackendProvider());
   }
 
-  void pull(List<Server> servers, Properties properties, OutputMethod outputMethod) throws VaultException;
+  default void pull(List<Server> servers, Properties properties, OutputMethod outputMethod) throws VaultException {
+    pull(ExecutionPlan.compile(servers, ExecutionPlan.Operation.PULL), properties, outputMethod,
+            new ExecutionOptions());
+  }
+
+  void pull(ExecutionPlan plan, Properties properties, OutputMethod outputMethod, ExecutionOptions options)
+          throws VaultException;
+
+  void prefetch(ExecutionPlan plan, ExecutionOptions options) throws VaultException;
+
+  default void push(List<Server> servers, Properties properties) throws VaultException {
+    push(ExecutionPlan.compile(servers, ExecutionPlan.Operation.PUSH), properties, new ExecutionOptions());
+  }
+
+  void push(ExecutionPlan plan, Properties properties, ExecutionOptions options) throws VaultException;
 
-  void push(List<Server> servers, Properties properties) throws VaultException;
+  SyncReport sync(Server source, ExecutionPlan targets, ExecutionOptions options, boolean dryRun)
+          throws VaultException;
 
   void authenticateIfNecessary(List<Server> servers, AuthenticationSysProperties authSystemArgs,
                                AuthenticationMethodProvider authenticationMethodProvider) throws VaultException;
@@ -0,0 +1,106 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.rest.RestResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends the HTTP requests to a Vault server. A transport is shared by the concurrent requests to the server,
+ * and keeps its connections open between them.
+ */
+public interface VaultTransport {
+
+  /**
+   * Sends a request and reads its whole response, whatever its status.
+   *
+   * @param method the HTTP method
+   * @param uri the URI
+   * @param headers the headers
+   * @param body the body, or null to send none
+   * @return the response
+   * @throws VaultException if the request cannot be sent or its response read
+   */
+  Response send(String method, URI uri, Map<String, String> headers, byte[] body) throws VaultException;
+
+  /**
+   * Holds a response of Vault.
+   */
+  final class Response {
+
+    private final int status;
+
+    private final String mimeType;
+
+    private final byte[] body;
+
+    private final Duration retryAfter;
+
+    /**
+     * Initializes a new instance of the {@link Response} class.
+     *
+     * @param status the status
+     * @param mimeType the type of the body
+     * @param body the body
+     * @param retryAfter the time to wait before sending the request again, or null if the response does not tell
+     */
+    public Response(int status, String mimeType, byte[] body, Duration retryAfter) {
+      this.status = status;
+      this.mimeType = mimeType;
+      this.body = body != null ? body : new byte[0];
+      this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the status of this response.
+     *
+     * @return the status
+     */
+    public int getStatus() {
+      return this.status;
+    }
+
+    /**
+     * Gets the body of this response.
+     *
+     * @return the body, empty if there is none
+     */
+    public byte[] getBody() {
+      return this.body;
+    }
+
+    /**
+     * Gets the time to wait before sending the request again, from the {@code Retry-After} header.
+     *
+     * @return the time, or null if the response does not tell
+     */
+    public Duration getRetryAfter() {
+      return this.retryAfter;
+    }
+
+    /**
+     * Gets this response as a response of the Vault driver, to be parsed by the driver.
+     *
+     * @return the response
+     */
+    public RestResponse toRestResponse() {
+      return new RestResponse(this.status, this.mimeType, this.body);
+    }
+
+    /**
+     * Gets the exception reporting this response as an error, as the driver does.
+     *
+     * @return the exception
+     */
+    public VaultException failure() {
+      String message = "Vault responded with HTTP status code: " + this.status
+              + "\nResponse body: " + new String(this.body, StandardCharsets.UTF_8);
+      return this.retryAfter != null
+              ? new RetryAfterException(message, this.status, this.retryAfter)
+              : new VaultException(message, this.status);
+    }
+  }
+}
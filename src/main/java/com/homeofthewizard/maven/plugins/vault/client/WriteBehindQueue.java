@@ -0,0 +1,154 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Collects the secrets of the pushes of a build, so that they are written once at the end of the build.
+ * The values of the pushes are resolved when they are added, as the properties of a module may change later.
+ * The values of the same path are merged, a key pushed by several executions taking the value of the last one,
+ * and each path is then written once by {@link #flush()}. The queue is safe for use by modules built in parallel.
+ * The paths are grouped by endpoint, which includes the credentials of its server, and each group is written with
+ * the client, the options and the login of the first push adding to it. A server authenticated by a login logs in
+ * again before its group is written, as its token may have expired during the build.
+ */
+public final class WriteBehindQueue {
+
+  private final Map<Endpoint, Batch> batches = new LinkedHashMap<>();
+
+  /**
+   * Initializes a new instance of the {@link WriteBehindQueue} class.
+   */
+  public WriteBehindQueue() { }
+
+  /**
+   * Adds the values of a push to this queue.
+   * The properties are checked as for a push, and nothing is added if some of them are missing.
+   * The files of file mappings are read when they are added.
+   *
+   * @param client     the client
+   * @param plan       the plan of the push
+   * @param properties the properties
+   * @param options    the execution options
+   * @param login      the login of the servers of the push not authenticated by a token
+   * @throws java.util.NoSuchElementException if some properties are missing
+   * @throws VaultException if a file cannot be read
+   */
+  public synchronized void add(VaultClient client, ExecutionPlan plan, Properties properties,
+                               ExecutionOptions options, Login login) throws VaultException {
+    JOpenLibsVaultClient.checkProperties(plan, properties);
+    List<Map<String, String>> resolved = new ArrayList<>();
+    for (PlannedPath path : plan.paths()) {
+      Map<String, String> values = new LinkedHashMap<>();
+      for (Mapping mapping : path.getMappings()) {
+        values.put(mapping.getKey(), JOpenLibsVaultClient.value(mapping, properties));
+      }
+      resolved.add(values);
+    }
+    List<PlannedPath> paths = plan.paths();
+    for (int i = 0; i < paths.size(); i++) {
+      PlannedPath path = paths.get(i);
+      this.batches.computeIfAbsent(path.getEndpoint(), endpoint -> new Batch(client, options, login)).secrets
+              .computeIfAbsent(path.getName(), name -> new LinkedHashMap<>())
+              .putAll(resolved.get(i));
+    }
+  }
+
+  /**
+   * Gets the number of distinct paths in this queue.
+   *
+   * @return the number of paths
+   */
+  public synchronized int size() {
+    return this.batches.values().stream().mapToInt(batch -> batch.secrets.size()).sum();
+  }
+
+  /**
+   * Removes all the paths of this queue without writing them.
+   */
+  public synchronized void clear() {
+    this.batches.clear();
+  }
+
+  /**
+   * Writes each path of this queue once with all the values added for it, and empties the queue.
+   * The paths of each endpoint are written as a push with the client and the options of the first push adding
+   * to it, after logging in again to its server if it is not authenticated by a token. The endpoints are all
+   * written even if one of them fails.
+   *
+   * @throws VaultException if an exception is thrown pushing the secrets, the exceptions of the other endpoints
+   *                        being suppressed
+   */
+  public synchronized void flush() throws VaultException {
+    Map<Endpoint, Batch> batches = new LinkedHashMap<>(this.batches);
+    this.batches.clear();
+    VaultException failure = null;
+    for (Map.Entry<Endpoint, Batch> entry : batches.entrySet()) {
+      try {
+        entry.getValue().flush(entry.getKey());
+      } catch (VaultException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Logs in to a server of a push not authenticated by a token, setting the token of the server.
+   */
+  @FunctionalInterface
+  public interface Login {
+
+    /**
+     * Logs in to a server.
+     *
+     * @param server the server, without token
+     * @throws VaultException if the login fails
+     */
+    void login(Server server) throws VaultException;
+  }
+
+  /**
+   * Holds the paths queued for an endpoint, and how to write them.
+   */
+  private static final class Batch {
+
+    private final Map<String, Map<String, String>> secrets = new LinkedHashMap<>();
+
+    private final VaultClient client;
+
+    private final ExecutionOptions options;
+
+    private final Login login;
+
+    private Batch(VaultClient client, ExecutionOptions options, Login login) {
+      this.client = client;
+      this.options = options;
+      this.login = login;
+    }
+
+    private void flush(Endpoint endpoint) throws VaultException {
+      if (endpoint.isAuthenticatedByLogin()) {
+        Server server = endpoint.getServer();
+        server.setToken(null);
+        this.login.login(server);
+      }
+      Properties properties = new Properties();
+      ExecutionPlan plan = ExecutionPlan.ofSecrets(Map.of(endpoint, this.secrets), properties);
+      this.client.push(plan, properties, this.options);
+    }
+  }
+}
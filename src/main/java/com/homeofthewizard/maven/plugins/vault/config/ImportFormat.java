@@ -0,0 +1,190 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.jopenlibs.vault.VaultException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Identifies the format of a file imported into Vault. The entries of the file are read one at a time,
+ * so that the file is never held in memory as a whole. The name of an entry is the path of the secret followed
+ * by a slash and its key, for example {@code secret/app/db/password}.
+ */
+public enum ImportFormat {
+  EnvFile {
+    @Override
+    public void read(Reader reader, EntryConsumer consumer) throws IOException, VaultException {
+      BufferedReader lines = new BufferedReader(reader);
+      String line;
+      int number = 0;
+      while ((line = lines.readLine()) != null) {
+        number++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (line.startsWith("export ")) {
+          line = line.substring("export ".length()).trim();
+        }
+        int separator = line.indexOf('=');
+        if (separator <= 0) {
+          throw new IOException(String.format("Invalid entry at line %d: %s", number, line));
+        }
+        consumer.accept(line.substring(0, separator).trim(), envValue(line.substring(separator + 1).trim()));
+      }
+    }
+  },
+  PropertiesFile {
+    @Override
+    public void read(Reader reader, EntryConsumer consumer) throws IOException, VaultException {
+      BufferedReader lines = new BufferedReader(reader);
+      StringBuilder logicalLine = new StringBuilder();
+      String line;
+      while ((line = lines.readLine()) != null) {
+        String trimmed = line.trim();
+        if (logicalLine.length() == 0 && (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("!"))) {
+          continue;
+        }
+        logicalLine.append(line).append('\n');
+        if (endsWithContinuation(line)) {
+          continue;
+        }
+        readEntry(logicalLine, consumer);
+        logicalLine.setLength(0);
+      }
+      // a continuation on the last line of the file ends the entry, as with Properties.load
+      readEntry(logicalLine, consumer);
+    }
+
+    /**
+     * Reads the entry of a logical line, on its own, with the escapes and separators of the properties format.
+     */
+    private void readEntry(CharSequence logicalLine, EntryConsumer consumer) throws IOException, VaultException {
+      if (logicalLine.length() == 0) {
+        return;
+      }
+      Properties entry = new Properties();
+      entry.load(new StringReader(logicalLine.toString()));
+      for (String name : entry.stringPropertyNames()) {
+        consumer.accept(name, entry.getProperty(name));
+      }
+    }
+  },
+  JsonFile {
+    @Override
+    public void read(Reader reader, EntryConsumer consumer) throws IOException, VaultException {
+      try (JsonParser parser = new JsonFactory().createParser(reader)) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new IOException("The JSON file must hold an object");
+        }
+        readObject(parser, null, consumer);
+      }
+    }
+  };
+
+  /**
+   * Reads the entries of a file, one at a time.
+   *
+   * @param reader   the reader of the file
+   * @param consumer the consumer receiving each entry
+   * @throws IOException if the file cannot be read or is invalid
+   * @throws VaultException if the consumer cannot write an entry
+   */
+  public abstract void read(Reader reader, EntryConsumer consumer) throws IOException, VaultException;
+
+  /**
+   * Gets the format of a file from its extension: {@code .json} for {@link #JsonFile}, {@code .properties} for
+   * {@link #PropertiesFile}, and {@link #EnvFile} otherwise.
+   *
+   * @param fileName the name of the file
+   * @return the format
+   */
+  public static ImportFormat of(String fileName) {
+    String name = fileName.toLowerCase(Locale.ROOT);
+    if (name.endsWith(".json")) {
+      return JsonFile;
+    }
+    if (name.endsWith(".properties")) {
+      return PropertiesFile;
+    }
+    return EnvFile;
+  }
+
+  /**
+   * Gets the value of a .env entry: the text between double quotes, with its escapes, between single quotes,
+   * as it is, or up to a comment otherwise.
+   */
+  private static String envValue(String value) {
+    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      StringBuilder unescaped = new StringBuilder(value.length());
+      for (int i = 1; i < value.length() - 1; i++) {
+        char c = value.charAt(i);
+        if (c == '\\' && i + 1 < value.length() - 1) {
+          c = value.charAt(++i);
+          unescaped.append(c == 'n' ? '\n' : c);
+        } else {
+          unescaped.append(c);
+        }
+      }
+      return unescaped.toString();
+    }
+    if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+      return value.substring(1, value.length() - 1);
+    }
+    int comment = value.indexOf(" #");
+    return comment >= 0 ? value.substring(0, comment).trim() : value;
+  }
+
+  /**
+   * Returns a value indicating whether a line of a properties file continues on the next line,
+   * that is, whether it ends with an odd number of backslashes.
+   */
+  private static boolean endsWithContinuation(String line) {
+    int backslashes = 0;
+    for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  /**
+   * Reads the fields of a JSON object, the names of nested objects joined with slashes.
+   */
+  private static void readObject(JsonParser parser, String prefix, EntryConsumer consumer)
+          throws IOException, VaultException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = prefix == null ? parser.getCurrentName() : prefix + "/" + parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.START_OBJECT) {
+        readObject(parser, name, consumer);
+      } else if (token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+        consumer.accept(name, parser.getText());
+      } else {
+        throw new IOException(String.format("Invalid value of %s: only objects and scalar values are supported", name));
+      }
+    }
+  }
+
+  /**
+   * Receives the entries of a file.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Receives an entry.
+     *
+     * @param name  the name of the entry
+     * @param value the value of the entry
+     * @throws VaultException if the entry cannot be written
+     */
+    void accept(String name, String value) throws VaultException;
+  }
+}
@@ -0,0 +1,205 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds properties some of which are only resolved the first time they are read.
+ * A registered property is resolved when it is read with {@link #getProperty(String)} or {@link #get(Object)};
+ * its value is then loaded and kept. {@link #containsKey(Object)}, {@link #size()} and {@link #isEmpty()} count it
+ * without resolving it. Enumerating these properties, with their views, {@link #forEach(BiConsumer)} or a copy like
+ * {@link #clone()} or {@code putAll} of these properties into others, resolves all the pending properties first,
+ * so that the enumeration includes them.
+ * A loader failing is reported by an {@link IllegalStateException} naming the property, and the property stays
+ * pending, so that it is loaded again the next time it is read.
+ */
+public final class LazyProperties extends Properties {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient Map<String, Supplier<String>> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Initializes a new instance of the {@link LazyProperties} class.
+   *
+   * @param properties the properties already resolved
+   */
+  public LazyProperties(Properties properties) {
+    putAll(properties);
+  }
+
+  /**
+   * Registers a property resolved the first time it is read.
+   *
+   * @param property the name of the property
+   * @param loader   the loader of the value, called at most once
+   */
+  public void register(String property, Supplier<String> loader) {
+    this.pending.put(property, loader);
+  }
+
+  /**
+   * Gets a value indicating whether a property is registered and not yet resolved.
+   *
+   * @param property the name of the property
+   * @return {@code true} if the property is pending; otherwise, {@code false}
+   */
+  public boolean isPending(String property) {
+    return this.pending.containsKey(property);
+  }
+
+  @Override
+  public String getProperty(String key) {
+    resolve(key);
+    return super.getProperty(key);
+  }
+
+  @Override
+  public String getProperty(String key, String defaultValue) {
+    resolve(key);
+    return super.getProperty(key, defaultValue);
+  }
+
+  @Override
+  public Object get(Object key) {
+    resolve(key);
+    return super.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.pending.containsKey(key) || super.containsKey(key);
+  }
+
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    resolve(key);
+    return super.getOrDefault(key, defaultValue);
+  }
+
+  @Override
+  public int size() {
+    int size = super.size();
+    for (String key : this.pending.keySet()) {
+      if (!super.containsKey(key)) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.pending.isEmpty() && super.isEmpty();
+  }
+
+  @Override
+  public synchronized Object put(Object key, Object value) {
+    this.pending.remove(key);
+    return super.put(key, value);
+  }
+
+  @Override
+  public synchronized void putAll(Map<?, ?> properties) {
+    for (Map.Entry<?, ?> entry : properties.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public Set<Object> keySet() {
+    resolveAll();
+    return super.keySet();
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    resolveAll();
+    return super.entrySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    resolveAll();
+    return super.values();
+  }
+
+  @Override
+  public Enumeration<Object> keys() {
+    resolveAll();
+    return super.keys();
+  }
+
+  @Override
+  public Enumeration<Object> elements() {
+    resolveAll();
+    return super.elements();
+  }
+
+  @Override
+  public Enumeration<?> propertyNames() {
+    resolveAll();
+    return super.propertyNames();
+  }
+
+  @Override
+  public Set<String> stringPropertyNames() {
+    resolveAll();
+    return super.stringPropertyNames();
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super Object, ? super Object> action) {
+    resolveAll();
+    super.forEach(action);
+  }
+
+  @Override
+  public String toString() {
+    resolveAll();
+    return super.toString();
+  }
+
+  /**
+   * Copies these properties, resolving the pending ones first.
+   *
+   * @return the copy
+   */
+  @Override
+  public Object clone() {
+    resolveAll();
+    return new LazyProperties(this);
+  }
+
+  private void resolveAll() {
+    for (String key : this.pending.keySet()) {
+      resolve(key);
+    }
+  }
+
+  /**
+   * Loads and stores the value of a pending property.
+   */
+  private void resolve(Object key) {
+    Supplier<String> loader = this.pending.get(key);
+    if (loader != null) {
+      String value;
+      try {
+        value = loader.get();
+      } catch (RuntimeException e) {
+        throw new IllegalStateException(String.format("Exception thrown resolving property %s", key), e);
+      }
+      synchronized (this) {
+        if (this.pending.remove(key, loader)) {
+          super.put(key, value);
+        }
+      }
+    }
+  }
+}
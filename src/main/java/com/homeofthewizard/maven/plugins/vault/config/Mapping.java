@@ -16,11 +16,12 @@
 
 package com.homeofthewizard.maven.plugins.vault.config;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.Objects;
 
 /**
- * Represents a mapping between a Vault key and a Maven property.
+ * Represents a mapping between a Vault key and a Maven property, or a file whose content is pushed to the key.
  */
 public class Mapping implements Serializable {
 
@@ -28,6 +29,8 @@ public class Mapping implements Serializable {
 
   private String property;
 
+  private File file;
+
   /**
    * Initializes a new instance of the {@link Mapping} class.
    */
@@ -62,13 +65,31 @@ public class Mapping implements Serializable {
     return this.property;
   }
 
+  /**
+   * Gets the file whose content, encoded in base64, is pushed to the key of this mapping, instead of a property.
+   *
+   * @return the file, or null if the mapping is of a property
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * Sets the file whose content is pushed to the key of this mapping.
+   *
+   * @param file File
+   */
+  public void setFile(File file) {
+    this.file = file;
+  }
+
   /**
    * Returns a hash code value for this mapping.
    *
    * @return the hash code
    */
   public int hashCode() {
-    return Objects.hash(this.key, this.property);
+    return Objects.hash(this.key, this.property, this.file);
   }
 
   /**
@@ -80,7 +101,8 @@ public class Mapping implements Serializable {
     if (object instanceof Mapping) {
       Mapping that = (Mapping) object;
       return Objects.equals(this.key, that.key)
-          && Objects.equals(this.property, that.property);
+          && Objects.equals(this.property, that.property)
+          && Objects.equals(this.file, that.file);
     }
     return false;
   }
@@ -25,10 +25,31 @@ public enum OutputMethod {
     public void flush(Properties properties, Map<String, String> secrets, Mapping mapping) {
       createEnvFile(secrets, mapping);
     }
+  },
+  LazyMavenProperties{
+    @Override
+    public void flush(Properties properties, Map<String, String> secrets, Mapping mapping) {
+      setMavenProperties(properties, secrets, mapping);
+    }
+
+    @Override
+    public boolean isLazy() {
+      return true;
+    }
   };
 
   public abstract void flush(Properties properties, Map<String, String> secrets, Mapping mapping);
 
+  /**
+   * Returns a value indicating whether the secrets are only read from Vault when their properties are first read.
+   * The properties of a lazy output method must be {@link LazyProperties}.
+   *
+   * @return {@code true} if this output method is lazy; otherwise, {@code false}
+   */
+  public boolean isLazy() {
+    return false;
+  }
+
   /**
    * Creates an .envFile and put the secrets in it, respecting the key/property mapping definition given.
    * @param secrets secrets fetched from Vault.
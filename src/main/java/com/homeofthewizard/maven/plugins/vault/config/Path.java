@@ -22,13 +22,27 @@ import java.util.Objects;
 
 /**
  * Represents a path on a Vault server.
+ * A name ending with {@code /**} represents the subtree of secrets below a prefix: all of its leaves are pulled,
+ * and each of their keys is stored in a property named after the naming scheme of the path.
  */
 public class Path implements Serializable {
 
+  /**
+   * The suffix of the names of subtree paths.
+   */
+  public static final String SUBTREE_SUFFIX = "/**";
+
+  /**
+   * The naming scheme of the properties of a subtree path when none is configured.
+   */
+  public static final String DEFAULT_NAMING = "{path}.{key}";
+
   private String name;
 
   private List<Mapping> mappings;
 
+  private String naming;
+
   /**
    * Initializes a new instance of the {@link Path} class.
    */
@@ -45,6 +59,18 @@ public class Path implements Serializable {
     this.mappings = mappings;
   }
 
+  /**
+   * Initializes a new instance of the {@link Path} class.
+   *
+   * @param name the name of the path
+   * @param mappings the mappings of the path
+   * @param naming the naming scheme of the properties of a subtree path
+   */
+  public Path(String name, List<Mapping> mappings, String naming) {
+    this(name, mappings);
+    this.naming = naming;
+  }
+
   /**
    * Gets the name of this path.
    *
@@ -63,13 +89,57 @@ public class Path implements Serializable {
     return this.mappings;
   }
 
+  /**
+   * Gets the naming scheme of the properties of this path when it is a subtree.
+   * The scheme may contain the placeholders {@code {path}}, the leaf path relative to the prefix with dots
+   * instead of slashes, {@code {name}}, the last segment of the leaf path, and {@code {key}}, the secret key.
+   *
+   * @return the naming scheme
+   */
+  public String getNaming() {
+    return this.naming == null ? DEFAULT_NAMING : this.naming;
+  }
+
+  /**
+   * Returns a value indicating whether this path is the subtree of secrets below a prefix.
+   *
+   * @return {@code true} if this path is a subtree; otherwise, {@code false}
+   */
+  public boolean isSubtree() {
+    return this.name != null && this.name.endsWith(SUBTREE_SUFFIX);
+  }
+
+  /**
+   * Gets the prefix of this path when it is a subtree, without trailing slash.
+   *
+   * @return the prefix
+   */
+  public String getPrefix() {
+    return isSubtree() ? this.name.substring(0, this.name.length() - SUBTREE_SUFFIX.length()) : this.name;
+  }
+
+  /**
+   * Gets the name of the property receiving a secret of a leaf of this subtree.
+   *
+   * @param leaf the path of the leaf, below the prefix of this path
+   * @param key the key of the secret
+   * @return the name of the property
+   */
+  public String propertyName(String leaf, String key) {
+    String relative = leaf.substring(getPrefix().length() + 1);
+    return getNaming()
+            .replace("{path}", relative.replace('/', '.'))
+            .replace("{name}", relative.substring(relative.lastIndexOf('/') + 1))
+            .replace("{key}", key);
+  }
+
   /**
    * Returns a hash code value for this path.
    *
    * @return the hash code
    */
   public int hashCode() {
-    return Objects.hash(this.name, this.mappings);
+    return Objects.hash(this.name, this.mappings, this.naming);
   }
 
   /**
@@ -81,7 +151,8 @@ public class Path implements Serializable {
     if (object instanceof Path) {
       Path that = (Path) object;
       return Objects.equals(this.name, that.name)
-          && Objects.equals(this.mappings, that.mappings);
+          && Objects.equals(this.mappings, that.mappings)
+          && Objects.equals(this.naming, that.naming);
     }
     return false;
   }
@@ -0,0 +1,100 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents how the reads and the logins sent to a Vault server are retried when they fail transiently.
+ * The unset settings keep their defaults.
+ */
+public class Retry implements Serializable {
+
+  private Integer maxAttempts;
+
+  private Integer initialBackoff;
+
+  private Integer maxBackoff;
+
+  private Integer deadline;
+
+  /**
+   * Initializes a new instance of the {@link Retry} class.
+   */
+  public Retry() { }
+
+  /**
+   * Initializes a new instance of the {@link Retry} class.
+   *
+   * @param maxAttempts the maximum number of attempts of a request, the first one included
+   * @param initialBackoff the backoff before the first retry, in milliseconds
+   * @param maxBackoff the longest backoff between two attempts, in milliseconds
+   * @param deadline the number of seconds after which a request is no longer retried
+   */
+  public Retry(Integer maxAttempts, Integer initialBackoff, Integer maxBackoff, Integer deadline) {
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Gets the maximum number of attempts of a request, the first one included.
+   *
+   * @return the maxAttempts
+   */
+  public Integer getMaxAttempts() {
+    return this.maxAttempts;
+  }
+
+  /**
+   * Gets the backoff before the first retry, in milliseconds. It doubles at each retry.
+   *
+   * @return the initialBackoff
+   */
+  public Integer getInitialBackoff() {
+    return this.initialBackoff;
+  }
+
+  /**
+   * Gets the longest backoff between two attempts, in milliseconds.
+   *
+   * @return the maxBackoff
+   */
+  public Integer getMaxBackoff() {
+    return this.maxBackoff;
+  }
+
+  /**
+   * Gets the number of seconds after the first attempt of a request after which it is no longer retried.
+   *
+   * @return the deadline
+   */
+  public Integer getDeadline() {
+    return this.deadline;
+  }
+
+  /**
+   * Returns a hash code value for this retry.
+   *
+   * @return the hash code
+   */
+  public int hashCode() {
+    return Objects.hash(this.maxAttempts, this.initialBackoff, this.maxBackoff, this.deadline);
+  }
+
+  /**
+   * Returns a value indicating whether this retry is equal to another object.
+   *
+   * @return {@code true} if the this retry is equal to the object; otherwise, {@code false}
+   */
+  public boolean equals(Object object) {
+    if (object instanceof Retry) {
+      Retry that = (Retry) object;
+      return Objects.equals(this.maxAttempts, that.maxAttempts)
+          && Objects.equals(this.initialBackoff, that.initialBackoff)
+          && Objects.equals(this.maxBackoff, that.maxBackoff)
+          && Objects.equals(this.deadline, that.deadline);
+    }
+    return false;
+  }
+}
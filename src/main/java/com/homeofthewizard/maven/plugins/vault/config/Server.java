@@ -46,6 +46,26 @@ public class Server implements Serializable {
 
   private Integer engineVersion;
 
+  private Integer maxConcurrency;
+
+  private Integer chunkSize;
+
+  private Transport transport;
+
+  private Integer poolSize;
+
+  private Integer idleTimeout;
+
+  private Integer openTimeout;
+
+  private Integer readTimeout;
+
+  private Retry retry;
+
+  private List<String> endpoints;
+
+  private Integer hedgePercentile;
+
   /**
    * Initializes a new instance of the {@link Server} class.
    */
@@ -158,6 +178,190 @@ public class Server implements Serializable {
     return this.engineVersion;
   }
 
+  /**
+   * Gets the maximum number of concurrent requests sent to this server, or null if only the global limit applies.
+   *
+   * @return the maxConcurrency
+   */
+  public Integer getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Sets the maximum number of concurrent requests sent to this server.
+   *
+   * @param maxConcurrency Integer
+   */
+  public void setMaxConcurrency(Integer maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Gets the maximum length of the values pushed to this server, or null if the values are never split.
+   * Longer values are stored in chunks of this length, and reassembled when they are pulled.
+   *
+   * @return the chunkSize
+   */
+  public Integer getChunkSize() {
+    return this.chunkSize;
+  }
+
+  /**
+   * Sets the maximum length of the values pushed to this server.
+   *
+   * @param chunkSize Integer
+   */
+  public void setChunkSize(Integer chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Gets how the requests to this server are sent, or null to send them with the Vault driver.
+   *
+   * @return the transport
+   */
+  public Transport getTransport() {
+    return this.transport;
+  }
+
+  /**
+   * Sets how the requests to this server are sent.
+   *
+   * @param transport Transport
+   */
+  public void setTransport(Transport transport) {
+    this.transport = transport;
+  }
+
+  /**
+   * Gets the maximum number of requests in flight to this server through the pooled transport, which bounds its
+   * HTTP/1.1 connections, or null if they are not bounded.
+   *
+   * @return the poolSize
+   */
+  public Integer getPoolSize() {
+    return this.poolSize;
+  }
+
+  /**
+   * Sets the maximum number of requests in flight to this server through the pooled transport.
+   *
+   * @param poolSize Integer
+   */
+  public void setPoolSize(Integer poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Gets the number of seconds the connections of the pooled transport are kept open without requests,
+   * or null to keep them open as long as the HTTP client does.
+   *
+   * @return the idleTimeout
+   */
+  public Integer getIdleTimeout() {
+    return this.idleTimeout;
+  }
+
+  /**
+   * Sets the number of seconds the connections of the pooled transport are kept open without requests.
+   *
+   * @param idleTimeout Integer
+   */
+  public void setIdleTimeout(Integer idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * Gets the number of seconds to wait for a connection to this server, or null for the default of 5 seconds.
+   *
+   * @return the openTimeout
+   */
+  public Integer getOpenTimeout() {
+    return this.openTimeout;
+  }
+
+  /**
+   * Sets the number of seconds to wait for a connection to this server.
+   *
+   * @param openTimeout Integer
+   */
+  public void setOpenTimeout(Integer openTimeout) {
+    this.openTimeout = openTimeout;
+  }
+
+  /**
+   * Gets the number of seconds to wait for a response of this server, or null for the default of 30 seconds.
+   *
+   * @return the readTimeout
+   */
+  public Integer getReadTimeout() {
+    return this.readTimeout;
+  }
+
+  /**
+   * Sets the number of seconds to wait for a response of this server.
+   *
+   * @param readTimeout Integer
+   */
+  public void setReadTimeout(Integer readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  /**
+   * Gets how the reads and the logins sent to this server are retried, or null to retry them with the defaults.
+   *
+   * @return the retry
+   */
+  public Retry getRetry() {
+    return this.retry;
+  }
+
+  /**
+   * Sets how the reads and the logins sent to this server are retried.
+   *
+   * @param retry Retry
+   */
+  public void setRetry(Retry retry) {
+    this.retry = retry;
+  }
+
+  /**
+   * Gets the urls of the other nodes of the cluster of this server, or null if the server is a single node.
+   *
+   * @return the endpoints
+   */
+  public List<String> getEndpoints() {
+    return this.endpoints;
+  }
+
+  /**
+   * Sets the urls of the other nodes of the cluster of this server.
+   *
+   * @param endpoints List
+   */
+  public void setEndpoints(List<String> endpoints) {
+    this.endpoints = endpoints;
+  }
+
+  /**
+   * Gets the percentile of the latencies of the reads after which a read is sent again to another node,
+   * or null to send each read once.
+   *
+   * @return the hedgePercentile
+   */
+  public Integer getHedgePercentile() {
+    return this.hedgePercentile;
+  }
+
+  /**
+   * Sets the percentile of the latencies of the reads after which a read is sent again to another node.
+   *
+   * @param hedgePercentile Integer
+   */
+  public void setHedgePercentile(Integer hedgePercentile) {
+    this.hedgePercentile = hedgePercentile;
+  }
+
   /**
    * Sets the token of this server.
    *
@@ -174,7 +378,8 @@ public class Server implements Serializable {
    */
   public int hashCode() {
     return Objects.hash(this.sslCertificate, this.sslVerify, this.token, this.url, this.paths,
-            this.skipExecution, this.engineVersion);
+            this.skipExecution, this.engineVersion, this.maxConcurrency, this.chunkSize, this.transport, this.poolSize,
+            this.idleTimeout, this.openTimeout, this.readTimeout, this.retry, this.endpoints, this.hedgePercentile);
   }
 
   /**
@@ -193,7 +398,17 @@ public class Server implements Serializable {
           && Objects.equals(this.sslCertificate, that.sslCertificate)
           && Objects.equals(this.token, that.token)
           && Objects.equals(this.url, that.url)
-          && Objects.equals(this.engineVersion, that.engineVersion);
+          && Objects.equals(this.engineVersion, that.engineVersion)
+          && Objects.equals(this.maxConcurrency, that.maxConcurrency)
+          && Objects.equals(this.chunkSize, that.chunkSize)
+          && Objects.equals(this.transport, that.transport)
+          && Objects.equals(this.poolSize, that.poolSize)
+          && Objects.equals(this.idleTimeout, that.idleTimeout)
+          && Objects.equals(this.openTimeout, that.openTimeout)
+          && Objects.equals(this.readTimeout, that.readTimeout)
+          && Objects.equals(this.retry, that.retry)
+          && Objects.equals(this.endpoints, that.endpoints)
+          && Objects.equals(this.hedgePercentile, that.hedgePercentile);
     }
     return false;
   }
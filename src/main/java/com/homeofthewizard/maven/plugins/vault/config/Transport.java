@@ -0,0 +1,16 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+/**
+ * Identifies how the requests to a Vault server are sent.
+ */
+public enum Transport {
+  /**
+   * Sends the requests with the Vault driver, one {@link java.net.HttpURLConnection} per request.
+   */
+  Driver,
+  /**
+   * Sends the requests with a pooled, keep-alive HTTP client negotiating HTTP/2, so that the concurrent requests
+   * to a server are multiplexed over a single connection, or a pool of HTTP/1.1 connections.
+   */
+  Pooled
+}
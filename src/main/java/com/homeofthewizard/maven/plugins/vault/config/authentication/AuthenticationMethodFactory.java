@@ -1,5 +1,6 @@
 package com.homeofthewizard.maven.plugins.vault.config.authentication;
 
+import com.homeofthewizard.maven.plugins.vault.client.TransportOptions;
 import com.homeofthewizard.maven.plugins.vault.client.VaultBackendProvider;
 import com.homeofthewizard.maven.plugins.vault.config.Server;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.approle.AppRoleAuthMethod;
@@ -19,7 +20,24 @@ public final class AuthenticationMethodFactory implements AuthenticationMethodPr
 
   public static final List<String> methods = List.of(GITHUB_TOKEN_TAG, APP_ROLE_TAG);
 
-  private final VaultBackendProvider vaultBackendProvider = new VaultBackendProvider();
+  private final VaultBackendProvider vaultBackendProvider;
+
+  /**
+   * Initializes a new instance of the {@link AuthenticationMethodFactory} class.
+   */
+  public AuthenticationMethodFactory() {
+    this(new VaultBackendProvider());
+  }
+
+  /**
+   * Initializes a new instance of the {@link AuthenticationMethodFactory} class, logging in with the clients
+   * of a provider shared with the reads and writes.
+   *
+   * @param vaultBackendProvider the provider of the clients
+   */
+  public AuthenticationMethodFactory(VaultBackendProvider vaultBackendProvider) {
+    this.vaultBackendProvider = vaultBackendProvider;
+  }
 
   /**
    * Factory method that helps to create the authentication config.
@@ -52,7 +70,8 @@ public final class AuthenticationMethodFactory implements AuthenticationMethodPr
             server.getNamespace(),
             server.getSslVerify(),
             server.getSslCertificate(),
-            server.getEngineVersion());
+            server.getEngineVersion(),
+            TransportOptions.of(server));
     var auth = new Auth(vaultConfig);
 
     switch (systemProperties.getAuthMethods().get(counter)) {
@@ -78,7 +97,8 @@ public final class AuthenticationMethodFactory implements AuthenticationMethodPr
             server.getNamespace(),
             server.getSslVerify(),
             server.getSslCertificate(),
-            server.getEngineVersion());
+            server.getEngineVersion(),
+            TransportOptions.of(server));
     var auth = new Auth(vaultConfig);
 
     switch (method) {
@@ -1,5 +1,6 @@
 package com.homeofthewizard.maven.plugins.vault.config.authentication;
 
+import java.util.Collections;
 import java.util.List;
 
 public class AuthenticationSysProperties {
@@ -35,6 +36,21 @@ public class AuthenticationSysProperties {
     this.secretIds = List.of();
   }
 
+  /**
+   * Gets the authentication method given on the command line for a single server, as the only one.
+   *
+   * @param index the index of the server in the configuration
+   * @return the authentication method of the server
+   */
+  public AuthenticationSysProperties of(int index) {
+    return new AuthenticationSysProperties(at(authMethods, index), at(pats, index), at(roleIds, index),
+            at(secretIds, index));
+  }
+
+  private static List<String> at(List<String> values, int index) {
+    return values != null && index < values.size() ? Collections.singletonList(values.get(index)) : List.of();
+  }
+
   public List<String> getAuthMethods() {
     return authMethods;
   }
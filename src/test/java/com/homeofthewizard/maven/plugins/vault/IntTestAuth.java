@@ -6,6 +6,7 @@ import com.homeofthewizard.maven.plugins.vault.config.authentication.github.Gith
 import io.github.jopenlibs.vault.VaultException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.homeofthewizard.maven.plugins.vault.client.ExecutionPlan;
 import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
 import com.homeofthewizard.maven.plugins.vault.config.*;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -78,6 +79,11 @@ public class IntTestAuth {
     }
 
     private final VaultMojo mojoStub = new VaultMojo() {
+        @Override
+        ExecutionPlan.Operation operation() {
+            return ExecutionPlan.Operation.PULL;
+        }
+
         @Override
         void executeVaultOperation() {
             getLog().info("execution ended successfully");
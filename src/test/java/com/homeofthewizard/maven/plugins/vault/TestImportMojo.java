@@ -0,0 +1,77 @@
+package com.homeofthewizard.maven.plugins.vault;
+
+import com.google.common.collect.ImmutableList;
+import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
+import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TestImportMojo {
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @Test
+    public void testExecuteWritesFileInBatches() throws MojoExecutionException, VaultException, IOException {
+        var file = directory.resolve("secrets.env");
+        Files.writeString(file, "a/k=1\nb/k=2\nc/k=3\n");
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+        doNothing().when(client).push(any(),any(),any());
+
+        var mojo = new ImportMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("URL", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.file = file.toFile();
+        mojo.path = "secret/";
+        mojo.batchSize = 2;
+
+        mojo.execute();
+
+        verify(client, times(2)).push(any(),any(),any());
+    }
+
+    @Test
+    public void testExecuteRejectsEntryWithoutPath() throws IOException {
+        var file = directory.resolve("secrets.env");
+        Files.writeString(file, "KEY=value\n");
+        var client = Mockito.mock(VaultClient.class);
+
+        var mojo = new ImportMojo(Mockito.mock(AuthenticationMethodProvider.class), client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("URL", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.file = file.toFile();
+        mojo.batchSize = 100;
+
+        var thrown = Assertions.assertThrows(MojoExecutionException.class, mojo::execute);
+        Assertions.assertTrue(thrown.getCause().getMessage().contains("has no path"));
+    }
+
+    @Test
+    public void testExecuteSkip() throws MojoExecutionException, VaultException {
+        var client = Mockito.mock(VaultClient.class);
+
+        var mojo = new ImportMojo(Mockito.mock(AuthenticationMethodProvider.class), client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("URL", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.skipExecution = true;
+
+        mojo.execute();
+
+        verify(client, times(0)).push(any(),any(),any());
+    }
+}
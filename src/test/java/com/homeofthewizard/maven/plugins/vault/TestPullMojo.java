@@ -22,6 +22,7 @@ import java.util.TreeMap;
 
 import static com.homeofthewizard.maven.plugins.vault.VaultTestHelper.randomPaths;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 
@@ -45,7 +46,7 @@ public class TestPullMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doNothing().when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).pull(any(),any(),any());
+        doNothing().when(client).pull(any(),any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -54,7 +55,7 @@ public class TestPullMojo {
 
         mojo.execute();
 
-        verify(client, times(0)).pull(any(),any(),any());
+        verify(client, times(0)).pull(any(),any(),any(),any());
         verify(client, times(0)).authenticateIfNecessary(any(),any(),any());
     }
 
@@ -64,7 +65,7 @@ public class TestPullMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doNothing().when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).pull(any(),any(),any());
+        doNothing().when(client).pull(any(),any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -73,16 +74,71 @@ public class TestPullMojo {
 
         mojo.execute();
 
-        verify(client, times(1)).pull(any(),any(),any());
+        verify(client, times(1)).pull(any(),any(),any(),any());
         verify(client, times(1)).authenticateIfNecessary(any(),any(),any());
     }
 
+    @Test
+    public void testExecuteLazilyInstallsLazyProperties() throws MojoExecutionException, URISyntaxException, VaultException {
+        List<Path> paths = randomPaths(10, 10);
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+        doNothing().when(client).pull(any(),any(),any(),any());
+
+        var mojo = new PullMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.project.getProperties().setProperty("existing", "value");
+        mojo.servers = ImmutableList.of(new Server(VAULT_SERVER, VAULT_TOKEN, true, new File(VAULT_CERTIFICATE.toURI()), VAULT_GITHUB_AUTH, "", paths, false, 2));
+        mojo.outputMethod = OutputMethod.LazyMavenProperties;
+
+        mojo.execute();
+
+        Assertions.assertTrue(mojo.project.getProperties() instanceof LazyProperties);
+        Assertions.assertEquals("value", mojo.project.getProperties().getProperty("existing"));
+        verify(client, times(1)).pull(any(),eq(mojo.project.getProperties()),eq(OutputMethod.LazyMavenProperties),any());
+    }
+
+    @Test
+    public void testExecuteWithPrefetch() throws MojoExecutionException, URISyntaxException, VaultException {
+        List<Path> paths = randomPaths(10, 10);
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+        doNothing().when(client).pull(any(),any(),any(),any());
+
+        var mojo = new PullMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server(VAULT_SERVER, VAULT_TOKEN, true, new File(VAULT_CERTIFICATE.toURI()), VAULT_GITHUB_AUTH, "", paths, false, 2));
+        mojo.prefetch = true;
+
+        mojo.execute();
+
+        var inOrder = inOrder(client);
+        inOrder.verify(client).prefetch(any(), any());
+        inOrder.verify(client).authenticateIfNecessary(any(),any(),any());
+        inOrder.verify(client).pull(any(),any(),any(),any());
+    }
+
+    @Test
+    public void testExecuteInvalidConfigurationSendsNoRequest() throws URISyntaxException {
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+
+        var mojo = new PullMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server(VAULT_SERVER, null, true, new File(VAULT_CERTIFICATE.toURI()), null, "", randomPaths(1, 1), false, 2));
+
+        var ex = Assertions.assertThrows(MojoExecutionException.class, mojo::execute);
+
+        Assertions.assertTrue(ex.getCause().getMessage().contains("has neither a token nor an authentication method"));
+        verifyNoInteractions(client);
+    }
+
     @Test
     public void testPull() throws MojoExecutionException, URISyntaxException, VaultException {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doNothing().when(client).pull(any(),any(),any());
+        doNothing().when(client).pull(any(),any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -91,7 +147,7 @@ public class TestPullMojo {
 
         mojo.executeVaultOperation();
 
-        verify(client, times(1)).pull(any(),any(),any());
+        verify(client, times(1)).pull(any(),any(),any(),any());
     }
 
     @Test
@@ -99,7 +155,7 @@ public class TestPullMojo {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -108,7 +164,7 @@ public class TestPullMojo {
 
         mojo.executeVaultOperation();
 
-        verify(client, times(0)).pull(any(),any(),any());
+        verify(client, times(0)).pull(any(),any(),any(),any());
     }
 
     @Test
@@ -117,7 +173,7 @@ public class TestPullMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doThrow(VaultException.class).when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).pull(any(),any(),any());
+        doNothing().when(client).pull(any(),any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -126,7 +182,7 @@ public class TestPullMojo {
 
         Assertions.assertThrows(MojoExecutionException.class, ()-> mojo.execute());
         verify(client, times(1)).authenticateIfNecessary(any(),any(),any());
-        verify(client, times(0)).pull(any(),any(),any());
+        verify(client, times(0)).pull(any(),any(),any(),any());
     }
 
     @Test
@@ -134,7 +190,7 @@ public class TestPullMojo {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doThrow(VaultException.class).when(client).pull(any(),any(),any());
+        doThrow(VaultException.class).when(client).pull(any(),any(),any(),any());
 
         var mojo = new PullMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -7,13 +7,19 @@ import static org.mockito.Mockito.*;
 import io.github.jopenlibs.vault.VaultException;
 import com.google.common.collect.ImmutableList;
 import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.client.WriteBehindQueue;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodFactory;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
 import com.homeofthewizard.maven.plugins.vault.config.Path;
 import com.homeofthewizard.maven.plugins.vault.config.Server;
 import com.homeofthewizard.maven.plugins.vault.config.authentication.github.GithubToken;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -45,7 +51,7 @@ public class TestPushMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doNothing().when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -54,7 +60,7 @@ public class TestPushMojo {
 
         mojo.execute();
 
-        verify(client, times(0)).push(any(),any());
+        verify(client, times(0)).push(any(),any(),any());
         verify(client, times(0)).authenticateIfNecessary(any(),any(),any());
     }
 
@@ -64,7 +70,7 @@ public class TestPushMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doNothing().when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -73,7 +79,7 @@ public class TestPushMojo {
 
         mojo.execute();
 
-        verify(client, times(1)).push(any(),any());
+        verify(client, times(1)).push(any(),any(),any());
         verify(client, times(1)).authenticateIfNecessary(any(),any(),any());
     }
 
@@ -82,7 +88,7 @@ public class TestPushMojo {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -91,7 +97,7 @@ public class TestPushMojo {
 
         mojo.executeVaultOperation();
 
-        verify(client, times(1)).push(any(),any());
+        verify(client, times(1)).push(any(),any(),any());
     }
 
     @Test
@@ -99,7 +105,7 @@ public class TestPushMojo {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -108,7 +114,7 @@ public class TestPushMojo {
 
         mojo.executeVaultOperation();
 
-        verify(client, times(0)).push(any(),any());
+        verify(client, times(0)).push(any(),any(),any());
     }
 
     @Test
@@ -117,7 +123,7 @@ public class TestPushMojo {
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
         doThrow(VaultException.class).when(client).authenticateIfNecessary(any(),any(),any());
-        doNothing().when(client).push(any(),any());
+        doNothing().when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -126,7 +132,7 @@ public class TestPushMojo {
 
         Assertions.assertThrows(MojoExecutionException.class, mojo::execute);
         verify(client, times(1)).authenticateIfNecessary(any(),any(),any());
-        verify(client, times(0)).push(any(),any());
+        verify(client, times(0)).push(any(),any(),any());
     }
 
 
@@ -135,7 +141,7 @@ public class TestPushMojo {
         List<Path> paths = randomPaths(10, 10);
         var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
         var client = Mockito.mock(VaultClient.class);
-        doThrow(VaultException.class).when(client).push(any(),any());
+        doThrow(VaultException.class).when(client).push(any(),any(),any());
 
         var mojo = new PushMojo(authenticationMethodProvider, client);
         mojo.project = new MavenProject();
@@ -146,4 +152,86 @@ public class TestPushMojo {
                 mojo::executeVaultOperation);
         Assertions.assertTrue(ex.getMessage().contains("Exception thrown pushing secrets."));
     }
+
+    @Test
+    public void testExecuteWriteBehindQueuesInsteadOfPushing() throws MojoExecutionException, URISyntaxException, VaultException {
+        List<Path> paths = randomPaths(2, 1);
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+        var session = Mockito.mock(MavenSession.class);
+        var repositorySession = new DefaultRepositorySystemSession();
+        when(session.getRepositorySession()).thenReturn(repositorySession);
+        new WriteBehindLifecycleParticipant().afterProjectsRead(session);
+
+        var mojo = new PushMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.project.getProperties().putAll(VaultTestHelper.propertiesFromPaths(paths));
+        mojo.session = session;
+        mojo.servers = ImmutableList.of(new Server(VAULT_SERVER, VAULT_TOKEN, true, new File(VAULT_CERTIFICATE.toURI()), VAULT_GITHUB_AUTH, "", paths, false, 2));
+        mojo.writeBehind = true;
+
+        mojo.execute();
+
+        verify(client, times(0)).push(any(),any(),any());
+        Assertions.assertEquals(2, ((WriteBehindQueue) repositorySession.getData().get(WriteBehindQueue.class)).size());
+    }
+
+    @Test
+    public void testExecuteWriteBehindWithoutExtensionPushesNow() throws MojoExecutionException, URISyntaxException, VaultException {
+        List<Path> paths = randomPaths(2, 1);
+        var authenticationMethodProvider = Mockito.mock(AuthenticationMethodProvider.class);
+        var client = Mockito.mock(VaultClient.class);
+
+        var mojo = new PushMojo(authenticationMethodProvider, client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server(VAULT_SERVER, VAULT_TOKEN, true, new File(VAULT_CERTIFICATE.toURI()), VAULT_GITHUB_AUTH, "", paths, false, 2));
+        mojo.writeBehind = true;
+
+        mojo.execute();
+
+        verify(client, times(1)).push(any(),any(),any());
+    }
+
+    @Test
+    public void testJournalFileIsKeyedByExecution() {
+        var mojo = new PushMojo(Mockito.mock(AuthenticationMethodProvider.class), Mockito.mock(VaultClient.class));
+        mojo.journalFile = new File("target", "vault-push.journal");
+
+        var withoutExecution = mojo.journalFile();
+        mojo.mojoExecution = new MojoExecution(null, "release");
+
+        Assertions.assertEquals(new File("target", "vault-push.journal").toPath(), withoutExecution);
+        Assertions.assertEquals(new File("target", "vault-push-release.journal").toPath(), mojo.journalFile());
+    }
+
+    @Test
+    public void testSessionEndFlushesQueue() throws VaultException, MavenExecutionException {
+        var session = Mockito.mock(MavenSession.class);
+        var repositorySession = new DefaultRepositorySystemSession();
+        var queue = Mockito.mock(WriteBehindQueue.class);
+        repositorySession.getData().set(WriteBehindQueue.class, queue);
+        when(session.getRepositorySession()).thenReturn(repositorySession);
+        when(session.getResult()).thenReturn(new DefaultMavenExecutionResult());
+        when(queue.size()).thenReturn(3);
+
+        new WriteBehindLifecycleParticipant().afterSessionEnd(session);
+
+        verify(queue, times(1)).flush();
+    }
+
+    @Test
+    public void testSessionEndOfFailedBuildPublishesNothing() throws VaultException, MavenExecutionException {
+        var session = Mockito.mock(MavenSession.class);
+        var repositorySession = new DefaultRepositorySystemSession();
+        var queue = Mockito.mock(WriteBehindQueue.class);
+        repositorySession.getData().set(WriteBehindQueue.class, queue);
+        when(session.getRepositorySession()).thenReturn(repositorySession);
+        when(session.getResult()).thenReturn(new DefaultMavenExecutionResult().addException(new IllegalStateException("failed")));
+        when(queue.size()).thenReturn(3);
+
+        new WriteBehindLifecycleParticipant().afterSessionEnd(session);
+
+        verify(queue, times(0)).flush();
+        verify(queue, times(1)).clear();
+    }
 }
@@ -0,0 +1,80 @@
+package com.homeofthewizard.maven.plugins.vault;
+
+import com.google.common.collect.ImmutableList;
+import com.homeofthewizard.maven.plugins.vault.client.SyncReport;
+import com.homeofthewizard.maven.plugins.vault.client.VaultClient;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
+import io.github.jopenlibs.vault.VaultException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestSyncMojo {
+
+    @Test
+    public void testExecuteSynchronizesServersWithSource() throws MojoExecutionException, VaultException {
+        var client = Mockito.mock(VaultClient.class);
+        var report = Mockito.mock(SyncReport.class);
+        when(client.sync(any(), any(), any(), anyBoolean())).thenReturn(report);
+        var source = new Server("SOURCE", "TOKEN", false, null, null, "", List.of(new Path("secret/app/**", null)),
+                false, 2);
+
+        var mojo = new SyncMojo(Mockito.mock(AuthenticationMethodProvider.class), client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("TARGET", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.source = source;
+
+        mojo.execute();
+
+        verify(client).sync(eq(source), any(), any(), eq(false));
+    }
+
+    @Test
+    public void testExecuteFailsOnDrift() throws VaultException {
+        var client = Mockito.mock(VaultClient.class);
+        var report = Mockito.mock(SyncReport.class);
+        when(report.getDrift()).thenReturn(3);
+        when(client.sync(any(), any(), any(), anyBoolean())).thenReturn(report);
+
+        var mojo = new SyncMojo(Mockito.mock(AuthenticationMethodProvider.class), client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("TARGET", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.source = new Server("SOURCE", "TOKEN", false, null, null, "", List.of(new Path("secret/app", null)),
+                false, 2);
+        mojo.dryRun = true;
+        mojo.failOnDrift = true;
+
+        var thrown = Assertions.assertThrows(MojoExecutionException.class, mojo::execute);
+
+        Assertions.assertTrue(thrown.getMessage().contains("3 paths"));
+        verify(client).sync(any(), any(), any(), eq(true));
+    }
+
+    @Test
+    public void testExecuteRejectsSourceWithoutPaths() throws VaultException {
+        var client = Mockito.mock(VaultClient.class);
+
+        var mojo = new SyncMojo(Mockito.mock(AuthenticationMethodProvider.class), client);
+        mojo.project = new MavenProject();
+        mojo.servers = ImmutableList.of(new Server("TARGET", "TOKEN", false, null, null, "", null, false, 2));
+        mojo.source = new Server("SOURCE", "TOKEN", false, null, null, "", null, false, 2);
+
+        var thrown = Assertions.assertThrows(MojoExecutionException.class, mojo::execute);
+
+        Assertions.assertTrue(thrown.getMessage().contains("no paths"));
+        verify(client, never()).sync(any(), any(), any(), anyBoolean());
+    }
+}
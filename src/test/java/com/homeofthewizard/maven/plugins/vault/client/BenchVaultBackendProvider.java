@@ -0,0 +1,81 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.Vault;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.homeofthewizard.maven.plugins.vault.client.TransportOptions.DRIVER;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the cost of getting the client of a server per call, configured each time by a new provider, then
+ * reused from the clients cached by server identity and token, with the token of the configuration and the token
+ * got by a login in turn. It is not part of the test phase, as surefire only runs the {@code Test*} classes: run it
+ * with {@code mvn test -Dtest=BenchVaultBackendProvider}. The measures are reported by the assertion messages.
+ */
+public class BenchVaultBackendProvider {
+
+    private static final String URL = "https://vault.example.com:8200";
+
+    private static final int WARM_UP = 20_000;
+
+    private static final int CALLS = 200_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void benchmarkClientPerCall() throws IOException, VaultException {
+        File certificate = certificate();
+        var cached = new VaultBackendProvider();
+        ClientCall perCall = index -> new VaultBackendProvider().vault(URL, "TOKEN", "team", true, certificate, 2,
+                DRIVER);
+        ClientCall perToken = index -> cached.vault(URL, index % 2 == 0 ? "TOKEN" : "LOGGED_IN", "team", true,
+                certificate, 2, DRIVER);
+
+        measure(perCall, WARM_UP);
+        measure(perToken, WARM_UP);
+        long configured = measure(perCall, CALLS);
+        long reused = measure(perToken, CALLS);
+
+        assertTrue(2 * reused < configured, String.format(
+                "Getting a client took %d ns per call configured per call, and %d ns reused", configured, reused));
+        assertSame(perToken.get(0), perToken.get(2));
+        assertSame(perToken.get(1), perToken.get(3));
+        assertNotSame(perToken.get(0), perToken.get(1));
+    }
+
+    private File certificate() throws IOException {
+        var file = directory.resolve("certificate.pem");
+        try (InputStream pem = BenchVaultBackendProvider.class
+                .getResourceAsStream("/com/homeofthewizard/maven/plugins/vault/certificate.pem")) {
+            Files.copy(pem, file);
+        }
+        return file.toFile();
+    }
+
+    private static long measure(ClientCall call, int calls) throws VaultException {
+        long start = System.nanoTime();
+        Vault last = null;
+        for (int i = 0; i < calls; i++) {
+            last = call.get(i);
+        }
+        assertNotNull(last);
+        return (System.nanoTime() - start) / calls;
+    }
+
+    @FunctionalInterface
+    private interface ClientCall {
+        Vault get(int index) throws VaultException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.OutputMethod;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationMethodProvider;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Records the secrets each push would write, by path, and the endpoints they would be written to.
+ */
+class RecordingVaultClient implements VaultClient {
+
+    private final List<Map<String, Map<String, String>>> pushes = new ArrayList<>();
+
+    private final List<Integer> endpoints = new ArrayList<>();
+
+    List<Map<String, Map<String, String>>> getPushes() {
+        return pushes;
+    }
+
+    List<Integer> getEndpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public void pull(ExecutionPlan plan, Properties properties, OutputMethod outputMethod, ExecutionOptions options) { }
+
+    @Override
+    public void prefetch(ExecutionPlan plan, ExecutionOptions options) { }
+
+    @Override
+    public void push(ExecutionPlan plan, Properties properties, ExecutionOptions options) {
+        Map<String, Map<String, String>> secrets = new LinkedHashMap<>();
+        for (PlannedPath path : plan.paths()) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (Mapping mapping : path.getMappings()) {
+                values.put(mapping.getKey(), properties.getProperty(mapping.getProperty()));
+            }
+            secrets.put(path.getName(), values);
+        }
+        pushes.add(secrets);
+        endpoints.add(plan.endpoints().size());
+    }
+
+    @Override
+    public SyncReport sync(Server source, ExecutionPlan targets, ExecutionOptions options, boolean dryRun) {
+        return new SyncReport(0, dryRun);
+    }
+
+    @Override
+    public void authenticateIfNecessary(List<Server> servers, AuthenticationSysProperties authSystemProps,
+                                        AuthenticationMethodProvider authenticationMethodProvider) { }
+}
@@ -0,0 +1,293 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBoundedExecutor {
+
+    @Test
+    public void testResultsKeepTaskOrder() throws VaultException {
+        List<Callable<Integer>> tasks = IntStream.range(0, 50)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    Thread.sleep(50 - i);
+                    return i;
+                })
+                .collect(Collectors.toList());
+
+        try (var executor = new BoundedExecutor(8, "test")) {
+            var results = executor.invokeAll(tasks);
+
+            assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toList()), results);
+        }
+    }
+
+    @Test
+    public void testSequentialRunsOnCallingThread() throws VaultException {
+        var caller = Thread.currentThread();
+        List<Callable<Thread>> tasks = List.of(Thread::currentThread, Thread::currentThread);
+
+        try (var executor = new BoundedExecutor(1, "test")) {
+            var results = executor.invokeAll(tasks);
+
+            assertSame(caller, results.get(0));
+            assertSame(caller, results.get(1));
+        }
+    }
+
+    @Test
+    public void testGlobalParallelismLimit() throws VaultException {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(() -> track(running, maxRunning));
+        }
+
+        try (var executor = new BoundedExecutor(4, "test")) {
+            executor.invokeAll(tasks);
+        }
+
+        assertTrue(maxRunning.get() <= 4);
+        assertTrue(maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testServerLimit() throws VaultException {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        Semaphore serverPermits = BoundedExecutor.serverPermits(2);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(BoundedExecutor.limited(serverPermits, () -> track(running, maxRunning)));
+        }
+
+        try (var executor = new BoundedExecutor(16, "test")) {
+            executor.invokeAll(tasks);
+        }
+
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testNoServerLimit() {
+        assertNull(BoundedExecutor.serverPermits(null));
+        assertNull(BoundedExecutor.serverPermits(0));
+    }
+
+    @Test
+    public void testFirstFailureCancelsTheRest() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        List<Callable<Integer>> tasks = List.of(
+                () -> {
+                    started.await();
+                    throw new VaultException("boom");
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return 1;
+                });
+
+        try (var executor = new BoundedExecutor(2, "test")) {
+            var thrown = assertThrows(VaultException.class, () -> executor.invokeAll(tasks));
+
+            assertEquals("boom", thrown.getMessage());
+        }
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUncheckedFailureIsRethrown() {
+        List<Callable<Integer>> tasks = List.of(() -> {
+            throw new IllegalStateException("unchecked");
+        });
+
+        try (var executor = new BoundedExecutor(2, "test")) {
+            assertThrows(IllegalStateException.class, () -> executor.invokeAll(tasks));
+        }
+    }
+
+    @Test
+    public void testStreamKeepsTaskOrder() throws VaultException {
+        List<Callable<Integer>> tasks = IntStream.range(0, 50)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    Thread.sleep(50 - i);
+                    return i;
+                })
+                .collect(Collectors.toList());
+        List<Integer> results = new ArrayList<>();
+
+        try (var executor = new BoundedExecutor(8, "test")) {
+            executor.forEachInOrder(tasks, (index, result) -> {
+                assertEquals(index, result.intValue());
+                results.add(result);
+            });
+        }
+
+        assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void testStreamHoldsBoundedResultsAt10kPaths() throws VaultException {
+        var outstanding = new AtomicInteger();
+        var maxOutstanding = new AtomicInteger();
+        List<Callable<byte[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(() -> {
+                maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                return new byte[16 * 1024];
+            });
+        }
+        var consumed = new AtomicInteger();
+
+        try (var executor = new BoundedExecutor(8, "test")) {
+            executor.forEachInOrder(tasks, (index, result) -> {
+                outstanding.decrementAndGet();
+                consumed.incrementAndGet();
+            });
+        }
+
+        assertEquals(10_000, consumed.get());
+        assertTrue(maxOutstanding.get() <= 16, "at most twice the parallelism of results are held");
+    }
+
+    @Test
+    public void testStreamSinkFailureCancelsTheRest() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        List<Callable<Integer>> tasks = List.of(
+                () -> 0,
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return 1;
+                });
+
+        try (var executor = new BoundedExecutor(2, "test")) {
+            assertThrows(IllegalStateException.class, () -> executor.forEachInOrder(tasks, (index, result) -> {
+                try {
+                    started.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("sink");
+            }));
+        }
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    private static int track(AtomicInteger running, AtomicInteger maxRunning) throws InterruptedException {
+        var current = running.incrementAndGet();
+        maxRunning.accumulateAndGet(current, Math::max);
+        Thread.sleep(10);
+        running.decrementAndGet();
+        return current;
+    }
+
+    @Test
+    public void testSettledRunsAllTasksDespiteFailures() throws Exception {
+        var completed = new AtomicInteger();
+        List<Callable<Integer>> tasks = IntStream.range(0, 20)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    if (i % 5 == 0) {
+                        throw new VaultException("failed " + i);
+                    }
+                    Thread.sleep(10);
+                    completed.incrementAndGet();
+                    return i;
+                })
+                .collect(Collectors.toList());
+
+        try (var executor = new BoundedExecutor(4, "test")) {
+            var futures = executor.invokeAllSettled(tasks);
+
+            assertEquals(16, completed.get());
+            assertEquals(20, futures.size());
+            assertEquals(Integer.valueOf(1), futures.get(1).get());
+            var thrown = assertThrows(ExecutionException.class, () -> futures.get(5).get());
+            assertEquals("failed 5", thrown.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testSettledSequentialRunsAllTasksDespiteFailures() throws Exception {
+        List<Callable<Integer>> tasks = List.of(
+                () -> { throw new IllegalStateException("first"); },
+                () -> 2);
+
+        try (var executor = new BoundedExecutor(1, "test")) {
+            var futures = executor.invokeAllSettled(tasks);
+
+            assertThrows(ExecutionException.class, () -> futures.get(0).get());
+            assertEquals(Integer.valueOf(2), futures.get(1).get());
+        }
+    }
+
+    @Test
+    public void testNestedTasksShareThePermitsOfTheirExecutor() throws VaultException {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        Semaphore serverPermits = BoundedExecutor.serverPermits(3);
+
+        try (var executor = new BoundedExecutor(4, "test")) {
+            List<Callable<List<Integer>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                tasks.add(BoundedExecutor.limited(serverPermits, () -> executor.invokeAllSharing(serverPermits,
+                        IntStream.range(0, 10)
+                                .mapToObj(n -> (Callable<Integer>) () -> {
+                                    track(running, maxRunning);
+                                    return n;
+                                })
+                                .collect(Collectors.toList()))));
+            }
+            var results = executor.invokeAll(tasks);
+
+            for (List<Integer> result : results) {
+                assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), result);
+            }
+        }
+
+        assertTrue(maxRunning.get() <= 3);
+        assertEquals(3, serverPermits.availablePermits());
+    }
+
+    @Test
+    public void testSharingRunsOnCallingThreadOnceExecutorIsShutDown() throws VaultException {
+        var caller = Thread.currentThread();
+        var executor = BoundedExecutor.newExecutor(2, "test");
+        executor.shutdown();
+        var permits = new Semaphore(2);
+
+        var results = BoundedExecutor.invokeAllSharing(executor, permits, null,
+                List.<Callable<Thread>>of(Thread::currentThread, Thread::currentThread));
+
+        assertEquals(List.of(caller, caller), results);
+        assertEquals(2, permits.availablePermits());
+    }
+}
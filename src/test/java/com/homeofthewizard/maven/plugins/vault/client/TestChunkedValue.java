@@ -0,0 +1,92 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestChunkedValue {
+
+    @Test
+    public void testSplitAndJoin() throws VaultException {
+        var value = "abcdefghij".repeat(100) + "k";
+
+        var chunks = ChunkedValue.split(value, 64);
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest(value, chunks.size()));
+
+        assertEquals(16, chunks.size());
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.length() <= 64));
+        assertEquals(16, chunked.getCount());
+        assertEquals(value, chunked.join(chunks));
+    }
+
+    @Test
+    public void testSplitKeepsSurrogatePairs() throws VaultException {
+        var value = "a\ud83d\udd11b\ud83d\udd11c";
+
+        var chunks = ChunkedValue.split(value, 2);
+
+        for (String chunk : chunks) {
+            assertTrue(!Character.isHighSurrogate(chunk.charAt(chunk.length() - 1)));
+        }
+        assertEquals(value, ChunkedValue.parse(ChunkedValue.manifest(value, chunks.size())).join(chunks));
+    }
+
+    @Test
+    public void testSplitCountsUtf8Bytes() throws VaultException {
+        var value = "\u00e9t\u00e9 \u20ac\ud83d\udd11".repeat(20);
+
+        var chunks = ChunkedValue.split(value, 10);
+
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.getBytes(StandardCharsets.UTF_8).length <= 10));
+        assertTrue(ChunkedValue.exceeds(value, value.length()));
+        assertFalse(ChunkedValue.exceeds(value, value.getBytes(StandardCharsets.UTF_8).length));
+        assertEquals(value, ChunkedValue.parse(ChunkedValue.manifest(value, chunks.size())).join(chunks));
+    }
+
+    @Test
+    public void testJoinVerifiesChecksum() {
+        var value = "0123456789";
+        var chunks = new ArrayList<>(ChunkedValue.split(value, 4));
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest(value, chunks.size()));
+        chunks.set(1, "4X67");
+
+        assertThrows(VaultException.class, () -> chunked.join(chunks));
+    }
+
+    @Test
+    public void testJoinReportsMissingChunk() {
+        var value = "0123456789";
+        var chunks = new ArrayList<>(ChunkedValue.split(value, 4));
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest(value, chunks.size()));
+        chunks.set(2, null);
+
+        var thrown = assertThrows(VaultException.class, () -> chunked.join(chunks));
+
+        assertTrue(thrown.getMessage().contains("Chunk 2 of 3 is missing"));
+    }
+
+    @Test
+    public void testParseIgnoresOtherValues() {
+        assertNull(ChunkedValue.parse("password"));
+        assertNull(ChunkedValue.parse(null));
+        assertNull(ChunkedValue.parse("vault-chunks:v1:x:1:abc"));
+    }
+
+    @Test
+    public void testChunkPathsAreKeyedByChecksum() {
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest("value", 1));
+
+        assertEquals("secret/app.chunks/keystore/" + chunked.getChecksum() + "/0",
+                chunked.chunkPath("secret/app", "keystore", 0));
+        assertEquals(List.of("value"), ChunkedValue.split("value", 10));
+    }
+}
@@ -0,0 +1,106 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestCluster {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+
+    private final AtomicInteger checks = new AtomicInteger();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Cluster cluster(String... urls) {
+        return new Cluster(List.of(urls), url -> {
+            checks.incrementAndGet();
+            if (url.equals("slow")) {
+                sleep(200);
+            } else if (url.equals("hanging")) {
+                sleep(10_000);
+            } else if (url.equals("active")) {
+                sleep(50);
+            }
+            Integer status = statuses.get(url);
+            if (status == null) {
+                throw new VaultException(new IOException("unreachable"));
+            }
+            return status;
+        }, Duration.ofSeconds(1), executor);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testRoutesWritesToActiveNodeAndReadsToFastestNodes() {
+        statuses.put("active", 200);
+        statuses.put("standby", 429);
+        statuses.put("slow", 473);
+        statuses.put("sealed", 503);
+        var cluster = cluster("sealed", "slow", "active", "standby", "down");
+
+        assertEquals("active", cluster.active());
+        assertEquals(List.of("standby", "active", "slow"), cluster.readers());
+    }
+
+    @Test
+    public void testNodesNotAnsweringInTimeAreDown() {
+        statuses.put("active", 200);
+        statuses.put("hanging", 429);
+        var cluster = cluster("hanging", "active");
+
+        assertEquals(List.of("active"), cluster.readers());
+    }
+
+    @Test
+    public void testFallsBackToConfiguredNodesWhenNoneIsHealthy() {
+        statuses.put("first", 503);
+        var cluster = cluster("first", "second");
+
+        assertEquals("first", cluster.active());
+        assertEquals(List.of("first", "second"), cluster.readers());
+    }
+
+    @Test
+    public void testChecksAgainOnlyAfterFailure() {
+        statuses.put("active", 200);
+        statuses.put("standby", 429);
+        var cluster = cluster("active", "standby");
+
+        assertEquals("active", cluster.active());
+        assertEquals("active", cluster.active());
+        assertEquals(2, checks.get());
+
+        statuses.put("active", 429);
+        statuses.put("standby", 200);
+        cluster.failed("unknown");
+        assertEquals("active", cluster.active());
+        cluster.failed("active");
+
+        assertEquals("standby", cluster.active());
+        assertEquals(4, checks.get());
+    }
+}
@@ -0,0 +1,253 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestDiskSecretCache {
+
+    private static final Endpoint ENDPOINT =
+            Endpoint.of(new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(), false, 2));
+    private static final SecretLocation LOCATION = new SecretLocation(ENDPOINT, "secret/a");
+    private static final Map<String, String> SECRETS = Map.of("password", "s3cr3t-value");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTrip() {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+
+        cache.put(LOCATION, SECRETS, 0L);
+
+        assertEquals(SECRETS, cache.get(LOCATION));
+        assertNull(cache.get(new SecretLocation(ENDPOINT, "secret/b")));
+    }
+
+    @Test
+    public void testEntriesAreEncrypted() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+
+        cache.put(LOCATION, SECRETS, 0L);
+
+        for (Path file : entries()) {
+            var content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            assertFalse(content.contains("s3cr3t-value"));
+            assertFalse(content.contains("password"));
+        }
+        assertEquals(1, entries().size());
+    }
+
+    @Test
+    public void testNoKeyIsStoredAndEntriesAreReadableByOwnerOnly() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+
+        cache.put(LOCATION, SECRETS, 0L);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(entries(), files.collect(Collectors.toList()));
+        }
+        var entry = entries().get(0);
+        if (entry.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(entry));
+        }
+    }
+
+    @Test
+    public void testEntriesAreScopedByToken() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+        cache.put(LOCATION, SECRETS, 0L);
+        var server = new Server("URL", "OTHER", false, null, null, "NAMESPACE", List.of(), false, 2);
+        var other = new SecretLocation(Endpoint.of(server), "secret/a");
+        var file = entries().get(0);
+
+        var secrets = cache.get(other);
+        cache.put(other, Map.of("password", "other"), 0L);
+        Files.copy(file, directory.resolve("copy"));
+        Files.move(directory.resolve("copy"), entries().stream().filter(entry -> !entry.equals(file))
+                .findFirst().orElseThrow(), StandardCopyOption.REPLACE_EXISTING);
+
+        assertNull(secrets);
+        assertEquals(SECRETS, cache.get(LOCATION));
+        assertNull(cache.get(other));
+    }
+
+    @Test
+    public void testNothingIsStoredWithoutToken() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+        var server = new Server("URL", null, false, null, null, "NAMESPACE", List.of(), false, 2);
+        var location = new SecretLocation(Endpoint.of(server), "secret/a");
+
+        cache.put(location, SECRETS, 0L);
+
+        assertNull(cache.get(location));
+        assertTrue(entries().isEmpty());
+    }
+
+    @Test
+    public void testEntryExpiresWithLease() {
+        var clock = new MutableClock();
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5), clock);
+
+        cache.put(LOCATION, SECRETS, 3600L);
+        clock.advance(Duration.ofMinutes(59));
+        var beforeExpiry = cache.get(LOCATION);
+        clock.advance(Duration.ofMinutes(2));
+        var afterExpiry = cache.get(LOCATION);
+
+        assertEquals(SECRETS, beforeExpiry);
+        assertNull(afterExpiry);
+    }
+
+    @Test
+    public void testEntryExpiresWithDefaultTtlWithoutLease() {
+        var clock = new MutableClock();
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5), clock);
+
+        cache.put(LOCATION, SECRETS, 0L);
+        clock.advance(Duration.ofMinutes(6));
+
+        assertNull(cache.get(LOCATION));
+    }
+
+    @Test
+    public void testNothingIsStoredWithoutLeaseNorDefaultTtl() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ZERO);
+
+        cache.put(LOCATION, SECRETS, null);
+
+        assertNull(cache.get(LOCATION));
+        assertTrue(entries().isEmpty());
+    }
+
+    @Test
+    public void testVersionedEntryOutlivesItsExpiry() {
+        var clock = new MutableClock();
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ZERO, clock);
+
+        cache.put(LOCATION, SECRETS, 0L, 7L);
+        clock.advance(Duration.ofDays(1));
+        var entry = cache.lookup(LOCATION);
+
+        assertNull(cache.get(LOCATION));
+        assertEquals(SECRETS, entry.getSecrets());
+        assertEquals(Long.valueOf(7), entry.getVersion());
+    }
+
+    @Test
+    public void testUnversionedEntryHasNoVersion() {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+
+        cache.put(LOCATION, SECRETS, 0L);
+
+        assertNull(cache.lookup(LOCATION).getVersion());
+    }
+
+    @Test
+    public void testTamperedEntryIsAMiss() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+        cache.put(LOCATION, SECRETS, 0L);
+        var file = entries().get(0);
+        var content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+
+        assertNull(cache.get(LOCATION));
+        assertTrue(entries().isEmpty());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        var clock = new MutableClock();
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5), clock);
+        cache.put(LOCATION, SECRETS, 0L);
+        long entrySize = Files.size(entries().get(0));
+        var bounded = new DiskSecretCache(directory, entrySize * 2, Duration.ofMinutes(5), clock);
+        var second = new SecretLocation(ENDPOINT, "secret/b");
+        var third = new SecretLocation(ENDPOINT, "secret/c");
+
+        Files.setLastModifiedTime(entries().get(0), java.nio.file.attribute.FileTime.fromMillis(0));
+        bounded.put(second, SECRETS, 0L);
+        bounded.put(third, SECRETS, 0L);
+
+        assertEquals(2, entries().size());
+        assertNull(bounded.get(LOCATION));
+        assertEquals(SECRETS, bounded.get(second));
+        assertEquals(SECRETS, bounded.get(third));
+    }
+
+    @Test
+    public void testInvalidateAndClear() throws IOException {
+        var cache = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5));
+        var second = new SecretLocation(ENDPOINT, "secret/b");
+        cache.put(LOCATION, SECRETS, 0L);
+        cache.put(second, SECRETS, 0L);
+
+        cache.invalidate(LOCATION);
+        var afterInvalidate = cache.get(LOCATION);
+        cache.clear();
+
+        assertNull(afterInvalidate);
+        assertNull(cache.get(second));
+        assertTrue(entries().isEmpty());
+    }
+
+    @Test
+    public void testEntriesSurviveANewInstance() {
+        new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5)).put(LOCATION, SECRETS, 0L);
+
+        var secrets = new DiskSecretCache(directory, 1024 * 1024, Duration.ofMinutes(5)).get(LOCATION);
+
+        assertEquals(SECRETS, secrets);
+    }
+
+    private List<Path> entries() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".secret")).collect(Collectors.toList());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import com.homeofthewizard.maven.plugins.vault.config.authentication.AuthenticationSysProperties;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.homeofthewizard.maven.plugins.vault.VaultTestHelper.randomMappings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestExecutionPlan {
+
+    @Test
+    public void testSamePathOfOneServerIsReadOnce() throws VaultException {
+        List<Mapping> first = randomMappings(2);
+        List<Mapping> second = randomMappings(3);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", first), new Path("secret/a", second)), false, 2);
+
+        var plan = plan(List.of(server));
+
+        assertEquals(1, plan.paths().size());
+        var path = plan.paths().get(0);
+        assertEquals("secret/a", path.getName());
+        assertEquals(List.of(first.get(0), first.get(1), second.get(0), second.get(1), second.get(2)),
+                path.getMappings());
+    }
+
+    @Test
+    public void testServersSharingUrlNamespaceAndCredentialsAreOneEndpoint() throws VaultException {
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1)), new Path("secret/b", randomMappings(1))), false, 2);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/b", randomMappings(1)), new Path("secret/c", randomMappings(1))), false, 2);
+
+        var plan = plan(List.of(first, second));
+
+        assertEquals(1, plan.endpoints().size());
+        assertSame(first, plan.endpoints().iterator().next().getServer());
+        assertEquals(List.of("secret/a", "secret/b", "secret/c"), names(plan.paths()));
+        assertEquals(2, plan.paths().get(1).getMappings().size());
+    }
+
+    @Test
+    public void testServersWithOtherCredentialsOrSslSettingsAreOtherEndpoints() throws VaultException {
+        var first = new Server("URL", "TOKEN", true, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var otherToken = new Server("URL", "OTHER", true, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var notVerified = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var withoutCredentials = new Server("URL", null, true, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var alsoWithoutCredentials = new Server("URL", null, true, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+
+        var plan = plan(List.of(first, otherToken, notVerified, withoutCredentials, alsoWithoutCredentials));
+
+        assertEquals(5, plan.endpoints().size());
+        assertEquals(5, plan.paths().size());
+    }
+
+    @Test
+    public void testSubtreesAreExpandedIntoSharedLeaves() throws VaultException {
+        var subtree = new Path("secret/teams/**", null);
+        var mappings = randomMappings(1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(subtree, new Path("secret/teams/a", mappings)), false, 2);
+
+        var compiled = plan(List.of(server));
+        var endpoint = compiled.endpoints().iterator().next();
+        var plan = compiled.expand(endpoint, subtree, List.of("secret/teams/a", "secret/teams/b/c"));
+
+        assertEquals(List.of(subtree), plan.subtrees(endpoint));
+        assertEquals(List.of("secret/teams/a", "secret/teams/b/c"), names(plan.paths()));
+        var leaf = plan.paths().get(0);
+        assertEquals(List.of(mappings.get(0), new Mapping("x", "a.x"), new Mapping("y", "a.y")),
+                leaf.mappings(Map.of("y", "2", "x", "1")));
+    }
+
+    @Test
+    public void testEmptyAndMissingNamespaceAreTheSame() throws VaultException {
+        var first = new Server("URL", "TOKEN", false, null, null, null,
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var second = new Server("URL", "TOKEN", false, null, null, "",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+
+        var plan = plan(List.of(first, second));
+
+        assertEquals(1, plan.paths().size());
+    }
+
+    @Test
+    public void testDifferentEngineVersionsAreNotMerged() throws VaultException {
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 1);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+
+        var plan = plan(List.of(first, second));
+
+        assertEquals(2, plan.endpoints().size());
+        assertEquals(2, plan.paths().size());
+    }
+
+    @Test
+    public void testSkippedServersAreNotPlanned() throws VaultException {
+        var skipped = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), true, 2);
+
+        var plan = plan(List.of(skipped));
+
+        assertTrue(plan.endpoints().isEmpty());
+        assertTrue(plan.paths().isEmpty());
+    }
+
+    @Test
+    public void testAllErrorsAreReportedTogether() {
+        var noAuthentication = new Server("URL", null, false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", List.of(new Mapping(null, "property")))), false, 2);
+        var duplicate = new Server("OTHER_URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/b", List.of(new Mapping("key", "shared"))),
+                        new Path("secret/c", List.of(new Mapping("key", "shared")))), false, 2);
+
+        var thrown = assertThrows(VaultException.class, () -> ExecutionPlan.compile(List.of(noAuthentication, duplicate),
+                ExecutionPlan.Operation.PULL, new AuthenticationSysProperties()));
+
+        assertTrue(thrown.getMessage().contains("server #1 (URL) has neither a token nor an authentication method"));
+        assertTrue(thrown.getMessage().contains("server #1 (URL) path secret/a has a mapping without key or property"));
+        assertTrue(thrown.getMessage().contains("path secret/c maps the property shared"));
+    }
+
+    @Test
+    public void testAuthenticationFromCommandLineIsAccepted() throws VaultException {
+        var server = new Server("URL", null, false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var authSystemProps = new AuthenticationSysProperties(List.of("GITHUB"), List.of("PAT"), List.of(), List.of());
+
+        var plan = ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PULL, authSystemProps);
+
+        assertEquals(1, plan.paths().size());
+    }
+
+    @Test
+    public void testRejectsInvalidEndpoints() {
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        server.setEndpoints(List.of("OTHER_URL", ""));
+        server.setHedgePercentile(100);
+
+        var thrown = assertThrows(VaultException.class,
+                () -> ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PULL));
+
+        assertTrue(thrown.getMessage().contains("server #1 (URL) has an endpoint without url"));
+        assertTrue(thrown.getMessage().contains("server #1 (URL) has a hedge percentile outside of 1 to 99"));
+    }
+
+    @Test
+    public void testRejectsOtherSettingsOfMergedServers() {
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", randomMappings(1))), false, 2);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/b", randomMappings(1))), false, 2);
+        second.setChunkSize(1024);
+        second.setReadTimeout(60);
+
+        var thrown = assertThrows(VaultException.class,
+                () -> ExecutionPlan.compile(List.of(first, second), ExecutionPlan.Operation.PUSH));
+
+        assertTrue(thrown.getMessage().contains("server #2 (URL) is the same endpoint as server #1, but has another "
+                + "chunkSize, transport, timeout or retry setting"));
+    }
+
+    @Test
+    public void testPushRejectsKeysMappedFromTwoProperties() {
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", List.of(new Mapping("key", "first"), new Mapping("key", "second"))),
+                        new Path("secret/b/**", null)), false, 2);
+
+        var thrown = assertThrows(VaultException.class,
+                () -> ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH));
+
+        assertTrue(thrown.getMessage().contains("maps the key key from the property second"));
+        assertTrue(thrown.getMessage().contains("path secret/b/** is a subtree, which can only be pulled"));
+    }
+
+    @Test
+    public void testFileMappingsCanOnlyBePushed() throws VaultException {
+        var mapping = new Mapping("keystore", null);
+        mapping.setFile(new java.io.File("keystore.p12"));
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", List.of(mapping))), false, 2);
+
+        var plan = ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH);
+        var thrown = assertThrows(VaultException.class, () -> plan(List.of(server)));
+
+        assertEquals(List.of(mapping), plan.paths().get(0).getMappings());
+        assertTrue(thrown.getMessage().contains("maps the key keystore from a file, which can only be pushed"));
+    }
+
+    @Test
+    public void testSameMappingOfSharedPathIsMerged() throws VaultException {
+        var mappings = randomMappings(2);
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", mappings)), false, 2);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/a", mappings)), false, 2);
+
+        var plan = ExecutionPlan.compile(List.of(first, second), ExecutionPlan.Operation.PUSH);
+
+        assertEquals(mappings, plan.paths().get(0).getMappings());
+        assertThrows(UnsupportedOperationException.class, () -> plan.paths().get(0).getMappings().clear());
+    }
+
+    private static ExecutionPlan plan(List<Server> servers) throws VaultException {
+        return ExecutionPlan.compile(servers, ExecutionPlan.Operation.PULL);
+    }
+
+    @Test
+    public void testImportUsesEndpointsOfServersWithoutPaths() throws VaultException {
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", null, false, 2);
+        var skipped = new Server("URL2", "TOKEN", false, null, null, "NAMESPACE", null, true, 2);
+
+        var plan = ExecutionPlan.compile(List.of(server, skipped), ExecutionPlan.Operation.IMPORT);
+
+        assertEquals(1, plan.endpoints().size());
+        assertTrue(plan.paths().isEmpty());
+    }
+
+    private static List<String> names(List<PlannedPath> paths) {
+        return paths.stream().map(PlannedPath::getName).collect(Collectors.toList());
+    }
+}
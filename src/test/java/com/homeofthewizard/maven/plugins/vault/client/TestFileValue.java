@@ -0,0 +1,46 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestFileValue {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEncodesSmallFiles() throws IOException {
+        for (int size = 0; size < 8; size++) {
+            byte[] content = new byte[size];
+            new Random(size).nextBytes(content);
+            var file = Files.write(directory.resolve("file" + size), content);
+
+            assertEquals(Base64.getEncoder().encodeToString(content), FileValue.base64(file));
+        }
+    }
+
+    @Test
+    public void testEncodesFilesOfSeveralBlocks() throws IOException {
+        byte[] content = new byte[3 * 1024 * 1024 + 1];
+        new Random(42).nextBytes(content);
+        var file = Files.write(directory.resolve("keystore.p12"), content);
+
+        var value = FileValue.base64(file);
+
+        assertEquals(Base64.getEncoder().encodeToString(content), value);
+    }
+
+    @Test
+    public void testMissingFileThrows() {
+        assertThrows(IOException.class, () -> FileValue.base64(directory.resolve("missing")));
+    }
+}
@@ -0,0 +1,157 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestHttpClientTransport {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/v1/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            String token = exchange.getRequestHeaders().getFirst("X-Vault-Token");
+            byte[] response = (exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + token + " "
+                    + new String(request, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            inFlight.decrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            int status = 200;
+            if (exchange.getRequestURI().getPath().endsWith("missing")) {
+                status = 404;
+            } else if (exchange.getRequestURI().getPath().endsWith("busy")) {
+                status = 503;
+                exchange.getResponseHeaders().add("Retry-After", "2");
+            }
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/" + path);
+    }
+
+    @Test
+    public void testSendsRequestsAndReadsResponses() throws VaultException {
+        var transport = new HttpClientTransport(null, Duration.ofSeconds(5), Duration.ofSeconds(5), null, null);
+
+        var response = transport.send("POST", uri("secret/data/app"), Map.of("X-Vault-Token", "TOKEN"),
+                "{}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals("POST /v1/secret/data/app TOKEN {}".getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    @Test
+    public void testReturnsErrorResponses() throws VaultException {
+        var transport = new HttpClientTransport(null, Duration.ofSeconds(5), Duration.ofSeconds(5), null, 1);
+
+        var response = transport.send("GET", uri("secret/missing"), Map.of(), null);
+
+        assertEquals(404, response.getStatus());
+        assertNull(response.getRetryAfter());
+    }
+
+    @Test
+    public void testReadsRetryAfter() throws VaultException {
+        var transport = new HttpClientTransport(null, Duration.ofSeconds(5), Duration.ofSeconds(5), null, null);
+
+        var response = transport.send("GET", uri("secret/busy"), Map.of(), null);
+
+        assertEquals(503, response.getStatus());
+        assertEquals(Duration.ofSeconds(2), response.getRetryAfter());
+        var failure = response.failure();
+        assertInstanceOf(RetryAfterException.class, failure);
+        assertEquals(503, failure.getHttpStatusCode());
+    }
+
+    @Test
+    public void testParsesRetryAfterDates() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+
+        Duration wait = HttpClientTransport.retryAfter(date);
+
+        assertTrue(wait.compareTo(Duration.ofSeconds(25)) > 0 && wait.compareTo(Duration.ofSeconds(30)) <= 0);
+        assertEquals(Duration.ZERO, HttpClientTransport.retryAfter("-1"));
+        assertNull(HttpClientTransport.retryAfter("soon"));
+    }
+
+    @Test
+    public void testBoundsRequestsInFlightToPoolSize() throws Exception {
+        var transport = new HttpClientTransport(null, Duration.ofSeconds(5), Duration.ofSeconds(5), 2, null);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            var start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String path = "secret/app" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return transport.send("GET", uri(path), Map.of(), null).getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(200, (int) future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxInFlight.get() <= 2, "at most 2 requests in flight, got " + maxInFlight.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestPushJournal {
+
+    private static final Endpoint ENDPOINT =
+            Endpoint.of(new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(), false, 2));
+    private static final SecretLocation LOCATION = new SecretLocation(ENDPOINT, "secret/a");
+    private static final Map<String, String> VALUES = Map.of("password", "s3cr3t-value", "user", "admin");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testConfirmedValuesAreReadByNextRun() throws IOException {
+        var file = directory.resolve("target/vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, 4L);
+
+        var journal = new PushJournal(file);
+
+        assertEquals(Long.valueOf(4), journal.confirmedVersion(LOCATION, new LinkedHashMap<>(VALUES)));
+        assertEquals(1, journal.size());
+    }
+
+    @Test
+    public void testChangedValuesAreNotConfirmed() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, 4L);
+
+        var journal = new PushJournal(file);
+
+        assertNull(journal.confirmedVersion(LOCATION, Map.of("password", "other", "user", "admin")));
+        assertNull(journal.confirmedVersion(new SecretLocation(ENDPOINT, "secret/b"), VALUES));
+    }
+
+    @Test
+    public void testUnknownVersionIsNotConfirmed() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, null);
+
+        var journal = new PushJournal(file);
+
+        assertNull(journal.confirmedVersion(LOCATION, VALUES));
+        assertEquals(1, journal.size());
+    }
+
+    @Test
+    public void testValuesAreNotStored() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, 4L);
+
+        var content = Files.readString(file);
+
+        assertFalse(content.contains("s3cr3t-value"));
+        assertFalse(content.contains("secret/a"));
+    }
+
+    @Test
+    public void testDamagedLinesAreIgnored() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, 4L);
+        Files.write(file, "damaged\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        var journal = new PushJournal(file);
+
+        assertEquals(Long.valueOf(4), journal.confirmedVersion(LOCATION, VALUES));
+        assertEquals(1, journal.size());
+    }
+
+    @Test
+    public void testInvalidJournalIsReplaced() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        Files.write(file, "not a journal\n".getBytes(StandardCharsets.UTF_8));
+
+        var journal = new PushJournal(file);
+
+        assertEquals(0, journal.size());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testUnwritableJournalKeepsConfirmedLocationsInMemory() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        Files.createDirectories(file.resolve("child"));
+        var journal = new PushJournal(file);
+
+        assertThrows(IOException.class, () -> journal.confirm(LOCATION, VALUES, 4L));
+
+        assertEquals(Long.valueOf(4), journal.confirmedVersion(LOCATION, VALUES));
+    }
+
+    @Test
+    public void testCompleteDeletesTheJournal() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        var journal = new PushJournal(file);
+        journal.confirm(LOCATION, VALUES, 4L);
+
+        journal.complete();
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, journal.size());
+        assertNull(journal.confirmedVersion(LOCATION, VALUES));
+    }
+
+    @Test
+    public void testJournalIsReadableByOwnerOnly() throws IOException {
+        var file = directory.resolve("vault-push.journal");
+        new PushJournal(file).confirm(LOCATION, VALUES, 4L);
+
+        assertTrue(Files.getPosixFilePermissions(file).stream().noneMatch(p -> p.name().startsWith("GROUP")
+                || p.name().startsWith("OTHERS")));
+    }
+}
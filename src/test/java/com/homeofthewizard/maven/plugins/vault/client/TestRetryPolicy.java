@@ -0,0 +1,128 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Retry;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestRetryPolicy {
+
+    private final List<Duration> sleeps = new ArrayList<>();
+
+    private RetryPolicy policy(int maxAttempts, Duration deadline) {
+        return new RetryPolicy(maxAttempts, Duration.ofMillis(100), Duration.ofSeconds(1), deadline, sleeps::add);
+    }
+
+    @Test
+    public void testRetriesUnavailableServerUntilItSucceeds() throws VaultException {
+        var attempts = new AtomicInteger();
+
+        String response = policy(3, Duration.ofMinutes(1)).call(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new VaultException("sealed", 503);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", response);
+        assertEquals(3, attempts.get());
+        assertEquals(2, sleeps.size());
+    }
+
+    @Test
+    public void testDoesNotRetryPermanentErrors() {
+        var attempts = new AtomicInteger();
+
+        var e = assertThrows(VaultException.class, () -> policy(3, Duration.ofMinutes(1)).call(() -> {
+            attempts.incrementAndGet();
+            throw new VaultException("denied", 403);
+        }));
+
+        assertEquals(403, e.getHttpStatusCode());
+        assertEquals(1, attempts.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void testStopsAfterMaxAttempts() {
+        var attempts = new AtomicInteger();
+        var last = new VaultException("unavailable", 503);
+
+        var e = assertThrows(VaultException.class, () -> policy(4, Duration.ofMinutes(1)).call(() -> {
+            attempts.incrementAndGet();
+            throw last;
+        }));
+
+        assertSame(last, e);
+        assertEquals(4, attempts.get());
+        assertEquals(3, sleeps.size());
+    }
+
+    @Test
+    public void testWaitsAtLeastRetryAfter() throws VaultException {
+        var attempts = new AtomicInteger();
+
+        policy(2, Duration.ofMinutes(1)).call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new RetryAfterException("rate limited", 429, Duration.ofSeconds(7));
+            }
+            return null;
+        });
+
+        assertEquals(List.of(Duration.ofSeconds(7)), sleeps);
+    }
+
+    @Test
+    public void testStopsBeforeDeadline() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(VaultException.class, () -> policy(5, Duration.ofSeconds(3)).call(() -> {
+            attempts.incrementAndGet();
+            throw new RetryAfterException("rate limited", 429, Duration.ofSeconds(10));
+        }));
+
+        assertEquals(1, attempts.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void testBacksOffExponentiallyWithinBounds() {
+        var policy = policy(10, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoff(1, null).toMillis() <= 100);
+            assertTrue(policy.backoff(3, null).toMillis() <= 400);
+            assertTrue(policy.backoff(40, null).toMillis() <= 1000);
+        }
+    }
+
+    @Test
+    public void testRetriesConnectionFailures() {
+        assertTrue(RetryPolicy.isRetryable(new VaultException(new IOException(new ConnectException("refused")))));
+        assertTrue(RetryPolicy.isRetryable(new VaultException(new RuntimeException(new ConnectException()))));
+        assertFalse(RetryPolicy.isRetryable(new VaultException("invalid path")));
+        assertFalse(RetryPolicy.isRetryable(new VaultException("not found", 404)));
+    }
+
+    @Test
+    public void testUsesDefaultsOfUnsetSettings() {
+        var policy = RetryPolicy.of(new Retry(5, null, null, null));
+
+        assertEquals(5, policy.getMaxAttempts());
+        assertEquals(RetryPolicy.of(new Retry(5, RetryPolicy.DEFAULT_INITIAL_BACKOFF, RetryPolicy.DEFAULT_MAX_BACKOFF,
+                RetryPolicy.DEFAULT_DEADLINE)), policy);
+        assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, RetryPolicy.of(null).getMaxAttempts());
+    }
+}
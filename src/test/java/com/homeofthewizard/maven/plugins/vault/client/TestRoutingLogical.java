@@ -0,0 +1,150 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultConfig;
+import io.github.jopenlibs.vault.VaultException;
+import io.github.jopenlibs.vault.api.Logical;
+import io.github.jopenlibs.vault.response.LogicalResponse;
+import io.github.jopenlibs.vault.rest.RestResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestRoutingLogical {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+
+    private final Map<String, LogicalResponse> responses = new ConcurrentHashMap<>();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Logical node(String url) {
+        return new Logical(new VaultConfig()) {
+            @Override
+            public LogicalResponse read(String path) {
+                requests.add("read " + url + " " + path);
+                sleep(delays.getOrDefault(url, 0L));
+                return response(url);
+            }
+
+            @Override
+            public LogicalResponse write(String path, Map<String, Object> nameValuePairs) throws VaultException {
+                requests.add("write " + url + " " + path);
+                if (url.equals("sealed")) {
+                    throw new VaultException("sealed", 503);
+                }
+                return response(url);
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LogicalResponse response(String url) {
+        return responses.computeIfAbsent(url, node -> new LogicalResponse(
+                new RestResponse(200, "application/json", "{}".getBytes(StandardCharsets.UTF_8)), 0,
+                Logical.logicalOperations.readV1));
+    }
+
+    private RoutingLogical logical(Map<String, Integer> statuses, Integer hedgePercentile) {
+        var cluster = new Cluster(List.copyOf(statuses.keySet()), url -> {
+            sleep(url.equals("standby") ? 0 : 30);
+            return statuses.get(url);
+        }, Duration.ofSeconds(5), executor);
+        return new RoutingLogical(new VaultConfig(), cluster, this::node, hedgePercentile);
+    }
+
+    @Test
+    public void testSendsReadsToFastestNodeAndWritesToActiveNode() throws Exception {
+        var logical = logical(Map.of("active", 200, "standby", 429), null);
+
+        logical.read("secret/a");
+        logical.write("secret/a", Map.of("key", "value"));
+
+        assertEquals(List.of("read standby secret/a", "write active secret/a"), requests);
+    }
+
+    @Test
+    public void testWritesFailOverOnceActiveNodeFails() throws Exception {
+        var statuses = new ConcurrentHashMap<>(Map.of("sealed", 200, "standby", 429));
+        var logical = logical(statuses, null);
+
+        assertThrows(VaultException.class, () -> logical.write("secret/a", Map.of()));
+        statuses.put("sealed", 503);
+        statuses.put("standby", 200);
+        logical.write("secret/a", Map.of());
+
+        assertEquals(List.of("write sealed secret/a", "write standby secret/a"), requests);
+    }
+
+    @Test
+    public void testSlowReadsAreHedgedOnNextNode() throws Exception {
+        var logical = logical(Map.of("active", 200, "standby", 429), 50);
+        for (int i = 0; i < RoutingLogical.MIN_SAMPLES; i++) {
+            logical.read("secret/warm");
+        }
+        requests.clear();
+        delays.put("standby", 2_000L);
+
+        long start = System.nanoTime();
+        var response = logical.read("secret/a");
+
+        assertSame(response("active"), response);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(List.of("read standby secret/a", "read active secret/a"), requests);
+    }
+
+    @Test
+    public void testReadsAreNotHedgedOnTheSameNode() throws Exception {
+        var logical = logical(Map.of("active", 200, "sealed", 503), 50);
+        for (int i = 0; i < RoutingLogical.MIN_SAMPLES; i++) {
+            logical.read("secret/warm");
+        }
+        requests.clear();
+        delays.put("active", 200L);
+
+        var response = logical.read("secret/a");
+
+        assertSame(response("active"), response);
+        assertEquals(List.of("read active secret/a"), requests);
+    }
+
+    @Test
+    public void testPercentileOfLatencies() {
+        var latencies = new RoutingLogical.Latencies(4);
+
+        assertEquals(-1, latencies.percentile(50, 1));
+        for (long latency : new long[] {40, 10, 30, 20, 50}) {
+            latencies.add(latency);
+        }
+
+        assertEquals(20, latencies.percentile(50, 4));
+        assertEquals(50, latencies.percentile(99, 4));
+        assertEquals(-1, latencies.percentile(50, 5));
+    }
+}
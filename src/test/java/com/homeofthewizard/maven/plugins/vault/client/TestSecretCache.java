@@ -0,0 +1,188 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSecretCache {
+
+    private static final Endpoint ENDPOINT =
+            Endpoint.of(new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(), false, 2));
+
+    @Test
+    public void testSecondReadIsAHit() throws VaultException {
+        var cache = new SecretCache();
+        var loads = new AtomicInteger();
+        Callable<Map<String, String>> loader = () -> {
+            loads.incrementAndGet();
+            return Map.of("key", "value");
+        };
+
+        var first = cache.get(new SecretLocation(ENDPOINT, "secret/a"), loader);
+        var second = cache.get(new SecretLocation(ENDPOINT, "secret/a"), loader);
+
+        assertEquals(Map.of("key", "value"), first);
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testConcurrentReadsLoadOnce() throws Exception {
+        var cache = new SecretCache();
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        Callable<Map<String, String>> loader = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return Map.of("key", "value");
+        };
+        List<Callable<Map<String, String>>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(() -> cache.get(new SecretLocation(ENDPOINT, "secret/a"), loader));
+        }
+
+        List<Map<String, String>> results;
+        try (var executor = new BoundedExecutor(8, "test")) {
+            new Thread(() -> {
+                sleep();
+                release.countDown();
+            }).start();
+            results = executor.invokeAll(reads);
+        }
+
+        assertEquals(1, loads.get());
+        results.forEach(secrets -> assertEquals(Map.of("key", "value"), secrets));
+        assertEquals(7, cache.getHits());
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() throws VaultException {
+        var cache = new SecretCache();
+        var location = new SecretLocation(ENDPOINT, "secret/a");
+
+        assertThrows(VaultException.class, () -> cache.get(location, () -> {
+            throw new VaultException("unavailable");
+        }));
+        var secrets = cache.get(location, () -> Map.of("key", "value"));
+
+        assertEquals(Map.of("key", "value"), secrets);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidate() throws VaultException {
+        var cache = new SecretCache();
+        var location = new SecretLocation(ENDPOINT, "secret/a");
+        cache.get(location, () -> Map.of("key", "old"));
+
+        cache.invalidate(location);
+        var secrets = cache.get(location, () -> Map.of("key", "new"));
+
+        assertEquals(Map.of("key", "new"), secrets);
+    }
+
+    @Test
+    public void testLocationsOfDifferentEndpointsAreDistinct() throws VaultException {
+        var cache = new SecretCache();
+        var other = Endpoint.of(new Server("OTHER", "TOKEN", false, null, null, "NAMESPACE", List.of(), false, 2));
+        cache.get(new SecretLocation(ENDPOINT, "secret/a"), () -> Map.of("key", "first"));
+
+        var secrets = cache.get(new SecretLocation(other, "secret/a"), () -> Map.of("key", "second"));
+
+        assertEquals(Map.of("key", "second"), secrets);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testLocationsReadWithDifferentTokensAreDistinct() throws VaultException {
+        var cache = new SecretCache();
+        Map<String, TreeMap> authentication = Map.of("githubToken", new TreeMap<>(Map.of("pat", "PAT")));
+        var first = new Server("URL", null, false, null, authentication, "NAMESPACE", List.of(), false, 2);
+        var second = new Server("URL", null, false, null, authentication, "NAMESPACE", List.of(), false, 2);
+        var firstEndpoint = Endpoint.of(first);
+        var secondEndpoint = Endpoint.of(second);
+        first.setToken("FIRST");
+        second.setToken("SECOND");
+        cache.get(new SecretLocation(firstEndpoint, "secret/a"), () -> Map.of("key", "first"));
+
+        var secrets = cache.get(new SecretLocation(secondEndpoint, "secret/a"), () -> Map.of("key", "second"));
+
+        assertEquals(firstEndpoint, secondEndpoint);
+        assertEquals(Map.of("key", "second"), secrets);
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testPrefetchIsJoinedByGet() throws VaultException, InterruptedException {
+        var cache = new SecretCache();
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var location = new SecretLocation(ENDPOINT, "secret/a");
+        var background = Executors.newSingleThreadExecutor();
+
+        cache.prefetch(location, () -> {
+            release.await();
+            loads.incrementAndGet();
+            return Map.of("key", "value");
+        }, background);
+        release.countDown();
+        var secrets = cache.get(location, () -> {
+            throw new IllegalStateException("should join the prefetch");
+        });
+        background.shutdown();
+
+        assertEquals(Map.of("key", "value"), secrets);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testFailedPrefetchIsReadAgain() throws VaultException {
+        var cache = new SecretCache();
+        var location = new SecretLocation(ENDPOINT, "secret/a");
+
+        cache.prefetch(location, () -> {
+            throw new VaultException("unavailable");
+        }, Runnable::run);
+        var secrets = cache.get(location, () -> Map.of("key", "value"));
+
+        assertEquals(Map.of("key", "value"), secrets);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testRejectedPrefetchIsNotCached() throws VaultException {
+        var cache = new SecretCache();
+        var location = new SecretLocation(ENDPOINT, "secret/a");
+
+        cache.prefetch(location, () -> Map.of("key", "stale"), command -> {
+            throw new RejectedExecutionException();
+        });
+        var secrets = cache.get(location, () -> Map.of("key", "value"));
+
+        assertEquals(Map.of("key", "value"), secrets);
+    }
+}
@@ -0,0 +1,62 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSecretImporter {
+
+    @Test
+    public void testSecretsAreGroupedByPathInBoundedBatches() throws VaultException {
+        var client = new RecordingVaultClient();
+        var importer = new SecretImporter(client, plan(server("URL")), new ExecutionOptions(), 2);
+
+        importer.put("secret/a", "k1", "v1");
+        importer.put("secret/b", "k1", "v2");
+        importer.put("secret/a", "k2", "v3");
+        importer.put("secret/c", "k1", "v4");
+        importer.flush();
+
+        assertEquals(2, client.getPushes().size());
+        assertEquals(Map.of("secret/a", Map.of("k1", "v1", "k2", "v3"), "secret/b", Map.of("k1", "v2")),
+                client.getPushes().get(0));
+        assertEquals(Map.of("secret/c", Map.of("k1", "v4")), client.getPushes().get(1));
+        assertEquals(4, importer.getKeys());
+        assertEquals(2, importer.getBatches());
+    }
+
+    @Test
+    public void testBatchIsWrittenToAllServers() throws VaultException {
+        var client = new RecordingVaultClient();
+        var importer = new SecretImporter(client, plan(server("URL1"), server("URL2")), new ExecutionOptions(), 10);
+
+        importer.put("secret/a", "k", "v");
+        importer.flush();
+
+        assertEquals(List.of(2), client.getEndpoints());
+    }
+
+    @Test
+    public void testFlushOfEmptyBatchDoesNothing() throws VaultException {
+        var client = new RecordingVaultClient();
+        var importer = new SecretImporter(client, plan(server("URL")), new ExecutionOptions(), 10);
+
+        importer.flush();
+
+        assertTrue(client.getPushes().isEmpty());
+    }
+
+    private static Server server(String url) {
+        return new Server(url, "TOKEN", false, null, null, "NAMESPACE", null, false, 2);
+    }
+
+    private static ExecutionPlan plan(Server... servers) throws VaultException {
+        return ExecutionPlan.compile(List.of(servers), ExecutionPlan.Operation.IMPORT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSslConfigCache {
+
+    @TempDir
+    Path directory;
+
+    private Path certificate() throws IOException {
+        var file = directory.resolve("certificate.pem");
+        try (InputStream pem = TestSslConfigCache.class
+                .getResourceAsStream("/com/homeofthewizard/maven/plugins/vault/certificate.pem")) {
+            Files.copy(pem, file);
+        }
+        return file;
+    }
+
+    @Test
+    public void testCertificateIsParsedOnce() throws IOException, VaultException {
+        var file = certificate();
+
+        var config = SslConfigCache.sslConfig(true, file.toFile());
+
+        assertSame(config, SslConfigCache.sslConfig(true, file.toFile()));
+        assertSame(config, SslConfigCache.sslConfig(true, directory.resolve("./certificate.pem").toFile()));
+    }
+
+    @Test
+    public void testModifiedCertificateIsParsedAgain() throws IOException, VaultException {
+        var file = certificate();
+        var config = SslConfigCache.sslConfig(true, file.toFile());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+
+        assertNotSame(config, SslConfigCache.sslConfig(true, file.toFile()));
+    }
+
+    @Test
+    public void testUnverifiedConnectionsShareOneContext() throws VaultException {
+        var context = SslConfigCache.sslContext(false, null);
+
+        assertNotNull(context);
+        assertSame(context, SslConfigCache.sslContext(false, null));
+        assertNull(SslConfigCache.sslContext(true, null));
+    }
+
+    @Test
+    public void testMissingCertificateThrows() {
+        assertThrows(VaultException.class, () -> SslConfigCache.sslConfig(true, directory.resolve("missing").toFile()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import io.github.jopenlibs.vault.VaultConfig;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestTransportLogical {
+
+    private final List<String> requests = new ArrayList<>();
+
+    private VaultTransport transport(int status, String body) {
+        return (method, uri, headers, requestBody) -> {
+            requests.add(method + " " + uri + " " + headers.get("X-Vault-Token") + " "
+                    + headers.get("X-Vault-Namespace")
+                    + (requestBody != null ? " " + new String(requestBody, StandardCharsets.UTF_8) : ""));
+            return new VaultTransport.Response(status, "application/json", body.getBytes(StandardCharsets.UTF_8), null);
+        };
+    }
+
+    private static VaultConfig config(Integer engineVersion) throws VaultException {
+        return new VaultConfig()
+                .address("https://vault.example.com:8200/")
+                .token("TOKEN")
+                .nameSpace("team")
+                .engineVersion(engineVersion);
+    }
+
+    @Test
+    public void testRewritesKv2Paths() throws VaultException {
+        var logical = new TransportLogical(config(2), transport(200, "{\"data\":{}}"));
+
+        logical.read("secret/app/db");
+        logical.list("secret/app");
+        logical.write("secret/app/db", Map.of("password", "p"));
+        logical.delete("secret/app/db");
+
+        assertEquals(List.of(
+                "GET https://vault.example.com:8200/v1/secret/data/app/db TOKEN team",
+                "GET https://vault.example.com:8200/v1/secret/metadata/app?list=true TOKEN team",
+                "POST https://vault.example.com:8200/v1/secret/data/app/db TOKEN team {\"data\":{\"password\":\"p\"}}",
+                "DELETE https://vault.example.com:8200/v1/secret/data/app/db TOKEN team"), requests);
+    }
+
+    @Test
+    public void testKeepsKv1Paths() throws VaultException {
+        var logical = new TransportLogical(config(1), transport(204, ""));
+
+        logical.write("secret/app", Map.of("password", "p"));
+        logical.delete("secret/app");
+
+        assertEquals(List.of(
+                "POST https://vault.example.com:8200/v1/secret/app TOKEN team {\"password\":\"p\"}",
+                "DELETE https://vault.example.com:8200/v1/secret/app TOKEN team"), requests);
+    }
+
+    @Test
+    public void testErrorStatusThrowsWithStatus() throws VaultException {
+        var logical = new TransportLogical(config(2), transport(403, "{\"errors\":[\"permission denied\"]}"));
+
+        var thrown = assertThrows(VaultException.class, () -> logical.write("secret/app", Map.of()));
+
+        assertEquals(403, thrown.getHttpStatusCode());
+        assertEquals(500, assertThrows(VaultException.class, () -> new TransportLogical(config(2),
+                transport(500, "{\"errors\":[]}")).read("secret/app")).getHttpStatusCode());
+    }
+
+    @Test
+    public void testClientErrorOfReadIsReturnedAsTheDriverDoes() throws VaultException {
+        var denied = new TransportLogical(config(2), transport(403, "{\"errors\":[\"permission denied\"]}"))
+                .read("secret/app");
+        var missing = new TransportLogical(config(1), transport(404, "{\"errors\":[]}")).read("secret/app");
+
+        assertEquals(403, denied.getRestResponse().getStatus());
+        assertEquals(Map.of(), denied.getData());
+        assertEquals(404, missing.getRestResponse().getStatus());
+    }
+
+    @Test
+    public void testMissingFolderIsListedEmpty() throws VaultException {
+        var logical = new TransportLogical(config(2), transport(404, "{\"errors\":[]}"));
+
+        logical.list("secret/missing");
+
+        assertEquals(URI.create("https://vault.example.com:8200/v1/secret/metadata/missing?list=true").toString(),
+                requests.get(0).split(" ")[1]);
+    }
+}
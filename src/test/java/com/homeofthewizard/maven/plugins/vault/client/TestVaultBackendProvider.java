@@ -0,0 +1,65 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Transport;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static com.homeofthewizard.maven.plugins.vault.client.TransportOptions.DRIVER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestVaultBackendProvider {
+
+    private static final String URL = "https://vault.example.com:8200";
+
+    private static File certificate() {
+        return new File(TestVaultBackendProvider.class
+                .getResource("/com/homeofthewizard/maven/plugins/vault/certificate.pem").getFile());
+    }
+
+    @Test
+    public void testSameServerSharesOneClient() throws VaultException {
+        var provider = new VaultBackendProvider();
+
+        var vault = provider.vault(URL, "TOKEN", "team", true, null, 2, DRIVER);
+
+        assertSame(vault, provider.vault(URL, "TOKEN", "team", true, null, 2, DRIVER));
+        assertSame(provider.vaultConfig(URL, "TOKEN", "team", true, null, 2, DRIVER),
+                provider.vaultConfig(URL, "TOKEN", "team", true, null, 2, DRIVER));
+    }
+
+    @Test
+    public void testServersAreIdentifiedWithoutToken() throws VaultException {
+        var provider = new VaultBackendProvider();
+        var vault = provider.vault(URL, "TOKEN", "team", true, null, 2, DRIVER);
+
+        assertNotSame(vault, provider.vault("https://other.example.com:8200", "TOKEN", "team", true, null, 2, DRIVER));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "other", true, null, 2, DRIVER));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "team", false, null, 2, DRIVER));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "team", true, certificate(), 2, DRIVER));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "team", true, null, 1, DRIVER));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "team", true, null, 2,
+                new TransportOptions(Transport.Pooled, 4, 30)));
+        assertNotSame(vault, provider.vault(URL, "TOKEN", "team", true, null, 2,
+                new TransportOptions(Transport.Driver, null, null, 10, 60, RetryPolicy.NONE)));
+    }
+
+    @Test
+    public void testTokensHaveTheirOwnClient() throws VaultException {
+        var provider = new VaultBackendProvider();
+        var config = provider.vaultConfig(URL, null, "", true, null, 2, DRIVER);
+        var vault = provider.vault(URL, null, "", true, null, 2, DRIVER);
+
+        var loggedIn = provider.vault(URL, "LOGGED_IN", "", true, null, 2, DRIVER);
+
+        assertNotSame(vault, loggedIn);
+        assertSame(loggedIn, provider.vault(URL, "LOGGED_IN", null, true, null, 2, DRIVER));
+        assertSame(vault, provider.vault(URL, null, "", true, null, 2, DRIVER));
+        assertNull(config.getToken());
+        assertEquals("LOGGED_IN", provider.vaultConfig(URL, "LOGGED_IN", "", true, null, 2, DRIVER).getToken());
+    }
+}
@@ -7,22 +7,33 @@ import com.homeofthewizard.maven.plugins.vault.config.authentication.github.Gith
 import io.github.jopenlibs.vault.Vault;
 import io.github.jopenlibs.vault.VaultException;
 import io.github.jopenlibs.vault.api.Logical;
+import io.github.jopenlibs.vault.response.DataMetadata;
 import io.github.jopenlibs.vault.response.LogicalResponse;
+import io.github.jopenlibs.vault.rest.RestResponse;
 import com.homeofthewizard.maven.plugins.vault.config.*;
+import org.apache.maven.plugin.logging.Log;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.homeofthewizard.maven.plugins.vault.VaultTestHelper.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 public class TestVaultClients {
@@ -73,24 +84,24 @@ public class TestVaultClients {
     public void testPullSkip() throws VaultException {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", List.of(), true, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(null);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(null);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         vaultClient.pull(List.of(server), null, OutputMethod.MavenProperties);
 
-        verify(vaultBackendProviderMock, times(0)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(0)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
     }
 
     @Test
     public void testPushSkip() throws VaultException {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", List.of(), true, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(null);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(null);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         vaultClient.push(List.of(server), null);
 
-        verify(vaultBackendProviderMock, times(0)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(0)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
     }
 
     @Test
@@ -98,12 +109,12 @@ public class TestVaultClients {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", List.of(), false, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
         var vaultMock = Mockito.mock(Vault.class);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         vaultClient.pull(List.of(server), null, OutputMethod.MavenProperties);
 
-        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
     }
 
     @Test
@@ -111,12 +122,12 @@ public class TestVaultClients {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", List.of(), false, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
         var vaultMock = Mockito.mock(Vault.class);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         vaultClient.push(List.of(server), null);
 
-        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
     }
 
     @Test
@@ -125,12 +136,192 @@ public class TestVaultClients {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", paths, false, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
         var vaultMock = createVaultMock(paths);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         vaultClient.pull(List.of(server), new Properties(), OutputMethod.MavenProperties);
 
-        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
+    }
+
+    @Test
+    public void testPullConcurrently() throws VaultException {
+        List<Path> paths = randomPaths(20, 10);
+        var server = new Server("URL", null, false, null, null, "NAMESPACE", paths, false, 1);
+        server.setMaxConcurrency(2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+
+        vaultClient.pull(pullPlan(server), properties, OutputMethod.MavenProperties, new ExecutionOptions().parallelism(4));
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultMock.logical(), times(20)).read(any());
+    }
+
+    @Test
+    public void testPull10kPathsConcurrently() throws VaultException {
+        List<Path> paths = randomPaths(10_000, 1);
+        var server = new Server("URL", null, false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var properties = new Properties();
+
+        VaultClient.createForBackend(vaultBackendProviderMock)
+                .pull(pullPlan(server), properties, OutputMethod.MavenProperties, new ExecutionOptions().parallelism(8));
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultMock.logical(), times(10_000)).read(any());
+    }
+
+    @Test
+    public void testPullReadsSharedPathOnce() throws VaultException {
+        List<Path> paths = randomPaths(5, 10);
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+
+        vaultClient.pull(List.of(first, second), properties, OutputMethod.MavenProperties);
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
+        verify(vaultMock.logical(), times(5)).read(any());
+    }
+
+    @Test
+    public void testPullServesCachedPathsAcrossExecutions() throws VaultException {
+        List<Path> paths = randomPaths(5, 10);
+        var server = new Server("URL", null, false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var options = new ExecutionOptions().secretCache(new SecretCache());
+
+        VaultClient.createForBackend(vaultBackendProviderMock)
+                .pull(pullPlan(server), new Properties(), OutputMethod.MavenProperties, options);
+        var properties = new Properties();
+        VaultClient.createForBackend(vaultBackendProviderMock)
+                .pull(pullPlan(server), properties, OutputMethod.MavenProperties, options);
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultMock.logical(), times(5)).read(any());
+        assertEquals(5L, options.getSecretCache().getHits());
+        assertEquals(5L, options.getSecretCache().getMisses());
+    }
+
+    @Test
+    public void testPullReadsChangedVersionsOnly(@TempDir java.nio.file.Path cacheDirectory) throws VaultException {
+        List<Path> paths = randomPaths(5, 10);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        var metadataVaultMock = createMetadataVaultMock("3");
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),eq(2),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),eq(1),any()))
+                .thenReturn(metadataVaultMock);
+        var diskCache = new DiskSecretCache(cacheDirectory, 1024 * 1024, Duration.ZERO);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        vaultClient.pull(pullPlan(server), new Properties(), OutputMethod.MavenProperties,
+                new ExecutionOptions().diskCache(diskCache).versionCheck(true));
+        var properties = new Properties();
+        vaultClient.pull(pullPlan(server), properties, OutputMethod.MavenProperties,
+                new ExecutionOptions().diskCache(diskCache).versionCheck(true));
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultMock.logical(), times(5)).read(any());
+        verify(metadataVaultMock.logical(), times(10)).read(startsWith("secret/metadata/"));
+
+        var changedMetadataVaultMock = createMetadataVaultMock("4");
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),eq(1),any()))
+                .thenReturn(changedMetadataVaultMock);
+        vaultClient.pull(pullPlan(server), new Properties(), OutputMethod.MavenProperties,
+                new ExecutionOptions().diskCache(diskCache).versionCheck(true));
+
+        verify(vaultMock.logical(), times(10)).read(any());
+    }
+
+    @Test
+    public void testPullSubtree() throws VaultException {
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/teams/**", null, "{path}.{key}")), false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        when(logicalMock.list("secret/teams/")).thenReturn(listResponse(List.of("a", "b/")));
+        when(logicalMock.list("secret/teams/b/")).thenReturn(listResponse(List.of("c")));
+        var secretsResponse = Mockito.mock(LogicalResponse.class);
+        when(secretsResponse.getData()).thenReturn(Map.of("password", "secret"));
+        when(logicalMock.read(any())).thenReturn(secretsResponse);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var properties = new Properties();
+
+        VaultClient.createForBackend(vaultBackendProviderMock).pull(pullPlan(server), properties,
+                OutputMethod.MavenProperties, new ExecutionOptions().parallelism(4));
+
+        assertEquals(Map.of("a.password", "secret", "b.c.password", "secret"), properties);
+        verify(logicalMock).read("secret/teams/a");
+        verify(logicalMock).read("secret/teams/b/c");
+    }
+
+    @Test
+    public void testPushSubtreeFails() {
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/teams/**", null)), false, 2);
+        var vaultClient = VaultClient.createForBackend(Mockito.mock(VaultBackendProvider.class));
+
+        assertThrows(VaultException.class, () -> vaultClient.push(List.of(server), new Properties()));
+    }
+
+    @Test
+    public void testPullLazily() throws VaultException {
+        List<Path> paths = randomPaths(3, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var properties = new LazyProperties(new Properties());
+
+        VaultClient.createForBackend(vaultBackendProviderMock)
+                .pull(List.of(server), properties, OutputMethod.LazyMavenProperties);
+
+        verify(vaultMock.logical(), times(0)).read(any());
+        var firstMapping = paths.get(0).getMappings().get(0);
+        var secondMapping = paths.get(0).getMappings().get(1);
+        assertEquals(firstMapping.getKey(), properties.getProperty(firstMapping.getProperty()));
+        assertEquals(secondMapping.getKey(), properties.getProperty(secondMapping.getProperty()));
+        verify(vaultMock.logical(), times(1)).read(paths.get(0).getName());
+        verify(vaultMock.logical(), times(0)).read(paths.get(1).getName());
+    }
+
+    @Test
+    public void testPrefetchReadsServersWithTokenAndWarmsUpOthers() throws VaultException {
+        List<Path> paths = randomPaths(5, 2);
+        var withToken = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var withLogin = new Server("OTHER_URL", null, false, null, null, "NAMESPACE", randomPaths(5, 2), false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var options = new ExecutionOptions().parallelism(4).secretCache(new SecretCache());
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        vaultClient.prefetch(pullPlan(withToken, withLogin), options);
+        var properties = new Properties();
+        vaultClient.pull(pullPlan(withToken), properties, OutputMethod.MavenProperties, options);
+
+        assertEquals(propertiesFromPaths(paths), properties);
+        verify(vaultMock.logical(), times(5)).read(any());
+        verify(vaultBackendProviderMock, timeout(10_000)).warmUp("OTHER_URL");
+        assertEquals(5L, options.getSecretCache().getHits());
+        assertEquals(5L, options.getSecretCache().getMisses());
     }
 
     @Test
@@ -140,7 +331,7 @@ public class TestVaultClients {
         var server = new Server("URL", null, false, null, null, "NAMESPACE", paths2, false, 1);
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
         var vaultMock = createVaultMock(paths);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
 
         NoSuchElementException thrown = assertThrows(
@@ -150,7 +341,7 @@ public class TestVaultClients {
         );
 
         assertTrue(thrown.getMessage().contains("No value found in path"));
-        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
     }
 
     @Test
@@ -160,25 +351,598 @@ public class TestVaultClients {
         var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
         var propertyMap = propertiesFromPaths(paths);
         var vaultMock = createVaultMock(paths);
-        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
         var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
         var properties = new Properties();
         properties.putAll(propertyMap);
 
         vaultClient.push(List.of(server), properties);
 
-        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any());
+        verify(vaultBackendProviderMock, times(1)).vault(any(),any(),any(),anyBoolean(),any(),any(),any());
+    }
+
+    @Test
+    public void testPushSkipsUnchangedPaths() throws VaultException {
+        List<Path> paths = randomPaths(3, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        var logMock = Mockito.mock(Log.class);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().log(logMock));
+
+        verify(vaultMock.logical(), times(3)).read(any());
+        verify(vaultMock.logical(), never()).write(any(), any());
+        verify(vaultBackendProviderMock, never()).patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any());
+        verify(logMock).info(eq(String.format("Vault path %s unchanged", paths.get(0).getName())));
+        verify(logMock).info(eq("Vault push: 0 created, 0 updated, 3 unchanged, 0 failed"));
+    }
+
+    @Test
+    public void testPushKv1ReadsOnceWithoutListing() throws VaultException {
+        List<Path> paths = randomPaths(3, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(List.of(server), properties);
+
+        verify(vaultMock.logical(), never()).list(any());
+        verify(vaultMock.logical(), times(3)).read(any());
+        verify(vaultMock.logical(), times(3)).write(any(), any());
+        verify(vaultBackendProviderMock, never()).patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any());
+    }
+
+    @Test
+    public void testPushCreatesMissingPath() throws VaultException {
+        List<Path> paths = randomPaths(1, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var notFound = Mockito.mock(LogicalResponse.class);
+        var restResponseMock = Mockito.mock(RestResponse.class);
+        var logMock = Mockito.mock(Log.class);
+        when(restResponseMock.getStatus()).thenReturn(404);
+        when(notFound.getRestResponse()).thenReturn(restResponseMock);
+        when(notFound.getData()).thenReturn(Map.of());
+        when(logicalMock.read(any())).thenReturn(notFound);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        when(vaultBackendProviderMock.writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),anyLong(),any()))
+                .thenReturn(true);
+
+        vaultClient.push(ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().log(logMock));
+
+        verify(vaultBackendProviderMock, times(1)).writeChecked(any(),any(),any(),anyBoolean(),any(),
+                eq(paths.get(0).getName()),eq(secretsFromPaths(paths)),eq(0L),any());
+        verify(logicalMock, never()).write(any(), any());
+        verify(vaultBackendProviderMock, never()).patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any());
+        verify(logMock).info(eq(String.format("Vault path %s created", paths.get(0).getName())));
+    }
+
+    @Test
+    public void testPushKv2PatchesChangedKeysOnly() throws VaultException {
+        List<Path> paths = randomPaths(1, 3);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var stored = new HashMap<>(secretsFromPaths(paths));
+        var changedKey = paths.get(0).getMappings().get(1).getKey();
+        stored.put(changedKey, "old");
+        var vaultMock = createVaultMock(stored);
+        var logMock = Mockito.mock(Log.class);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any())).thenReturn(patched(204));
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().log(logMock));
+
+        verify(vaultBackendProviderMock, times(1))
+                .patch(any(),any(),any(),anyBoolean(),any(),eq(paths.get(0).getName()),
+                        eq(Map.of(changedKey, changedKey)),any());
+        verify(vaultMock.logical(), never()).list(any());
+        verify(vaultMock.logical(), never()).write(any(), any());
+        verify(logMock).info(eq(String.format("Vault path %s updated", paths.get(0).getName())));
+    }
+
+    @Test
+    public void testPushKv2FallsBackToWriteWhenPatchIsNotSupported() throws VaultException {
+        List<Path> paths = randomPaths(2, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of("other", "value"));
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any())).thenReturn(patched(405));
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(List.of(server), properties);
+
+        var expected = new HashMap<String, Object>(secretsFromPaths(List.of(paths.get(0))));
+        expected.put("other", "value");
+        verify(vaultMock.logical(), times(2)).read(any());
+        verify(vaultMock.logical(), times(1)).write(eq(paths.get(0).getName()), eq(expected));
+        verify(vaultMock.logical(), times(2)).write(any(), any());
+    }
+
+    @Test
+    public void testPushKv2RetriesWhenAnotherWriterChangedThePath() throws VaultException {
+        List<Path> paths = randomPaths(1, 2);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var first = versionedResponse(Map.of("other", "first"), 3L);
+        var second = versionedResponse(Map.of("other", "second"), 4L);
+        when(logicalMock.read(any())).thenReturn(first, second);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any())).thenReturn(patched(405));
+        when(vaultBackendProviderMock.writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),anyLong(),any()))
+                .thenReturn(false, true);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(List.of(server), properties);
+
+        var merged = new HashMap<>(secretsFromPaths(paths));
+        merged.put("other", "second");
+        verify(logicalMock, times(2)).read(any());
+        verify(vaultBackendProviderMock).writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),eq(3L),any());
+        verify(vaultBackendProviderMock).writeChecked(any(),any(),any(),anyBoolean(),any(),any(),eq(merged),
+                eq(4L),any());
+        verify(logicalMock, never()).write(any(), any());
+    }
+
+    @Test
+    public void testPushKv2GivesUpWhenThePathKeepsChanging() throws VaultException {
+        List<Path> paths = randomPaths(1, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var response = versionedResponse(Map.of(), 7L);
+        when(logicalMock.read(any())).thenReturn(response);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any())).thenReturn(patched(403));
+        when(vaultBackendProviderMock.writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),anyLong(),any()))
+                .thenReturn(false);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        var thrown = assertThrows(VaultException.class, () -> vaultClient.push(List.of(server), properties));
+
+        assertTrue(thrown.getMessage().contains("changed by another writer"));
+        verify(vaultBackendProviderMock, times(5))
+                .writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),anyLong(),any());
+    }
+
+    @Test
+    public void testPushReportsFailuresPerPathAndPushesTheOthers() throws VaultException {
+        List<Path> paths = randomPaths(4, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultMock.logical().write(eq(paths.get(1).getName()), any())).thenThrow(new VaultException("denied"));
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        var thrown = assertThrows(VaultException.class, () -> vaultClient.push(
+                ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().parallelism(4)));
+
+        assertTrue(thrown.getMessage().contains("Failed to push 1 of 4 paths"));
+        assertTrue(thrown.getMessage().contains(String.format("path %s: denied", paths.get(1).getName())));
+        verify(vaultMock.logical(), times(4)).write(any(), any());
+    }
+
+    @Test
+    public void testPushRespectsServerConcurrency() throws VaultException {
+        List<Path> paths = randomPaths(12, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        server.setMaxConcurrency(2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        when(vaultMock.logical().write(any(), any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return null;
+        });
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().parallelism(8));
+
+        verify(vaultMock.logical(), times(12)).write(any(), any());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void testPushReportsAllMissingPropertiesBeforeWriting() throws VaultException {
+        List<Path> paths = randomPaths(2, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(paths);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        var thrown = assertThrows(NoSuchElementException.class, () -> vaultClient.push(List.of(server), new Properties()));
+
+        assertTrue(thrown.getMessage().contains(paths.get(0).getMappings().get(0).getProperty()));
+        assertTrue(thrown.getMessage().contains(paths.get(1).getMappings().get(0).getProperty()));
+        verify(vaultMock.logical(), times(0)).write(any(), any());
+    }
+
+    @Test
+    public void testPushWritesSharedPathOnce() throws VaultException {
+        List<Path> paths = randomPaths(5, 10);
+        var first = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var second = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(List.of(first, second), properties);
+
+        verify(vaultMock.logical(), times(5)).write(any(), any());
+    }
+
+    @Test
+    public void testPushResumesFromJournal(@TempDir java.nio.file.Path directory) throws Exception {
+        List<Path> paths = randomPaths(2, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var response = versionedResponse(Map.of("other", "value"), 2L);
+        when(logicalMock.read(any())).thenReturn(response);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        var metadataVaultMock = createMetadataVaultMock("5");
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),eq(2),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),eq(1),any()))
+                .thenReturn(metadataVaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any())).thenReturn(patched(405));
+        when(vaultBackendProviderMock.writeChecked(any(),any(),any(),anyBoolean(),any(),any(),any(),anyLong(),any()))
+                .thenReturn(true);
+        var file = directory.resolve("vault-push.journal");
+        var pushed = paths.get(0).getMappings().get(0);
+        new PushJournal(file).confirm(new SecretLocation(Endpoint.of(server), paths.get(0).getName()),
+                Map.of(pushed.getKey(), pushed.getKey()), 5L);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        vaultClient.push(ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().journal(new PushJournal(file)));
+
+        verify(logicalMock, times(1)).read(eq(paths.get(1).getName()));
+        verify(logicalMock, never()).read(eq(paths.get(0).getName()));
+        verify(vaultBackendProviderMock, times(1))
+                .writeChecked(any(),any(),any(),anyBoolean(),any(),eq(paths.get(1).getName()),any(),eq(2L),any());
+        assertTrue(java.nio.file.Files.notExists(file));
+    }
+
+    @Test
+    public void testPushKeepsJournalOfConfirmedPathsOnFailure(@TempDir java.nio.file.Path directory)
+            throws VaultException {
+        List<Path> paths = randomPaths(2, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultMock.logical().write(eq(paths.get(1).getName()), any())).thenThrow(new VaultException("denied"));
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var file = directory.resolve("vault-push.journal");
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        assertThrows(VaultException.class, () -> vaultClient.push(
+                ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().journal(new PushJournal(file))));
+
+        assertEquals(1, new PushJournal(file).size());
+    }
+
+    @Test
+    public void testPushJournalsVersionOfPatchedPath(@TempDir java.nio.file.Path directory) throws VaultException {
+        List<Path> paths = randomPaths(2, 1);
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", paths, false, 2);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of("other", "value"));
+        when(vaultMock.logical().read(eq(paths.get(1).getName()))).thenThrow(new VaultException("unavailable", 500));
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        when(vaultBackendProviderMock.patch(any(),any(),any(),anyBoolean(),any(),any(),any(),any()))
+                .thenReturn(new VaultTransport.Response(200, "application/json",
+                        "{\"data\": {\"version\": 8}}".getBytes(StandardCharsets.UTF_8), null));
+        var file = directory.resolve("vault-push.journal");
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.putAll(propertiesFromPaths(paths));
+
+        assertThrows(VaultException.class, () -> vaultClient.push(
+                ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH), properties,
+                new ExecutionOptions().journal(new PushJournal(file))));
+
+        var pushed = paths.get(0).getMappings().get(0);
+        assertEquals(Long.valueOf(8), new PushJournal(file).confirmedVersion(
+                new SecretLocation(Endpoint.of(server), paths.get(0).getName()),
+                Map.of(pushed.getKey(), pushed.getKey())));
+    }
+
+    @Test
+    public void testPushStoresLongValuesInChunks() throws VaultException {
+        var path = new Path("secret/app",
+                List.of(new Mapping("keystore", "app.keystore"), new Mapping("user", "app.user")));
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(path), false, 1);
+        server.setChunkSize(4);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+        properties.setProperty("app.keystore", "0123456789");
+        properties.setProperty("app.user", "admin");
+
+        vaultClient.push(List.of(server), properties);
+
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest("0123456789", 3));
+        verify(vaultMock.logical())
+                .write(eq(chunked.chunkPath("secret/app", "keystore", 0)), eq(Map.of("chunk", "0123")));
+        verify(vaultMock.logical())
+                .write(eq(chunked.chunkPath("secret/app", "keystore", 1)), eq(Map.of("chunk", "4567")));
+        verify(vaultMock.logical())
+                .write(eq(chunked.chunkPath("secret/app", "keystore", 2)), eq(Map.of("chunk", "89")));
+        verify(vaultMock.logical()).write(eq("secret/app"),
+                eq(Map.of("keystore", ChunkedValue.manifest("0123456789", 3), "user", "admin")));
+    }
+
+    @Test
+    public void testPullReassemblesChunkedValues() throws VaultException {
+        var path = new Path("secret/app", List.of(new Mapping("keystore", "app.keystore")));
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(path), false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var chunked = ChunkedValue.parse(ChunkedValue.manifest("0123456789", 3));
+        var responses = Map.of(
+                "secret/app", Map.of("keystore", ChunkedValue.manifest("0123456789", 3)),
+                chunked.chunkPath("secret/app", "keystore", 0), Map.of("chunk", "0123"),
+                chunked.chunkPath("secret/app", "keystore", 1), Map.of("chunk", "4567"),
+                chunked.chunkPath("secret/app", "keystore", 2), Map.of("chunk", "89"));
+        when(logicalMock.read(any())).thenAnswer(invocation -> {
+            var response = Mockito.mock(LogicalResponse.class);
+            when(response.getData()).thenReturn(responses.get(invocation.<String>getArgument(0)));
+            return response;
+        });
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var properties = new Properties();
+
+        vaultClient.pull(pullPlan(server), properties, OutputMethod.MavenProperties,
+                new ExecutionOptions().parallelism(3));
+
+        assertEquals("0123456789", properties.getProperty("app.keystore"));
+        verify(logicalMock, times(4)).read(any());
+    }
+
+    @Test
+    public void testSyncCopiesChangedPathsAndReportsDrift() throws VaultException {
+        var source = new Server("SOURCE", "TOKEN", false, null, null, "", List.of(new Path("secret/app/**", null)),
+                false, 1);
+        var target = new Server("TARGET", "TOKEN", false, null, null, "", null, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var sourceVault = createPathsVaultMock(Map.of(
+                "secret/app/db", Map.of("user", "admin"),
+                "secret/app/api", Map.of("key", "new")), List.of("db", "api"));
+        var targetVault = createPathsVaultMock(Map.of(
+                "secret/app/db", Map.of("user", "admin"),
+                "secret/app/old", Map.of("key", "old")), List.of("db", "old"));
+        when(vaultBackendProviderMock.vault(eq("SOURCE"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(sourceVault);
+        when(vaultBackendProviderMock.vault(eq("TARGET"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(targetVault);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        var report = vaultClient.sync(source, ExecutionPlan.compile(List.of(target), ExecutionPlan.Operation.SYNC),
+                new ExecutionOptions().parallelism(4), false);
+
+        verify(targetVault.logical()).write(eq("secret/app/api"), eq(Map.of("key", "new")));
+        verify(targetVault.logical(), never()).write(eq("secret/app/db"), any());
+        verify(sourceVault.logical(), never()).write(any(), any());
+        var targetReport = report.getTargets().get(0);
+        assertEquals(2, report.getSourcePaths());
+        assertEquals(1, targetReport.getCreated());
+        assertEquals(1, targetReport.getUnchanged());
+        assertEquals(List.of("secret/app/old"), targetReport.getExtraPaths());
+        assertEquals(2, report.getDrift());
+    }
+
+    @Test
+    public void testSyncDryRunWritesNothing() throws VaultException {
+        var source = new Server("SOURCE", "TOKEN", false, null, null, "", List.of(new Path("secret/app/db", null)),
+                false, 1);
+        var target = new Server("TARGET", "TOKEN", false, null, null, "", null, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var sourceVault = createPathsVaultMock(Map.of("secret/app/db", Map.of("user", "admin")), List.of());
+        var targetVault = createPathsVaultMock(Map.of("secret/app/db", Map.of("user", "root")), List.of());
+        when(vaultBackendProviderMock.vault(eq("SOURCE"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(sourceVault);
+        when(vaultBackendProviderMock.vault(eq("TARGET"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(targetVault);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        var report = vaultClient.sync(source, ExecutionPlan.compile(List.of(target), ExecutionPlan.Operation.SYNC),
+                new ExecutionOptions(), true);
+
+        verify(targetVault.logical(), never()).write(any(), any());
+        assertEquals(1, report.getTargets().get(0).getUpdated());
+        assertEquals(0L, report.getBytes());
+    }
+
+    @Test
+    public void testSyncKeepsTargetsOfSourcePathsThatCannotBeRead() throws VaultException {
+        var target = new Server("TARGET", "TOKEN", false, null, null, "", null, false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var sourceVault = Mockito.mock(Vault.class);
+        var sourceLogical = Mockito.mock(Logical.class);
+        when(sourceLogical.read(any())).thenAnswer(invocation -> {
+            var response = Mockito.mock(LogicalResponse.class);
+            int status = invocation.<String>getArgument(0).equals("secret/app/denied") ? 403 : 404;
+            when(response.getData()).thenReturn(Map.of());
+            when(response.getRestResponse()).thenReturn(new RestResponse(status, "application/json",
+                    "{\"errors\": []}".getBytes(StandardCharsets.UTF_8)));
+            return response;
+        });
+        when(sourceVault.logical()).thenReturn(sourceLogical);
+        var targetVault = createPathsVaultMock(Map.of(
+                "secret/app/denied", Map.of("user", "admin"),
+                "secret/app/missing", Map.of("user", "admin")), List.of());
+        when(vaultBackendProviderMock.vault(eq("SOURCE"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(sourceVault);
+        when(vaultBackendProviderMock.vault(eq("TARGET"),any(),any(),anyBoolean(),any(),any(),any()))
+                .thenReturn(targetVault);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+        var targets = ExecutionPlan.compile(List.of(target), ExecutionPlan.Operation.SYNC);
+
+        var denied = assertThrows(VaultException.class, () -> vaultClient.sync(new Server("SOURCE", "TOKEN", false,
+                null, null, "", List.of(new Path("secret/app/denied", null)), false, 1), targets,
+                new ExecutionOptions(), false));
+        var report = vaultClient.sync(new Server("SOURCE", "TOKEN", false, null, null, "",
+                List.of(new Path("secret/app/missing", null)), false, 1), targets, new ExecutionOptions(), false);
+
+        assertEquals(403, denied.getHttpStatusCode());
+        assertEquals(0, report.getSourcePaths());
+        verify(targetVault.logical(), never()).write(any(), any());
+    }
+
+    private static Vault createPathsVaultMock(Map<String, Map<String, String>> secrets, List<String> keys)
+            throws VaultException {
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        when(logicalMock.read(any())).thenAnswer(invocation -> {
+            var response = Mockito.mock(LogicalResponse.class);
+            when(response.getData()).thenReturn(secrets.get(invocation.<String>getArgument(0)));
+            return response;
+        });
+        var listResponse = listResponse(keys);
+        when(logicalMock.list(any())).thenReturn(listResponse);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        return vaultMock;
+    }
+
+    @Test
+    public void testPushFileMappingsAsBase64(@TempDir java.nio.file.Path directory) throws Exception {
+        var file = java.nio.file.Files.write(directory.resolve("keystore.p12"), new byte[] {0, 1, 2, (byte) 0xff});
+        var mapping = new Mapping("keystore", null);
+        mapping.setFile(file.toFile());
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/app", List.of(mapping))), false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        vaultClient.push(List.of(server), new Properties());
+
+        verify(vaultMock.logical()).write(eq("secret/app"), eq(Map.of("keystore", "AAEC/w==")));
+    }
+
+    @Test
+    public void testPushReportsMissingFilesBeforeWriting(@TempDir java.nio.file.Path directory) throws VaultException {
+        var mapping = new Mapping("keystore", null);
+        mapping.setFile(directory.resolve("missing.p12").toFile());
+        var server = new Server("URL", "TOKEN", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/app", List.of(mapping))), false, 1);
+        var vaultBackendProviderMock = Mockito.mock(VaultBackendProvider.class);
+        var vaultMock = createVaultMock(Map.of());
+        when(vaultBackendProviderMock.vault(any(),any(),any(),anyBoolean(),any(),any(),any())).thenReturn(vaultMock);
+        var vaultClient = VaultClient.createForBackend(vaultBackendProviderMock);
+
+        var thrown = assertThrows(NoSuchElementException.class, () -> vaultClient.push(List.of(server), new Properties()));
+
+        assertTrue(thrown.getMessage().contains("No file found at"));
+        verify(vaultMock.logical(), never()).write(any(), any());
     }
 
     private static Vault createVaultMock(List<Path> paths) throws VaultException {
+        return createVaultMock(secretsFromPaths(paths));
+    }
+
+    private static Vault createVaultMock(Map<String, String> secrets) throws VaultException {
         var vaultMock = Mockito.mock(Vault.class);
         var logicalMock = Mockito.mock(Logical.class);
         var logicalResponseMock = Mockito.mock(LogicalResponse.class);
-        when(logicalResponseMock.getData()).thenReturn(secretsFromPaths(paths));
+        when(logicalResponseMock.getData()).thenReturn(secrets);
         when(logicalMock.read(any())).thenReturn(logicalResponseMock);
         when(logicalMock.list(any())).thenReturn(logicalResponseMock);
         when(logicalMock.write(any(),any())).thenReturn(logicalResponseMock);
         when(vaultMock.logical()).thenReturn(logicalMock);
         return vaultMock;
     }
+
+    private static VaultTransport.Response patched(int status) {
+        return new VaultTransport.Response(status, "application/json", new byte[0], null);
+    }
+
+    private static LogicalResponse versionedResponse(Map<String, String> secrets, Long version) {
+        var response = Mockito.mock(LogicalResponse.class);
+        var metadata = Mockito.mock(DataMetadata.class);
+        when(metadata.getVersion()).thenReturn(version);
+        when(response.getData()).thenReturn(secrets);
+        when(response.getDataMetadata()).thenReturn(metadata);
+        return response;
+    }
+
+    private static ExecutionPlan pullPlan(Server... servers) throws VaultException {
+        return ExecutionPlan.compile(List.of(servers), ExecutionPlan.Operation.PULL);
+    }
+
+    private static LogicalResponse listResponse(List<String> keys) {
+        var logicalResponseMock = Mockito.mock(LogicalResponse.class);
+        when(logicalResponseMock.getListData()).thenReturn(keys);
+        return logicalResponseMock;
+    }
+
+    private static Vault createMetadataVaultMock(String currentVersion) throws VaultException {
+        var vaultMock = Mockito.mock(Vault.class);
+        var logicalMock = Mockito.mock(Logical.class);
+        var logicalResponseMock = Mockito.mock(LogicalResponse.class);
+        when(logicalResponseMock.getData()).thenReturn(Map.of("current_version", currentVersion));
+        when(logicalMock.read(any())).thenReturn(logicalResponseMock);
+        when(vaultMock.logical()).thenReturn(logicalMock);
+        return vaultMock;
+    }
 }
@@ -0,0 +1,151 @@
+package com.homeofthewizard.maven.plugins.vault.client;
+
+import com.homeofthewizard.maven.plugins.vault.config.Mapping;
+import com.homeofthewizard.maven.plugins.vault.config.Path;
+import com.homeofthewizard.maven.plugins.vault.config.Server;
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestWriteBehindQueue {
+
+    private static final WriteBehindQueue.Login NO_LOGIN = server -> {
+        throw new IllegalStateException("unexpected login");
+    };
+
+    @Test
+    public void testFlushWritesEachPathOnceWithMergedValues() throws VaultException {
+        var client = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+        var first = server(new Path("secret/shared", List.of(new Mapping("user", "db.user"), new Mapping("password", "db.password"))));
+        var second = server(new Path("secret/shared", List.of(new Mapping("password", "db.password"))),
+                new Path("secret/other", List.of(new Mapping("token", "api.token"))));
+
+        queue.add(client, plan(first), properties("db.user", "admin", "db.password", "old"), new ExecutionOptions(), NO_LOGIN);
+        queue.add(client, plan(second), properties("db.password", "new", "api.token", "t"), new ExecutionOptions(), NO_LOGIN);
+        assertEquals(2, queue.size());
+        queue.flush();
+
+        assertEquals(1, client.getPushes().size());
+        assertEquals(Map.of(
+                "secret/shared", Map.of("user", "admin", "password", "new"),
+                "secret/other", Map.of("token", "t")), client.getPushes().get(0));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testFlushOfEmptyQueueDoesNothing() throws VaultException {
+        var client = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+
+        queue.flush();
+
+        assertTrue(client.getPushes().isEmpty());
+    }
+
+    @Test
+    public void testClearDropsQueuedPaths() throws VaultException {
+        var client = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+        queue.add(client, plan(server(new Path("secret/app", List.of(new Mapping("k", "p"))))), properties("p", "v"),
+                new ExecutionOptions(), NO_LOGIN);
+
+        queue.clear();
+        queue.flush();
+
+        assertTrue(client.getPushes().isEmpty());
+    }
+
+    @Test
+    public void testAddRejectsMissingProperties() throws VaultException {
+        var queue = new WriteBehindQueue();
+        var plan = plan(server(new Path("secret/app", List.of(new Mapping("k", "missing")))));
+
+        assertThrows(NoSuchElementException.class,
+                () -> queue.add(new RecordingVaultClient(), plan, new Properties(), new ExecutionOptions(), NO_LOGIN));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testFlushWritesEachEndpointWithItsOwnClientAndToken() throws VaultException {
+        var firstClient = new RecordingVaultClient();
+        var secondClient = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+        var first = server(new Path("secret/app", List.of(new Mapping("k", "p"))));
+        var second = new Server("URL", "OTHER", false, null, null, "NAMESPACE",
+                List.of(new Path("secret/app", List.of(new Mapping("k", "p")))), false, 2);
+
+        queue.add(firstClient, plan(first), properties("p", "first"), new ExecutionOptions(), NO_LOGIN);
+        queue.add(secondClient, plan(second), properties("p", "second"), new ExecutionOptions(), NO_LOGIN);
+        queue.flush();
+
+        assertEquals(List.of(Map.of("secret/app", Map.of("k", "first"))), firstClient.getPushes());
+        assertEquals(List.of(Map.of("secret/app", Map.of("k", "second"))), secondClient.getPushes());
+    }
+
+    @Test
+    public void testFlushLogsInAgainToServersWithoutConfiguredToken() throws VaultException {
+        var client = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+        var server = new Server("URL", null, false, null, Map.of("githubToken", new TreeMap<>(Map.of("pat", "PAT"))),
+                "NAMESPACE", List.of(new Path("secret/app", List.of(new Mapping("k", "p")))), false, 2);
+        var plan = plan(server);
+        server.setToken("EXPIRED");
+        var logins = new ArrayList<String>();
+
+        queue.add(client, plan, properties("p", "v"), new ExecutionOptions(), login -> {
+            logins.add(login.getToken());
+            login.setToken("FRESH");
+        });
+        queue.flush();
+
+        assertEquals(Collections.singletonList(null), logins);
+        assertEquals("FRESH", server.getToken());
+        assertEquals(1, client.getPushes().size());
+    }
+
+    @Test
+    public void testFlushWritesOtherEndpointsWhenOneFails() throws VaultException {
+        var client = new RecordingVaultClient();
+        var queue = new WriteBehindQueue();
+        var failing = new Server("URL", null, false, null, Map.of("githubToken", new TreeMap<>(Map.of("pat", "PAT"))),
+                "NAMESPACE", List.of(new Path("secret/failing", List.of(new Mapping("k", "p")))), false, 2);
+        queue.add(client, plan(failing), properties("p", "v"), new ExecutionOptions(), login -> {
+            throw new VaultException("permission denied", 403);
+        });
+        queue.add(client, plan(server(new Path("secret/app", List.of(new Mapping("k", "p"))))), properties("p", "v"),
+                new ExecutionOptions(), NO_LOGIN);
+
+        assertThrows(VaultException.class, queue::flush);
+
+        assertEquals(List.of(Map.of("secret/app", Map.of("k", "v"))), client.getPushes());
+        assertEquals(0, queue.size());
+    }
+
+    private static Server server(Path... paths) {
+        return new Server("URL", "TOKEN", false, null, null, "NAMESPACE", List.of(paths), false, 2);
+    }
+
+    private static ExecutionPlan plan(Server server) throws VaultException {
+        return ExecutionPlan.compile(List.of(server), ExecutionPlan.Operation.PUSH);
+    }
+
+    private static Properties properties(String... keyValues) {
+        var properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,97 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+import io.github.jopenlibs.vault.VaultException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestImportFormat {
+
+    @Test
+    public void testEnvFile() throws IOException, VaultException {
+        var content = "# comment\n"
+                + "\n"
+                + "export secret/app/user=admin\n"
+                + "secret/app/password=\"p\\\"a\\nss\"\n"
+                + "secret/app/raw='a \\n b'\n"
+                + "secret/app/port=5432 # database port\n";
+
+        var entries = read(ImportFormat.EnvFile, content);
+
+        var expected = new LinkedHashMap<String, String>();
+        expected.put("secret/app/user", "admin");
+        expected.put("secret/app/password", "p\"a\nss");
+        expected.put("secret/app/raw", "a \\n b");
+        expected.put("secret/app/port", "5432");
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    public void testEnvFileRejectsLineWithoutValue() {
+        assertThrows(IOException.class, () -> read(ImportFormat.EnvFile, "secret/app/user\n"));
+    }
+
+    @Test
+    public void testPropertiesFile() throws IOException, VaultException {
+        var content = "# comment\n"
+                + "! other comment\n"
+                + "secret/app/user = admin\n"
+                + "secret/app/list: a, \\\n"
+                + "    b\n"
+                + "secret/app/unicode=\\u00e9t\\u00e9\n";
+
+        var entries = read(ImportFormat.PropertiesFile, content);
+
+        assertEquals(Map.of("secret/app/user", "admin", "secret/app/list", "a, b", "secret/app/unicode", "\u00e9t\u00e9"), entries);
+    }
+
+    @Test
+    public void testPropertiesFileEndingWithContinuation() throws IOException, VaultException {
+        var content = "secret/app/user = admin\n"
+                + "secret/app/password = s3cr3t\\";
+
+        var entries = read(ImportFormat.PropertiesFile, content);
+
+        assertEquals(Map.of("secret/app/user", "admin", "secret/app/password", "s3cr3t"), entries);
+    }
+
+    @Test
+    public void testJsonFile() throws IOException, VaultException {
+        var content = "{\"secret/app\": {\"user\": \"admin\", \"port\": 5432, \"db\": {\"tls\": true}},"
+                + " \"secret/other/key\": \"value\"}";
+
+        var entries = read(ImportFormat.JsonFile, content);
+
+        var expected = new LinkedHashMap<String, String>();
+        expected.put("secret/app/user", "admin");
+        expected.put("secret/app/port", "5432");
+        expected.put("secret/app/db/tls", "true");
+        expected.put("secret/other/key", "value");
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    public void testJsonFileRejectsArrays() {
+        assertThrows(IOException.class, () -> read(ImportFormat.JsonFile, "{\"secret/app\": [1, 2]}"));
+        assertThrows(IOException.class, () -> read(ImportFormat.JsonFile, "[]"));
+    }
+
+    @Test
+    public void testFormatOfFileName() {
+        assertEquals(ImportFormat.JsonFile, ImportFormat.of("secrets.JSON"));
+        assertEquals(ImportFormat.PropertiesFile, ImportFormat.of("secrets.properties"));
+        assertEquals(ImportFormat.EnvFile, ImportFormat.of(".env"));
+    }
+
+    private static Map<String, String> read(ImportFormat format, String content) throws IOException, VaultException {
+        var entries = new LinkedHashMap<String, String>();
+        format.read(new StringReader(content), entries::put);
+        return entries;
+    }
+}
@@ -0,0 +1,130 @@
+package com.homeofthewizard.maven.plugins.vault.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class TestLazyProperties {
+
+    @Test
+    public void shouldKeepExistingProperties() {
+        var existing = new Properties();
+        existing.setProperty("existing", "value");
+
+        var properties = new LazyProperties(existing);
+
+        Assertions.assertEquals("value", properties.getProperty("existing"));
+    }
+
+    @Test
+    public void shouldResolveOnFirstReadOnly() {
+        var loads = new AtomicInteger();
+        var properties = new LazyProperties(new Properties());
+        properties.register("lazy", () -> "secret" + loads.incrementAndGet());
+
+        Assertions.assertEquals(0, loads.get());
+        Assertions.assertTrue(properties.containsKey("lazy"));
+        Assertions.assertTrue(properties.isPending("lazy"));
+        Assertions.assertEquals("secret1", properties.getProperty("lazy"));
+        Assertions.assertEquals("secret1", properties.get("lazy"));
+        Assertions.assertEquals("secret1", properties.getProperty("lazy", "default"));
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertFalse(properties.isPending("lazy"));
+    }
+
+    @Test
+    public void shouldNotResolveWhenCounting() {
+        var loads = new AtomicInteger();
+        var existing = new Properties();
+        existing.setProperty("existing", "value");
+        var properties = new LazyProperties(existing);
+        properties.register("lazy", () -> "secret" + loads.incrementAndGet());
+
+        Assertions.assertEquals(2, properties.size());
+        Assertions.assertFalse(properties.isEmpty());
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    @Test
+    public void shouldResolveWhenEnumeratedOrCopied() {
+        var loads = new AtomicInteger();
+        var properties = new LazyProperties(new Properties());
+        properties.register("lazy", () -> "secret" + loads.incrementAndGet());
+
+        var copy = new Properties();
+        copy.putAll(properties);
+
+        Assertions.assertEquals("secret1", copy.getProperty("lazy"));
+        Assertions.assertEquals(Set.of("lazy"), properties.stringPropertyNames());
+        Assertions.assertEquals(Map.of("lazy", "secret1"), Map.copyOf(properties));
+        Assertions.assertEquals("secret1", ((Properties) properties.clone()).getProperty("lazy"));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldResolveEveryEnumeration() {
+        for (Consumer<LazyProperties> enumeration : List.<Consumer<LazyProperties>>of(
+                properties -> properties.keySet().size(),
+                properties -> properties.values().size(),
+                properties -> properties.keys(),
+                properties -> properties.elements(),
+                properties -> properties.propertyNames(),
+                properties -> properties.forEach((key, value) -> { }))) {
+            var properties = new LazyProperties(new Properties());
+            properties.register("lazy", () -> "secret");
+
+            enumeration.accept(properties);
+
+            Assertions.assertFalse(properties.isPending("lazy"));
+        }
+    }
+
+    @Test
+    public void shouldNameThePropertyOfAFailedLoad() {
+        var properties = new LazyProperties(new Properties());
+        var failure = new NoSuchElementException("No value found in path secret/a for key key");
+        properties.register("lazy", () -> {
+            throw failure;
+        });
+
+        var e = Assertions.assertThrows(IllegalStateException.class, () -> properties.stringPropertyNames());
+
+        Assertions.assertTrue(e.getMessage().contains("lazy"));
+        Assertions.assertSame(failure, e.getCause());
+        Assertions.assertTrue(properties.isPending("lazy"));
+    }
+
+    @Test
+    public void shouldOverrideWhenSetEagerly() {
+        var properties = new LazyProperties(new Properties());
+        properties.register("lazy", () -> {
+            throw new IllegalStateException("should not load");
+        });
+
+        properties.setProperty("lazy", "eager");
+
+        Assertions.assertEquals("eager", properties.getProperty("lazy"));
+    }
+
+    @Test
+    public void shouldRetryFailedLoads() {
+        var loads = new AtomicInteger();
+        var properties = new LazyProperties(new Properties());
+        properties.register("lazy", () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("unavailable");
+            }
+            return "secret";
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, () -> properties.getProperty("lazy"));
+        Assertions.assertEquals("secret", properties.getProperty("lazy"));
+    }
+}
@@ -74,9 +74,35 @@ public class TestPath {
     tester.addEqualityGroup(INSTANCE, INSTANCE, new Path(NAME, MAPPINGS));
     tester.addEqualityGroup(new Path(NAME, ImmutableList.of()));
     tester.addEqualityGroup(new Path(UUID.randomUUID().toString(), MAPPINGS));
+    tester.addEqualityGroup(new Path(NAME, MAPPINGS, "{key}"));
     tester.testEquals();
   }
 
+  /**
+   * Tests the {@link Path#isSubtree()} and {@link Path#getPrefix()} properties.
+   */
+  @Test
+  public void testSubtree() {
+    Path subtree = new Path("secret/teams/payments/**", null);
+
+    assertEquals(false, INSTANCE.isSubtree());
+    assertEquals(true, subtree.isSubtree());
+    assertEquals("secret/teams/payments", subtree.getPrefix());
+    assertEquals(Path.DEFAULT_NAMING, subtree.getNaming());
+  }
+
+  /**
+   * Tests the {@link Path#propertyName(String, String)} method.
+   */
+  @Test
+  public void testPropertyName() {
+    Path defaultNaming = new Path("secret/teams/**", null);
+    Path customNaming = new Path("secret/teams/**", null, "vault.{name}_{key}");
+
+    assertEquals("payments.db.password", defaultNaming.propertyName("secret/teams/payments/db", "password"));
+    assertEquals("vault.db_password", customNaming.propertyName("secret/teams/payments/db", "password"));
+  }
+
   /**
    * Tests serialization of the {@link Path} class.
    */